@@ -14,6 +14,10 @@
  */
 package com.jaamsim.BasicObjects;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.units.DimensionlessUnit;
@@ -70,4 +74,33 @@ public class Branch extends LinkedComponent {
 		nextComponentList.getValue().get(i-1).addDisplayEntity(ent);
 	}
 
+	/**
+	 * Add a batch of DisplayEntities from upstream.  A choice is made for each entity and
+	 * each next component then receives its share of the batch in a single call, with the
+	 * entities in the order they arrived.
+	 */
+	@Override
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		this.incrementNumberAdded(entList.size());
+
+		// Choose the next component for each entity
+		double simTime = this.getSimTime();
+		LinkedHashMap<LinkedComponent, ArrayList<DisplayEntity>> batches = new LinkedHashMap<LinkedComponent, ArrayList<DisplayEntity>>();
+		for( DisplayEntity ent : entList ) {
+			int i = (int) choice.getValue().getNextSample(simTime);
+			LinkedComponent next = nextComponentList.getValue().get(i-1);
+			ArrayList<DisplayEntity> batch = batches.get(next);
+			if( batch == null ) {
+				batch = new ArrayList<DisplayEntity>();
+				batches.put(next, batch);
+			}
+			batch.add(ent);
+		}
+
+		// Pass the entities to the next components
+		for( LinkedComponent next : batches.keySet() ) {
+			next.addDisplayEntities( batches.get(next) );
+		}
+	}
+
 }
@@ -15,6 +15,7 @@
 package com.jaamsim.BasicObjects;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import com.jaamsim.input.InputAgent;
@@ -56,6 +57,7 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 
 	private final ArrayList<DisplayEntity> entityList;  // List of the entities being conveyed
 	private final ArrayList<Double> startTimeList;  // List of times at which the entities entered the conveyor
+	private final ArrayList<Integer> batchSizeList;  // Number of entities in each batch on the conveyor, 1 for a single entity
 	private boolean busy;  // True if there are any DisplayEntities being conveyed
 	private double totalLength;  // Graphical length of the conveyor
 	private final ArrayList<Double> lengthList;  // Length of each segment of the conveyor
@@ -89,6 +91,7 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 	public EntityConveyor() {
 		entityList = new ArrayList<DisplayEntity>();
 		startTimeList = new ArrayList<Double>();
+		batchSizeList = new ArrayList<Integer>();
 		lengthList = new ArrayList<Double>();
 		cumLengthList = new ArrayList<Double>();
 	}
@@ -99,6 +102,7 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 
 		entityList.clear();
 		startTimeList.clear();
+		batchSizeList.clear();
 		busy = false;
 
 	    // Initialize the segment length data
@@ -124,6 +128,31 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 		// Add the entity to the conveyor
 		entityList.add( ent );
 		startTimeList.add( this.getSimTime() );
+		batchSizeList.add( 1 );
+
+		// If necessary, wake up the conveyor
+		if ( !busy ) {
+			startProcess( new ProcessEntitiesTarget(this, "processEntities") );
+		}
+	}
+
+	/**
+	 * Add a batch of DisplayEntities from upstream.  The entities travel together and
+	 * are passed to the next component as a batch when they reach the end.
+	 */
+	@Override
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		if( entList.isEmpty() )
+			return;
+		this.incrementNumberAdded(entList.size());
+
+		// Add the entities to the conveyor
+		double simTime = this.getSimTime();
+		entityList.addAll( entList );
+		for( int i = 0; i < entList.size(); i++ ) {
+			startTimeList.add( simTime );
+		}
+		batchSizeList.add( entList.size() );
 
 		// If necessary, wake up the conveyor
 		if ( !busy ) {
@@ -161,12 +190,24 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 			double dt = startTimeList.get(0) + travelTimeInput.getValue() - this.getSimTime();
 			this.simWait( dt);
 
-			// Remove the entity from the conveyor
-			DisplayEntity ent = entityList.remove(0);
-			startTimeList.remove(0);
+			// Entities that were added one at a time leave one at a time, even if
+			// they entered the conveyor at the same time
+			int n = batchSizeList.remove(0);
+
+			// A single entity is sent on its own
+			if( n == 1 ) {
+				DisplayEntity ent = entityList.remove(0);
+				startTimeList.remove(0);
+				this.sendToNextComponent(ent);
+				continue;
+			}
 
-			// Send the entity to the next component
-			this.sendToNextComponent(ent);
+			// Remove the entities from the conveyor and send them to the next component together
+			List<DisplayEntity> head = entityList.subList(0, n);
+			ArrayList<DisplayEntity> exitList = new ArrayList<DisplayEntity>(head);
+			head.clear();
+			startTimeList.subList(0, n).clear();
+			this.sendToNextComponent(exitList);
 		}
 
 		// Queue is empty, stop work
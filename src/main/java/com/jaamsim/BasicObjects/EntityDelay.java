@@ -15,6 +15,8 @@
 package com.jaamsim.BasicObjects;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 
 import com.jaamsim.Samples.SampleInput;
@@ -156,6 +158,77 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 		}
 	}
 
+	/**
+	 * Add a batch of DisplayEntities from upstream.  Entities that are given the same
+	 * duration share a single removal event and leave the path together.
+	 */
+	@Override
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		this.incrementNumberAdded(entList.size());
+
+		// Sample the duration for each entity and group the entities that finish together
+		double simTime = this.getSimTime();
+		LinkedHashMap<Double, ArrayList<DisplayEntity>> batches = new LinkedHashMap<Double, ArrayList<DisplayEntity>>();
+		for( DisplayEntity ent : entList ) {
+			double dur = duration.getValue().getNextSample(simTime);
+			entityList.add( ent );
+			startTimeList.add(simTime);
+			durationList.add(dur);
+
+			ArrayList<DisplayEntity> batch = batches.get(dur);
+			if( batch == null ) {
+				batch = new ArrayList<DisplayEntity>();
+				batches.put(dur, batch);
+			}
+			batch.add(ent);
+		}
+
+		// Schedule one removal event for each group
+		for( Double dur : batches.keySet() ) {
+			ArrayList<DisplayEntity> batch = batches.get(dur);
+			if( batch.size() == 1 )
+				this.scheduleProcess(dur, 5, new RemoveDisplayEntityTarget(this, "removeDisplayEntity", batch.get(0)));
+			else
+				this.scheduleProcess(dur, 5, new RemoveDisplayEntitiesTarget(this, "removeDisplayEntities", batch));
+		}
+	}
+
+	private static class RemoveDisplayEntitiesTarget extends ProcessTarget {
+		private final EntityDelay delay;
+		private final String method;
+		private final ArrayList<DisplayEntity> entList;
+
+		RemoveDisplayEntitiesTarget(EntityDelay d, String m, ArrayList<DisplayEntity> l) {
+			delay = d;
+			method = m;
+			entList = l;
+		}
+
+		@Override
+		public void process() {
+			delay.removeDisplayEntities(entList);
+		}
+
+		@Override
+		public String getDescription() {
+			return String.format( "%s.%s(%d entities)", delay.getInputName(), method, entList.size() );
+		}
+	}
+
+	public void removeDisplayEntities(ArrayList<DisplayEntity> entList) {
+
+		// Remove the entities from the lists
+		for( DisplayEntity ent : entList ) {
+			int index = entityList.indexOf(ent);
+			entityList.remove(index);
+			startTimeList.remove(index);
+			durationList.remove(index);
+		}
+
+		// Send the entities to the next component
+		this.sendToNextComponent(entList);
+	}
+
 	public void removeDisplayEntity(DisplayEntity ent) {
 
 		// Remove the entity from the lists
@@ -14,6 +14,9 @@
  */
 package com.jaamsim.BasicObjects;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.units.TimeUnit;
@@ -39,6 +42,12 @@ public class EntityGate extends LinkedComponent {
 	         example = "EntityGate-1 InitialState { FALSE }")
 	private final BooleanInput initialState;
 
+	@Keyword(description = "If TRUE, and the ReleaseDelay is zero, all the queued entities are released " +
+			"together in a single event when the gate opens.\n" +
+			"If FALSE, the queued entities are released one event at a time.",
+	         example = "EntityGate-1 BatchRelease { TRUE }")
+	private final BooleanInput batchRelease;
+
 	private boolean gateOpen;  // TRUE if the gate is open
 	private boolean busy;  // TRUE if the process of emptying the queue has started
 
@@ -53,6 +62,9 @@ public class EntityGate extends LinkedComponent {
 
 		initialState = new BooleanInput( "InitialState", "Key Inputs", true);
 		this.addInput( initialState, true);
+
+		batchRelease = new BooleanInput( "BatchRelease", "Key Inputs", false);
+		this.addInput( batchRelease, true);
 	}
 
 	@Override
@@ -91,6 +103,21 @@ public class EntityGate extends LinkedComponent {
 		this.sendToNextComponent( ent );
 	}
 
+	@Override
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		this.incrementNumberAdded(entList.size());
+
+		// If the gate is closed or other entities are already queued, then add the entities to the queue
+		Queue queue = waitQueue.getValue();
+		if( queue.getCount() > 0 || !gateOpen ) {
+			queue.addAll( entList );
+			return;
+		}
+
+		// Otherwise, pass the entities through together
+		this.sendToNextComponent( entList );
+	}
+
 	/**
 	 * Set the gate to the given state (open or closed).
 	 * @param bool = new state (true = open, false = closed)
@@ -149,6 +176,13 @@ public class EntityGate extends LinkedComponent {
 			return;
 		}
 
+		// If batch release is possible, empty the queue and send its entities to the next component together
+		if( batchRelease.getValue() && releaseDelay.getValue() == 0.0 ) {
+			busy = false;
+			this.releaseAllQueuedEntities();
+			return;
+		}
+
 		// Release the first element in the queue and send to the next component
 		DisplayEntity ent = queue.removeFirst();
 		this.sendToNextComponent( ent );
@@ -163,4 +197,13 @@ public class EntityGate extends LinkedComponent {
 		this.scheduleProcess(releaseDelay.getValue(), 5, new ReleaseQueuedEntityTarget(this, "removeDisplayEntity"));
 	}
 
+	/**
+	 * Release every entity in the queue and pass them to the next component as a single batch.
+	 */
+	private void releaseAllQueuedEntities() {
+		Queue queue = waitQueue.getValue();
+		ArrayList<DisplayEntity> entList = queue.removeFirst( queue.getCount() );
+		this.sendToNextComponent( entList );
+	}
+
 }
@@ -14,6 +14,8 @@
  */
 package com.jaamsim.BasicObjects;
 
+import java.util.List;
+
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
 /**
@@ -39,4 +41,17 @@ public class EntitySink extends LinkedComponent {
 		ent.kill();
 	}
 
+	@Override
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		this.incrementNumberAdded(entList.size());
+
+		// Only increments the number process when there is no next entity
+		this.sendToNextComponent(entList);
+
+		// Kill the added entities
+		for( DisplayEntity ent : entList ) {
+			ent.kill();
+		}
+	}
+
 }
@@ -14,6 +14,8 @@
  */
 package com.jaamsim.BasicObjects;
 
+import java.util.List;
+
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.units.DimensionlessUnit;
@@ -61,6 +63,16 @@ public abstract class LinkedComponent extends DisplayEntity {
 		numberAdded++;
 	}
 
+	/**
+	 * Records the receipt of a batch of entities from upstream.
+	 * Sub-classes that override addDisplayEntities must call this method instead of
+	 * addDisplayEntity for each entity.
+	 * @param n = number of entities received
+	 */
+	protected void incrementNumberAdded( int n ) {
+		numberAdded += n;
+	}
+
 	public void sendToNextComponent(DisplayEntity ent) {
 		if( nextComponentInput.getValue() != null )
 			nextComponentInput.getValue().addDisplayEntity(ent);
@@ -68,6 +80,32 @@ public abstract class LinkedComponent extends DisplayEntity {
 		numberProcessed++;
 	}
 
+	/**
+	 * Add a batch of DisplayEntities from upstream in a single event.
+	 * The entities are received in list order.  Sub-classes that can handle a batch more
+	 * efficiently than one entity at a time should override this method.
+	 * @param entList = entities to be added
+	 */
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		for( DisplayEntity ent : entList ) {
+			this.addDisplayEntity(ent);
+		}
+	}
+
+	/**
+	 * Pass a batch of DisplayEntities to the next component in a single call.
+	 * @param entList = entities to be passed, in the order they were processed
+	 */
+	public void sendToNextComponent(List<DisplayEntity> entList) {
+		if( entList.isEmpty() )
+			return;
+
+		if( nextComponentInput.getValue() != null )
+			nextComponentInput.getValue().addDisplayEntities(entList);
+
+		numberProcessed += entList.size();
+	}
+
 	@Output(name = "NumberAdded",
 	 description = "The number of entities received from upstream.",
 	    unitType = DimensionlessUnit.class)
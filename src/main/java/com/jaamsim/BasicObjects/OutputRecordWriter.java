@@ -0,0 +1,248 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.sandwell.JavaSimulation.ErrorException;
+
+/**
+ * OutputRecordWriter writes the samples taken by an OutputRecorder from a background thread so
+ * that the event thread is not held up by the file output.
+ * <p>
+ * The samples are passed to the writer in blocks, each holding one array per column, and are
+ * written to a columnar binary file in the same blocks.  The file starts with the int MAGIC and
+ * VERSION values and the number of columns, followed by the name and unit of each column in
+ * modified UTF-8.  Each block is an int row count followed by each column in turn as that many
+ * doubles.  A row count of zero marks the end of the file.  All values are big-endian.
+ */
+class OutputRecordWriter {
+	static final int MAGIC = 0x4A524543;  // "JREC"
+	static final int VERSION = 1;
+	private static final int NUM_BLOCKS = 4;  // blocks for each writer, limits the samples waiting to be written
+
+	// A single thread writes the blocks for all the recorders, in the order they are passed to it
+	private static final ExecutorService writerThread;
+
+	static {
+		ThreadFactory factory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "OutputRecordWriter");
+				t.setDaemon(true);
+				return t;
+			}
+		};
+		writerThread = Executors.newSingleThreadExecutor(factory);
+	}
+
+	/**
+	 * A block of samples, the values for each column are held in a separate array.
+	 */
+	static final class Block {
+		final double[][] columns;
+		int numRows;
+
+		Block(int numColumns, int blockSize) {
+			columns = new double[numColumns][blockSize];
+			numRows = 0;
+		}
+
+		boolean isFull() {
+			return numRows == columns[0].length;
+		}
+	}
+
+	private final String fileName;
+	private final DataOutputStream out;
+	private final Writer csv;  // null if a CSV file is not written
+	private final ByteBuffer buffer;  // used by the writer thread to convert a column to bytes
+	private final ArrayBlockingQueue<Block> freeBlocks;
+	private IOException error;  // first error from the writer thread, read after the thread has finished
+
+	/**
+	 * Opens the binary file and optionally a CSV file, and writes the column headers.
+	 * @param file - the binary file
+	 * @param csvFile - the CSV file, or null if a CSV file is not required
+	 * @param names - the name of each column
+	 * @param units - the unit of each column, an empty string if there is no unit
+	 * @param blockSize - the number of rows in each block
+	 */
+	OutputRecordWriter(File file, File csvFile, String[] names, String[] units, int blockSize)
+	throws IOException {
+		fileName = file.getName();
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		Writer csvWriter = null;
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(names.length);
+			for (int i = 0; i < names.length; i++) {
+				out.writeUTF(names[i]);
+				out.writeUTF(units[i]);
+			}
+
+			if (csvFile != null) {
+				csvWriter = new BufferedWriter(new FileWriter(csvFile));
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < names.length; i++) {
+					if (i > 0)
+						sb.append(',');
+					sb.append(names[i]);
+					if (!units[i].isEmpty())
+						sb.append(" (").append(units[i]).append(')');
+				}
+				sb.append('\n');
+				csvWriter.write(sb.toString());
+			}
+		}
+		catch (IOException e) {
+			out.close();
+			if (csvWriter != null)
+				csvWriter.close();
+			throw e;
+		}
+		csv = csvWriter;
+
+		buffer = ByteBuffer.allocate(8 * blockSize);
+		freeBlocks = new ArrayBlockingQueue<Block>(NUM_BLOCKS);
+		for (int i = 0; i < NUM_BLOCKS; i++)
+			freeBlocks.add(new Block(names.length, blockSize));
+	}
+
+	/**
+	 * Returns an empty block, waiting for the writer thread to finish with one if all the
+	 * blocks are waiting to be written.
+	 */
+	Block getBlock() {
+		Block block;
+		try {
+			block = freeBlocks.take();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ErrorException("Interrupted while writing %s", fileName);
+		}
+		block.numRows = 0;
+		return block;
+	}
+
+	/**
+	 * Writes the given block on the writer thread, the block is returned for reuse once it has
+	 * been written.
+	 */
+	void write(final Block block) {
+		writerThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (error == null)
+						writeBlock(block);
+				}
+				catch (IOException e) {
+					error = e;
+				}
+				finally {
+					freeBlocks.add(block);
+				}
+			}
+		});
+	}
+
+	private void writeBlock(Block block) throws IOException {
+		out.writeInt(block.numRows);
+		for (double[] col : block.columns) {
+			buffer.clear();
+			buffer.asDoubleBuffer().put(col, 0, block.numRows);
+			out.write(buffer.array(), 0, 8 * block.numRows);
+		}
+
+		if (csv == null)
+			return;
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < block.numRows; i++) {
+			sb.setLength(0);
+			for (int j = 0; j < block.columns.length; j++) {
+				if (j > 0)
+					sb.append(',');
+				sb.append(block.columns[j][i]);
+			}
+			sb.append('\n');
+			csv.write(sb.toString());
+		}
+	}
+
+	/**
+	 * Writes the samples in the given block, if any, and closes the files once the writer
+	 * thread has finished with them.
+	 * @throws ErrorException if any of the samples could not be written
+	 */
+	void close(Block last) {
+		if (last != null && last.numRows > 0)
+			write(last);
+
+		Future<?> done = writerThread.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (error == null)
+						out.writeInt(0);
+				}
+				catch (IOException e) {
+					error = e;
+				}
+
+				try {
+					out.close();
+					if (csv != null)
+						csv.close();
+				}
+				catch (IOException e) {
+					if (error == null)
+						error = e;
+				}
+			}
+		});
+
+		try {
+			done.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ErrorException("Interrupted while writing %s", fileName);
+		}
+		catch (ExecutionException e) {
+			throw new ErrorException(e.getCause());
+		}
+
+		if (error != null)
+			throw new ErrorException("Unable to write %s: %s", fileName, error.getMessage());
+	}
+}
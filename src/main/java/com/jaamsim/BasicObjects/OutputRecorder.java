@@ -0,0 +1,247 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.Keyword;
+import com.jaamsim.input.Output;
+import com.jaamsim.input.OutputHandle;
+import com.jaamsim.input.OutputListInput;
+import com.jaamsim.input.ValueInput;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.TimeUnit;
+import com.jaamsim.units.Unit;
+import com.sandwell.JavaSimulation.BooleanInput;
+import com.sandwell.JavaSimulation.ErrorException;
+import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation3D.DisplayEntity;
+
+/**
+ * OutputRecorder samples a list of outputs at a fixed interval and records the values to the
+ * file <run name>-<recorder name>.rec, and optionally to a CSV file as well.  The samples are
+ * held in memory and written in blocks by a background thread, see OutputRecordWriter.
+ */
+public class OutputRecorder extends DisplayEntity {
+
+	@Keyword(description = "The outputs to be recorded, each given as an entity and one of its numerical outputs.",
+	         example = "OutputRecorder-1 DataSource { { Queue1 QueueLength } { Server1 Utilisation } }")
+	private final OutputListInput<Double> dataSource;
+
+	@Keyword(description = "The simulated time between samples.",
+	         example = "OutputRecorder-1 SampleInterval { 1 h }")
+	private final ValueInput sampleInterval;
+
+	@Keyword(description = "If TRUE, a sample is only recorded if at least one of the values differs " +
+	                "from the last sample that was recorded.",
+	         example = "OutputRecorder-1 RecordOnChange { TRUE }")
+	private final BooleanInput recordOnChange;
+
+	@Keyword(description = "If TRUE, the samples are also written to the comma separated values file " +
+	                "<run name>-<recorder name>.csv.",
+	         example = "OutputRecorder-1 WriteCSV { TRUE }")
+	private final BooleanInput writeCSV;
+
+	@Keyword(description = "The number of samples held in memory before they are written to file, " +
+	                "from 1 to 65536.  Up to four blocks are held at a time.",
+	         example = "OutputRecorder-1 BlockSize { 4096 }")
+	private final IntegerInput blockSize;
+
+	// Each recorder holds up to four blocks of 8-byte values for every column, so the block
+	// size is limited to keep a long list of outputs from exhausting the heap
+	private static final int MAX_BLOCK_SIZE = 65536;
+
+	private ArrayList<OutputHandle> outputs;  // outputs being recorded, in the order of the columns
+	private OutputRecordWriter writer;  // null if no samples are being recorded
+	private OutputRecordWriter.Block block;  // block receiving the present samples
+	private double[] lastValues;  // values for the last sample recorded
+	private long numberRecorded;  // number of samples recorded in this run
+
+	{
+		dataSource = new OutputListInput<Double>(Double.class, "DataSource", "Key Inputs", null);
+		this.addInput(dataSource, true);
+
+		sampleInterval = new ValueInput("SampleInterval", "Key Inputs", 3600.0d);
+		sampleInterval.setUnitType(TimeUnit.class);
+		sampleInterval.setValidRange(1e-15d, Double.POSITIVE_INFINITY);
+		this.addInput(sampleInterval, true);
+
+		recordOnChange = new BooleanInput("RecordOnChange", "Key Inputs", false);
+		this.addInput(recordOnChange, true);
+
+		writeCSV = new BooleanInput("WriteCSV", "Key Inputs", false);
+		this.addInput(writeCSV, true);
+
+		blockSize = new IntegerInput("BlockSize", "Key Inputs", 1024);
+		blockSize.setValidRange(1, MAX_BLOCK_SIZE);
+		this.addInput(blockSize, true);
+	}
+
+	public OutputRecorder() {
+		outputs = new ArrayList<OutputHandle>();
+	}
+
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+
+		// Finish with any file left open by the previous run
+		this.closeFiles();
+		numberRecorded = 0;
+
+		outputs = new ArrayList<OutputHandle>();
+		if (dataSource.getValue() != null)
+			outputs.addAll(dataSource.getValue());
+		if (outputs.isEmpty())
+			return;
+
+		// The first column is the simulation time, followed by each of the outputs
+		String[] names = new String[outputs.size() + 1];
+		String[] units = new String[outputs.size() + 1];
+		names[0] = "SimTime";
+		units[0] = Unit.getSIUnit(TimeUnit.class);
+		for (int i = 0; i < outputs.size(); i++) {
+			OutputHandle out = outputs.get(i);
+			names[i + 1] = String.format("%s.%s", out.ent.getInputName(), out.getName());
+			Class<? extends Unit> ut = out.getUnitType();
+			if (ut == Unit.class || ut == DimensionlessUnit.class)
+				units[i + 1] = "";
+			else
+				units[i + 1] = Unit.getSIUnit(ut);
+		}
+
+		String baseName = String.format("%s-%s", InputAgent.getRunName(), getName());
+		File file = new File(InputAgent.getReportFileName(baseName + ".rec"));
+		File csvFile = null;
+		if (writeCSV.getValue())
+			csvFile = new File(InputAgent.getReportFileName(baseName + ".csv"));
+
+		try {
+			writer = new OutputRecordWriter(file, csvFile, names, units, blockSize.getValue());
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to open %s: %s", file.getName(), e.getMessage());
+		}
+		lastValues = new double[outputs.size()];
+	}
+
+	@Override
+	public void startUp() {
+		super.startUp();
+
+		if (writer != null)
+			this.processSample();
+	}
+
+	private static class ProcessSampleTarget extends ProcessTarget {
+		final OutputRecorder recorder;
+
+		ProcessSampleTarget(OutputRecorder recorder) {
+			this.recorder = recorder;
+		}
+
+		@Override
+		public String getDescription() {
+			return recorder.getInputName() + ".processSample";
+		}
+
+		@Override
+		public void process() {
+			recorder.processSample();
+		}
+	}
+
+	private final ProcessTarget processSample = new ProcessSampleTarget(this);
+
+	/**
+	 * Records a sample of the outputs and schedules the next sample.
+	 */
+	public void processSample() {
+		if (writer == null)
+			return;
+
+		this.recordSample(getSimTime());
+		scheduleProcess(sampleInterval.getValue(), PRIO_LOWEST, processSample);
+	}
+
+	private void recordSample(double simTime) {
+		if (block == null)
+			block = writer.getBlock();
+
+		// The values are placed in the next row of the block, which is only kept if the sample
+		// is to be recorded
+		int row = block.numRows;
+		boolean changed = numberRecorded == 0 || !recordOnChange.getValue();
+		block.columns[0][row] = simTime;
+		for (int i = 0; i < outputs.size(); i++) {
+			double val = outputs.get(i).getValueAsDouble(simTime, Double.NaN);
+			block.columns[i + 1][row] = val;
+			if (Double.doubleToLongBits(val) != Double.doubleToLongBits(lastValues[i]))
+				changed = true;
+		}
+		if (!changed)
+			return;
+
+		for (int i = 0; i < outputs.size(); i++)
+			lastValues[i] = block.columns[i + 1][row];
+		block.numRows++;
+		numberRecorded++;
+
+		if (block.isFull()) {
+			writer.write(block);
+			block = null;
+		}
+	}
+
+	/**
+	 * Writes any samples that are still held in memory and closes the files.
+	 */
+	private void closeFiles() {
+		if (writer == null)
+			return;
+
+		OutputRecordWriter w = writer;
+		OutputRecordWriter.Block last = block;
+		writer = null;
+		block = null;
+		w.close(last);
+	}
+
+	@Override
+	public void doEnd() {
+		super.doEnd();
+		this.closeFiles();
+	}
+
+	@Override
+	public void kill() {
+		try {
+			this.closeFiles();
+		}
+		finally {
+			super.kill();
+		}
+	}
+
+	@Output(name = "NumberRecorded",
+	        description = "The number of samples recorded in this run.")
+	public long getNumberRecorded(double simTime) {
+		return numberRecorded;
+	}
+}
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 
 import com.jaamsim.ProbabilityDistributions.Distribution;
 import com.jaamsim.Samples.SampleInput;
+import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.units.DimensionlessUnit;
@@ -25,6 +26,8 @@ import com.sandwell.JavaSimulation.DoubleVector;
 import com.sandwell.JavaSimulation.Entity;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
+import com.sandwell.JavaSimulation.TimeSeriesCursor;
+import com.sandwell.JavaSimulation.TimeSeriesProvider;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 import com.sandwell.JavaSimulation3D.Queue;
 
@@ -37,6 +40,7 @@ public class Resource extends DisplayEntity {
 
 	private int unitsInUse;  // number of resource units that are being used at present
 	private ArrayList<Seize> seizeList;  // Seize objects that require this resource
+	private final TimeSeriesCursor capacityCursor;  // position in the Capacity input when it is a time series
 
 	//	Statistics
 	protected double timeOfLastUpdate; // time at which the statistics were last updated
@@ -58,6 +62,7 @@ public class Resource extends DisplayEntity {
 	public Resource() {
 		unitsInUseDist = new DoubleVector();
 		seizeList = new ArrayList<Seize>();
+		capacityCursor = new TimeSeriesCursor();
 	}
 
 	@Override
@@ -102,7 +107,20 @@ public class Resource extends DisplayEntity {
 	 * @return
 	 */
 	public int getAvailableUnits() {
-		return (int) capacity.getValue().getNextSample(this.getSimTime()) - unitsInUse;
+		return this.getCapacity() - unitsInUse;
+	}
+
+	/**
+	 * Return the number of units provided by the resource at the present time
+	 */
+	private int getCapacity() {
+		SampleProvider samp = capacity.getValue();
+		double simTime = this.getSimTime();
+		if (samp instanceof TimeSeriesProvider) {
+			((TimeSeriesProvider)samp).seek(capacityCursor, simTime / 3600.0d);
+			return (int) capacityCursor.getValue();
+		}
+		return (int) samp.getNextSample(simTime);
 	}
 
 	/**
@@ -132,7 +150,7 @@ public class Resource extends DisplayEntity {
 	public void notifySeizeObjects() {
 
 		// Notify the Seize object(s) that can use the released units
-		int cap = (int) capacity.getValue().getNextSample(this.getSimTime());
+		int cap = this.getCapacity();
 		while( cap > unitsInUse ) {
 
 			// Pick the Seize object that has waited the longest
@@ -181,10 +199,8 @@ public class Resource extends DisplayEntity {
 		maxUnitsInUse = Math.max(newValue, maxUnitsInUse);
 
 		// Add the necessary number of additional bins to the queue length distribution
-		int n = newValue + 1 - unitsInUseDist.size();
-		for( int i=0; i<n; i++ ) {
-			unitsInUseDist.add(0.0);
-		}
+		if (unitsInUseDist.size() <= newValue)
+			unitsInUseDist.setSize(newValue + 1);
 
 		double simTime = this.getSimTime();
 		double dt = simTime - timeOfLastUpdate;
@@ -14,6 +14,8 @@
  */
 package com.jaamsim.BasicObjects;
 
+import java.util.List;
+
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.math.Vec3d;
@@ -96,6 +98,24 @@ public class Server extends LinkedComponent {
 		}
 	}
 
+	/**
+	 * Add a batch of DisplayEntities from upstream.  The server is woken at most once for the batch.
+	 */
+	@Override
+	public void addDisplayEntities( List<DisplayEntity> entList ) {
+		if( entList.isEmpty() )
+			return;
+		this.incrementNumberAdded(entList.size());
+
+		// Add the entities to the queue
+		waitQueueInput.getValue().addAll( entList );
+
+		// If necessary, wake up the server
+		if ( !busy ) {
+			startProcess(new ProcessEntitiesTarget(this));
+		}
+	}
+
 	private static class ProcessEntitiesTarget extends EntityTarget<Server> {
 		ProcessEntitiesTarget(Server ent) {
 			super(ent, "processEntities");
@@ -34,6 +34,13 @@ public abstract class BooleanCalculation extends CalculationEntity {
 		return value;
 	}
 
+	@Override
+	public boolean updateValue(double simTime) {
+		boolean oldValue = value;
+		this.update(simTime);
+		return value != oldValue;
+	}
+
 	/*
 	 * Set the present value for this calculation.
 	 */
@@ -14,10 +14,17 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.Keyword;
+import com.jaamsim.input.OutputInput;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.units.DimensionlessUnit;
 import com.sandwell.JavaSimulation.EntityInput;
+import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
@@ -40,6 +47,9 @@ public abstract class CalculationEntity extends DisplayEntity {
 
 	protected boolean calculationInProgress = false;  // TRUE if a value calculation has been started, but not completed yet
 	protected boolean controllerRequired = false;  // TRUE if the Controller keyword must be set
+	protected boolean timeDependent = false;  // TRUE if the calculation must be performed at every update, even when its inputs are unchanged
+	private int sequenceIndex = -1;  // Position of this calculation in its Controller's sequence
+	private boolean directRead = false;  // TRUE if the stored value can be used once the Controller has performed the calculation in its present cycle
 
 	{
 		controller = new EntityInput<Controller>( Controller.class, "Controller", "Key Inputs", null);
@@ -64,6 +74,15 @@ public abstract class CalculationEntity extends DisplayEntity {
 		calculationInProgress = false;
 	}
 
+	@Override
+	public void updateForInput( Input<?> in ) {
+		super.updateForInput( in );
+
+		// Ensure that the Controller repeats the calculation with the new input
+		if( controller.getValue() != null )
+			controller.getValue().setInputChanged(this);
+	}
+
 	public double getSequenceNumber() {
 		return sequenceNumber.getValue();
 	}
@@ -73,6 +92,141 @@ public abstract class CalculationEntity extends DisplayEntity {
 	 */
 	public abstract void update(double simTime);
 
+	/**
+	 * Calculate the current value for this object and report whether it has changed.
+	 * @return TRUE if the value is different from the value before the update.
+	 */
+	public abstract boolean updateValue(double simTime);
+
+	/**
+	 * Sets the position of this calculation in its Controller's sequence, and whether its
+	 * stored value can be used by the calculations that follow it instead of repeating the calculation.
+	 */
+	void setSequenceIndex(int index, boolean direct) {
+		sequenceIndex = index;
+		directRead = direct;
+	}
+
+	int getSequenceIndex() {
+		return sequenceIndex;
+	}
+
+	/**
+	 * Returns TRUE if the Controller has performed this calculation in its present cycle
+	 * and the stored value is identical to the value that would be calculated now.
+	 */
+	protected boolean isValueCurrent() {
+		if( !directRead )
+			return false;
+		Controller cont = controller.getValue();
+		return cont != null && cont.isPerformed(this);
+	}
+
+	/**
+	 * Returns TRUE if this calculation is updated by a Controller whose sampling time is
+	 * adjusted automatically.  The higher-order integration rules are used only in this case,
+	 * so that the results for a fixed sampling time are unchanged.
+	 */
+	protected boolean isAdaptiveSampling() {
+		Controller cont = controller.getValue();
+		return cont != null && cont.isAdaptiveSampling();
+	}
+
+	/**
+	 * Returns the largest time step for the next update that keeps this calculation within the
+	 * given relative error tolerance, or infinity if the calculation places no limit on the step.
+	 * Used by a Controller whose sampling time is adjusted automatically.
+	 * @param lastDt = time step for the last update
+	 * @param tol = relative error tolerance
+	 */
+	public double getMaxTimeStep(double lastDt, double tol) {
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Returns the time step that would bring the estimated error for the last update to the
+	 * given tolerance, assuming that the error is proportional to the square of the time step.
+	 * @param relErr = estimated relative error for the last update
+	 * @param lastDt = time step for the last update
+	 * @param tol = relative error tolerance
+	 */
+	protected static double getTimeStepForError(double relErr, double lastDt, double tol) {
+		if( relErr <= 0.0 )
+			return Double.POSITIVE_INFINITY;
+		return 0.9 * lastDt * Math.sqrt( tol / relErr );
+	}
+
+	/**
+	 * Returns the given error relative to the magnitude of the given value.
+	 * Values smaller than one (in SI units) are treated as one, so that the tolerance
+	 * acts as an absolute tolerance near zero.
+	 */
+	protected static double getRelativeError(double err, double val) {
+		return Math.abs(err) / Math.max( Math.abs(val), 1.0 );
+	}
+
+	/**
+	 * Returns the CalculationEntities whose values are used by this calculation.
+	 */
+	public ArrayList<CalculationEntity> getCalculationInputs() {
+		ArrayList<CalculationEntity> ret = new ArrayList<CalculationEntity>();
+		for( Input<?> in : this.getEditableInputs() ) {
+			Object val = in.getValue();
+			if( val instanceof CalculationEntity ) {
+				ret.add((CalculationEntity)val);
+			}
+			else if( val instanceof Collection<?> ) {
+				for( Object each : (Collection<?>)val ) {
+					if( each instanceof CalculationEntity )
+						ret.add((CalculationEntity)each);
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns TRUE if the calculation must be repeated at every update, either because it
+	 * has internal state that evolves with time or because one of its inputs can change
+	 * without the change being signalled by another CalculationEntity.
+	 */
+	public boolean isTimeDependent() {
+		return timeDependent || this.hasVaryingInputs();
+	}
+
+	/**
+	 * Returns TRUE if one of the inputs to the calculation can change without the change
+	 * being signalled by another CalculationEntity.
+	 */
+	public boolean hasVaryingInputs() {
+		for( Input<?> in : this.getEditableInputs() ) {
+			if( in instanceof OutputInput<?> && in.getValue() != null )
+				return true;
+
+			Object val = in.getValue();
+			if( isVaryingSample(val) )
+				return true;
+
+			if( val instanceof Collection<?> ) {
+				for( Object each : (Collection<?>)val ) {
+					if( isVaryingSample(each) )
+						return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns TRUE if the given input value is a SampleProvider whose value can change with time,
+	 * such as a TimeSeries or a ProbabilityDistribution.
+	 */
+	private static boolean isVaryingSample(Object val) {
+		return val instanceof SampleProvider
+				&& !(val instanceof SampleConstant)
+				&& !(val instanceof CalculationEntity);
+	}
+
 	public Controller getController() {
 		return controller.getValue();
 	}
@@ -17,11 +17,15 @@ package com.jaamsim.CalculationObjects;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
+import com.sandwell.JavaSimulation.BooleanInput;
 import com.sandwell.JavaSimulation.Entity;
+import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
 /**
@@ -35,7 +39,28 @@ public class Controller extends DisplayEntity {
 	         example = "Controller1 SamplingTime { 100 ms }")
 	private final ValueInput samplingTime;
 
+	@Keyword(description = "If TRUE, the time between updates is adjusted automatically to keep the " +
+			"integrations performed by the calculations within the specified Tolerance, using higher-order " +
+			"integration rules.  " +
+			"SamplingTime then sets the largest time between updates.",
+	         example = "Controller1 AdaptiveSampling { TRUE }")
+	private final BooleanInput adaptiveSampling;
+
+	@Keyword(description = "The smallest time between updates when AdaptiveSampling is TRUE.",
+	         example = "Controller1 MinSamplingTime { 1 ms }")
+	private final ValueInput minSamplingTime;
+
+	@Keyword(description = "The relative error tolerance for each update when AdaptiveSampling is TRUE.",
+	         example = "Controller1 Tolerance { 1.0e-4 }")
+	private final ValueInput tolerance;
+
 	private final ArrayList<CalculationEntity> calculationEntityList;  // List of the CalculationEntities controller by this Controller.
+	private final HashMap<CalculationEntity, Integer> indexMap;  // Position of each CalculationEntity in the calculation sequence.
+	private CalculationEntity[] program;  // The CalculationEntities in the order in which their calculations are performed.
+	private int position;  // Position in the sequence of the calculation being performed, or -1 between cycles.
+	private boolean[] alwaysUpdate;  // TRUE if the calculation at this position must be performed at every update.
+	private boolean[] dirty;  // TRUE if an input to the calculation at this position has changed since its last update.
+	private int[][] dependents;  // Positions of the calculations that use the value of the calculation at this position.
 	private int count;  // Number of times that the controller has initiated its calculations.
 
 	{
@@ -43,10 +68,37 @@ public class Controller extends DisplayEntity {
 		samplingTime.setUnitType(TimeUnit.class);
 		samplingTime.setValidRange(0.0, Double.POSITIVE_INFINITY);
 		this.addInput(samplingTime, true);
+
+		adaptiveSampling = new BooleanInput("AdaptiveSampling", "Key Inputs", false);
+		this.addInput(adaptiveSampling, true);
+
+		minSamplingTime = new ValueInput("MinSamplingTime", "Key Inputs", 1.0e-3d);
+		minSamplingTime.setUnitType(TimeUnit.class);
+		minSamplingTime.setValidRange(1.0e-10, Double.POSITIVE_INFINITY);
+		this.addInput(minSamplingTime, true);
+
+		tolerance = new ValueInput("Tolerance", "Key Inputs", 1.0e-4d);
+		tolerance.setUnitType(DimensionlessUnit.class);
+		tolerance.setValidRange(1.0e-12, 1.0);
+		this.addInput(tolerance, true);
+	}
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		if( adaptiveSampling.getValue() && minSamplingTime.getValue() > samplingTime.getValue() )
+			throw new InputErrorException( "MinSamplingTime must not be greater than SamplingTime." );
 	}
 
 	public Controller() {
 		calculationEntityList = new ArrayList<CalculationEntity>();
+		indexMap = new HashMap<CalculationEntity, Integer>();
+		program = new CalculationEntity[0];
+		position = -1;
+		alwaysUpdate = new boolean[0];
+		dirty = new boolean[0];
+		dependents = new int[0][];
 	}
 
 	@Override
@@ -63,6 +115,91 @@ public class Controller extends DisplayEntity {
 
 		// Sort the calculation entities into the correct sequence
 		Collections.sort(calculationEntityList, new SequenceCompare());
+
+		// Build the dependency graph for the calculations
+		this.buildDependencyGraph();
+		position = -1;
+	}
+
+	/**
+	 * Determines which calculations use the value of each calculation in the sequence,
+	 * which calculations must be performed at every update regardless of their inputs,
+	 * and which calculations can supply their stored values to the calculations that follow them.
+	 */
+	private void buildDependencyGraph() {
+		int n = calculationEntityList.size();
+		program = calculationEntityList.toArray(new CalculationEntity[n]);
+		indexMap.clear();
+		for (int i = 0; i < n; i++) {
+			indexMap.put(program[i], i);
+		}
+
+		// A calculation is 'ordered' if all its inputs, direct and indirect, are performed before it
+		// in the sequence and none of them can change without notice during the cycle
+		boolean[] ordered = new boolean[n];
+
+		alwaysUpdate = new boolean[n];
+		dirty = new boolean[n];
+		ArrayList<ArrayList<Integer>> depList = new ArrayList<ArrayList<Integer>>(n);
+		for (int i = 0; i < n; i++) {
+			depList.add(new ArrayList<Integer>());
+		}
+
+		for (int i = 0; i < n; i++) {
+			CalculationEntity ent = program[i];
+			alwaysUpdate[i] = ent.isTimeDependent();
+			ordered[i] = !ent.hasVaryingInputs();
+
+			// Every calculation is performed at the first update
+			dirty[i] = true;
+
+			for (CalculationEntity in : ent.getCalculationInputs()) {
+				Integer j = indexMap.get(in);
+
+				// An input that is not managed by this controller can change at any time
+				if (j == null) {
+					alwaysUpdate[i] = true;
+					ordered[i] = false;
+					continue;
+				}
+				if (!depList.get(j).contains(i))
+					depList.get(j).add(i);
+				if (j >= i || !ordered[j])
+					ordered[i] = false;
+			}
+
+			// The stored value for a calculation without internal state is the same as a new calculation
+			// for the remainder of the cycle
+			ent.setSequenceIndex(i, ordered[i] && !alwaysUpdate[i]);
+		}
+
+		dependents = new int[n][];
+		for (int i = 0; i < n; i++) {
+			ArrayList<Integer> list = depList.get(i);
+			dependents[i] = new int[list.size()];
+			for (int k = 0; k < list.size(); k++) {
+				dependents[i][k] = list.get(k);
+			}
+		}
+	}
+
+	/**
+	 * Ensures that the given calculation is performed at the next update.
+	 * Called when one of the calculation's inputs is modified.
+	 */
+	void setInputChanged(CalculationEntity ent) {
+		Integer i = indexMap.get(ent);
+		if (i != null)
+			dirty[i] = true;
+	}
+
+	/**
+	 * Returns TRUE if the given calculation has been performed, or found to be unchanged,
+	 * in the present cycle.
+	 */
+	boolean isPerformed(CalculationEntity ent) {
+		int i = ent.getSequenceIndex();
+		return i >= 0 && i < position && program[i] == ent;
 	}
 
 	// Sorts by increasing sequence number
@@ -77,24 +214,69 @@ public class Controller extends DisplayEntity {
 	public void startUp() {
 		super.startUp();
 
+		// With adaptive sampling, start with the smallest time step and let it grow
+		double dt = samplingTime.getValue();
+		if( adaptiveSampling.getValue() )
+			dt = minSamplingTime.getValue();
+
 		//Loop infinitely over the calculation entities
 		while( true ) {
 
 			// Wait for the samplingTime
-			this.simWait( samplingTime.getValue() );
+			this.simWait( dt );
 
-			// Update the last value for each entity
+			// Update the last value for each entity whose inputs may have changed.
+			// A change to a value marks the calculations that use it for updating, either
+			// later in this cycle or, for feedback to an earlier calculation, in the next one.
 			double simTime = this.getSimTime();
-			for( CalculationEntity ent : calculationEntityList ) {
-				ent.update(simTime);
+			for (position = 0; position < program.length; position++) {
+				int i = position;
+				if (!dirty[i] && !alwaysUpdate[i])
+					continue;
+				dirty[i] = false;
+
+				if (program[i].updateValue(simTime)) {
+					for (int j : dependents[i]) {
+						dirty[j] = true;
+					}
+				}
 			}
+			position = -1;
 
 			// Increment the number of cycles
 			count++;
+
+			// Select the time step for the next update
+			dt = this.getNextTimeStep(dt);
+		}
+	}
+
+	/**
+	 * Returns the time step for the next update, which is SamplingTime unless AdaptiveSampling is used.
+	 * With AdaptiveSampling, each calculation proposes the largest step that meets the tolerance.  The
+	 * step can grow by at most a factor of two per update and is kept between MinSamplingTime and SamplingTime.
+	 * @param lastDt = time step for the last update
+	 */
+	double getNextTimeStep(double lastDt) {
+		if( !adaptiveSampling.getValue() )
+			return samplingTime.getValue();
+
+		double tol = tolerance.getValue();
+		double dt = Math.min( 2.0 * lastDt, samplingTime.getValue() );
+		for (CalculationEntity ent : program) {
+			dt = Math.min( dt, ent.getMaxTimeStep(lastDt, tol) );
 		}
+		return Math.max( dt, minSamplingTime.getValue() );
 	}
 
 	public int getCount() {
 		return count;
 	}
+
+	/**
+	 * Returns TRUE if the time step is adjusted automatically to meet the Tolerance.
+	 */
+	public boolean isAdaptiveSampling() {
+		return adaptiveSampling.getValue();
+	}
 }
@@ -37,6 +37,7 @@ public class Differentiator extends DoubleCalculation {
 
 	{
 		controllerRequired = true;
+		timeDependent = true;
 
 		derivativeTime = new SampleInput( "DerivativeTime", "Key Inputs", new SampleConstant(TimeUnit.class, 1.0) );
 		derivativeTime.setUnitType(TimeUnit.class);
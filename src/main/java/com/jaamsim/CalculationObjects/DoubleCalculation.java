@@ -14,6 +14,8 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.Arrays;
+
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.OutputHandle;
 import com.jaamsim.input.UnitTypeInput;
@@ -117,6 +119,13 @@ implements SampleProvider {
 		value = this.calculateValue(simTime);
 	}
 
+	@Override
+	public boolean updateValue(double simTime) {
+		double oldValue = value;
+		this.update(simTime);
+		return Double.compare(value, oldValue) != 0;
+	}
+
 	@Override
 	public double getNextSample(double simTime) {
 
@@ -124,6 +133,10 @@ implements SampleProvider {
 		if( !this.repeatableInputs() )
 			return value;
 
+		// If the Controller has already performed this calculation in its present cycle, then return the stored value
+		if( this.isValueCurrent() )
+			return value;
+
 		// Has this method has already been called for this object
 		if( calculationInProgress ) {
 			if( this.getController() != null ) {
@@ -140,6 +153,11 @@ implements SampleProvider {
 		return val;
 	}
 
+	@Override
+	public void fillSamples(double simTime, double[] out, int n) {
+		Arrays.fill(out, 0, n, this.getNextSample(simTime));
+	}
+
 	protected void setUnitType(Class<? extends Unit> ut) {
 		inputValue.setUnitType(ut);
 		FrameBox.setSelectedEntity(this);  // Update the units in the Output Viewer
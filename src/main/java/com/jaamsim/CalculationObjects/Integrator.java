@@ -42,9 +42,13 @@ public class Integrator extends DoubleCalculation {
 
 	private double lastUpdateTime;  // The time at which the last update was performed
 	private double integral; // The present value for the integral
+	private double lastInputValue;  // The input value for the last update
+	private boolean lastInputKnown;  // TRUE if lastInputValue holds an input value for the trapezoidal rule
+	private double errorEstimate;  // The estimated relative error for the last update
 
 	{
 		controllerRequired = true;
+		timeDependent = true;
 
 		initialValue = new ValueInput( "InitialValue", "Key Inputs", 0.0d);
 		initialValue.setUnitType(UserSpecifiedUnit.class);
@@ -73,21 +77,56 @@ public class Integrator extends DoubleCalculation {
 		super.earlyInit();
 		lastUpdateTime = 0.0;
 		integral = 0.0;
+		errorEstimate = 0.0;
+
+		// Seed the input value at time = 0 so that the first step can use the trapezoidal rule
+		lastInputValue = 0.0;
+		lastInputKnown = false;
+		if( this.isAdaptiveSampling() && this.repeatableInputs() ) {
+			lastInputValue = this.getInputValue(0.0);
+			lastInputKnown = true;
+		}
+	}
+
+	/**
+	 * Returns the increment to the integral over the time step.
+	 * The trapezoidal rule is used with adaptive sampling, otherwise the rectangular rule.
+	 */
+	private double getIncrement(double val, double dt) {
+		if( !this.isAdaptiveSampling() || !lastInputKnown )
+			return val * dt;
+		return 0.5 * ( lastInputValue + val ) * dt;
 	}
 
 	@Override
 	protected double calculateValue(double simTime) {
 		double dt = simTime - lastUpdateTime;
 		double scale = integralTime.getValue().getNextSample(simTime);
-		return ( integral + this.getInputValue(simTime) * dt )/scale  +  initialValue.getValue();
+		return ( integral + this.getIncrement(this.getInputValue(simTime), dt) )/scale  +  initialValue.getValue();
 	}
 
 	@Override
 	public void update(double simTime) {
 		super.update(simTime);
 		double dt = simTime - lastUpdateTime;
-		integral += this.getInputValue(simTime) * dt;
+		double val = this.getInputValue(simTime);
+		integral += this.getIncrement(val, dt);
+
+		// Estimate the error as the difference from the rectangular rule
+		errorEstimate = 0.0;
+		if( lastInputKnown ) {
+			double scale = integralTime.getValue().getNextSample(simTime);
+			errorEstimate = getRelativeError( 0.5 * ( val - lastInputValue ) * dt / scale, this.getValue() );
+		}
+
+		lastInputValue = val;
+		lastInputKnown = true;
 		lastUpdateTime = simTime;
 	}
 
+	@Override
+	public double getMaxTimeStep(double lastDt, double tol) {
+		return getTimeStepForError(errorEstimate, lastDt, tol);
+	}
+
 }
@@ -34,9 +34,13 @@ public class Lag extends DoubleCalculation {
 	private double lastUpdateTime;  // The time at which the last update was performed
 	private double integral; // The present value for the integral
 	private double presentValue;  // The present output value
+	private double lastInputValue;  // The input value for the last update
+	private boolean lastInputKnown;  // TRUE if lastInputValue holds an input value for the error estimate
+	private double errorEstimate;  // The estimated relative error for the last update
 
 	{
 		controllerRequired = true;
+		timeDependent = true;
 
 		lagTime = new ValueInput( "LagTime", "Key Inputs", 1.0d);
 		lagTime.setValidRange(1.0e-10, Double.POSITIVE_INFINITY);
@@ -50,12 +54,30 @@ public class Lag extends DoubleCalculation {
 		integral = 0.0;
 		presentValue = 0.0;
 		lastUpdateTime = 0.0;
+		errorEstimate = 0.0;
+
+		// Seed the input value at time = 0 so that the first error estimate is meaningful
+		lastInputValue = 0.0;
+		lastInputKnown = false;
+		if( this.isAdaptiveSampling() && this.repeatableInputs() ) {
+			lastInputValue = this.getInputValue(0.0);
+			lastInputKnown = true;
+		}
 	}
 
+	/**
+	 * Returns the output value after the given time step.
+	 * With adaptive sampling, the exact solution for a constant input is used, which remains
+	 * stable for any time step.  Otherwise, the error is integrated with the rectangular rule.
+	 */
 	@Override
 	public double calculateValue(double simTime) {
 		double dt = simTime - lastUpdateTime;
-		double error = this.getInputValue(simTime) - presentValue;
+		double val = this.getInputValue(simTime);
+		if( this.isAdaptiveSampling() )
+			return val + ( presentValue - val ) * Math.exp( -dt / lagTime.getValue() );
+
+		double error = val - presentValue;
 		return ( integral + error*dt ) / lagTime.getValue();
 	}
 
@@ -63,12 +85,27 @@ public class Lag extends DoubleCalculation {
 	public void update(double simTime) {
 		super.update(simTime);
 		double dt = simTime - lastUpdateTime;
-		double error = this.getInputValue(simTime) - presentValue;
-		integral += error * dt;
+		double val = this.getInputValue(simTime);
+		integral += ( val - presentValue ) * dt;
+
+		// Estimate the error caused by the change in the input over the time step
+		errorEstimate = 0.0;
+		if( lastInputKnown ) {
+			double frac = Math.min( 1.0, dt / lagTime.getValue() );
+			errorEstimate = getRelativeError( 0.5 * ( val - lastInputValue ) * frac, this.getValue() );
+		}
+
 		presentValue = this.getValue();
+		lastInputValue = val;
+		lastInputKnown = true;
 		lastUpdateTime = simTime;
 	}
 
+	@Override
+	public double getMaxTimeStep(double lastDt, double tol) {
+		return getTimeStepForError(errorEstimate, lastDt, tol);
+	}
+
 	@Output(name = "Error",
 	 description = "The value for InputValue - OutputValue.")
 	public double getError( double simTime ) {
@@ -38,6 +38,7 @@ public class MovingAverage extends DoubleCalculation {
 
 	{
 		controllerRequired = true;
+		timeDependent = true;
 
 		numberOfSamples = new IntegerInput( "NumberOfSamples", "Key Inputs", 1);
 		numberOfSamples.setValidRange( 1, Integer.MAX_VALUE);
@@ -84,9 +84,12 @@ public class PIDController extends DoubleCalculation {
 	private double lastError;  // The previous value for the error signal
 	private double integral;  // The integral of the error signal
 	private double derivative;  // The derivative of the error signal
+	private boolean lastErrorKnown;  // TRUE if lastError holds the error signal from a previous update
+	private double errorEstimate;  // The estimated relative error in the integral term for the last update
 
 	{
 		controllerRequired = true;
+		timeDependent = true;
 		inputValue.setHidden(true);
 
 		setPointUnitType = new UnitTypeInput( "SetPointUnitType", "Key Inputs", UserSpecifiedUnit.class);
@@ -163,6 +166,19 @@ public class PIDController extends DoubleCalculation {
 		lastError = 0.0;
 		integral = 0.0;
 		lastUpdateTime = 0.0;
+		lastErrorKnown = false;
+		errorEstimate = 0.0;
+	}
+
+	/**
+	 * Returns the increment to the integral of the error signal over the time step.
+	 * The trapezoidal rule is used with adaptive sampling once an error value from a previous
+	 * update is available, otherwise the rectangular rule.
+	 */
+	private double getIncrement(double error, double dt) {
+		if( !this.isAdaptiveSampling() || !lastErrorKnown )
+			return error * dt;
+		return 0.5 * ( lastError + error ) * dt;
 	}
 
 	@Override
@@ -189,7 +205,7 @@ public class PIDController extends DoubleCalculation {
 		double error = setPoint.getValue().getNextSample(simTime) - processVariable.getValue().getNextSample(simTime);
 
 		// Calculate integral and differential terms
-		double intgrl = integral + error * dt;
+		double intgrl = integral + this.getIncrement(error, dt);
 		double deriv = 0.0;
 		if( dt > 0.0 )
 			deriv = ( error - lastError ) / dt;
@@ -212,12 +228,26 @@ public class PIDController extends DoubleCalculation {
 		super.update(simTime);
 		double dt = simTime - lastUpdateTime;
 		double error = setPoint.getValue().getNextSample(simTime) - processVariable.getValue().getNextSample(simTime);
-		integral += error * dt;
+		integral += this.getIncrement(error, dt);
+
+		// Estimate the error in the integral term as the difference from the rectangular rule
+		errorEstimate = 0.0;
+		if( lastErrorKnown ) {
+			double scale = scaleConversionCoefficient.getValue() * proportionalGain.getValue() / integralTime.getValue();
+			errorEstimate = getRelativeError( 0.5 * ( error - lastError ) * dt * scale, this.getValue() );
+		}
+
 		lastError = error;
+		lastErrorKnown = true;
 		lastUpdateTime = simTime;
 		return;
 	}
 
+	@Override
+	public double getMaxTimeStep(double lastDt, double tol) {
+		return getTimeStepForError(errorEstimate, lastDt, tol);
+	}
+
 	@Output(name = "Error",
 	 description = "The value for SetPoint - ProcessVariable.")
 	public double getError( double simTime ) {
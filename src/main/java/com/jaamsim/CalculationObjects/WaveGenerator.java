@@ -46,6 +46,7 @@ public abstract class WaveGenerator extends DoubleCalculation {
 	private final ValueInput offset;
 
 	{
+		timeDependent = true;
 		inputValue.setHidden(true);
 
 		amplitude = new ValueInput( "Amplitude", "Key Inputs", 1.0d);
@@ -84,7 +84,7 @@ public class FluidCentrifugalPump extends FluidComponent {
 		double speedFactor = speedControllerInput.getValue().getValue();
 		speedFactor = Math.max(speedFactor, 0.0);
 		speedFactor = Math.min(speedFactor, 1.0);
-		double flowFactor = this.getFluidFlow().getFlowRate() / maxFlowRateInput.getValue();
+		double flowFactor = this.getFlowRate() / maxFlowRateInput.getValue();
 		double pres = inletPres;
 		pres += maxPressureInput.getValue() * speedFactor * speedFactor;
 		pres -= maxPressureLossInput.getValue() * Math.abs(flowFactor) * flowFactor;
@@ -22,6 +22,7 @@ import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.DistanceUnit;
 import com.jaamsim.units.SpeedUnit;
 import com.jaamsim.units.PressureUnit;
+import com.jaamsim.units.VolumeFlowUnit;
 import com.sandwell.JavaSimulation.EntityInput;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
@@ -46,6 +47,7 @@ public class FluidComponent extends DisplayEntity {
 	private double baseOutletPressure;  // The static pressure at the component's outlet, ignoring the effect of flow acceleration.
 	private double inletPressure;  // The static pressure at the component's inlet.
 	private double outletPressure;  // The static pressure at the component's outlet.
+	private double flowRate;  // The volumetric flow rate through the component (the sum for all the routes that pass through it).
 	private double velocity;  // The fluid velocity throughout the component.
 	private double flowArea;  // The cross-section area of the flow.
 
@@ -63,10 +65,11 @@ public class FluidComponent extends DisplayEntity {
 	public void earlyInit() {
 		super.earlyInit();
 		flowArea = 0.25 * Math.PI * diameterInput.getValue() * diameterInput.getValue();
+		flowRate = 0.0;
 	}
 
 	public void updateVelocity() {
-		velocity = fluidFlow.getFlowRate() / flowArea;
+		velocity = flowRate / flowArea;
 	}
 
 	public void updateBaseInletPressure() {
@@ -189,6 +192,14 @@ public class FluidComponent extends DisplayEntity {
 		return velocity;
 	}
 
+	public void setFlowRate( double rate ) {
+		flowRate = rate;
+	}
+
+	public double getFlowRate() {
+		return flowRate;
+	}
+
 	public double getTargetInletPressure() {
 		return 0.0;
 	}
@@ -204,6 +215,13 @@ public class FluidComponent extends DisplayEntity {
 		return flowArea;
 	}
 
+	@Output(name = "FlowRate",
+	 description = "The volumetric flow rate through the component.",
+	    unitType = VolumeFlowUnit.class)
+	public double getFlowRate( double simTime ) {
+		return flowRate;
+	}
+
 	@Output(name = "Velocity",
 	 description = "The velocity of the fluid within the component.",
 	    unitType = SpeedUnit.class)
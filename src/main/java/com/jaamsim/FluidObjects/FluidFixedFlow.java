@@ -85,7 +85,9 @@ public class FluidFixedFlow extends FluidFlowCalculation implements HasScreenPoi
 	protected void calcFlowRate(FluidComponent source, FluidComponent destination, double dt) {
 
 		// Update the flow rate
+		double oldRate = this.getFlowRate();
 		this.setFlowRate( flowRateInput.getValue() );
+		this.setErrorEstimate( oldRate );
 	}
 
 	@Override
@@ -17,10 +17,10 @@ package com.jaamsim.FluidObjects;
 import java.util.ArrayList;
 import com.jaamsim.input.Output;
 import com.sandwell.JavaSimulation.InputErrorException;
-import com.sandwell.JavaSimulation.ErrorException;
 
 /**
  * FluidFlow tracks the flow rate between a source and a destination.
+ * FluidFlows whose routes share hydraulic components are solved together by a FluidNetwork.
  * @author Harry King
  *
  */
@@ -30,8 +30,7 @@ public class FluidFlow extends FluidFlowCalculation {
 
 	private ArrayList<FluidComponent> routeList;  // A list of the hydraulic components in the flow, from source to destination.
 	private double totalFlowInertia;  // The sum of Density x Length / FlowArea for the hydraulic components in the route.
-	private double destinationBaseInletPressure;  // The base pressure at the destination's inlet.
-	private double destinationTargetInletPressure;  // The desired inlet pressure at the destination's inlet.
+	private FluidNetwork network;  // The network that solves this route together with any routes that share its components.
 
 	public FluidFlow() {
 		routeList = new ArrayList<FluidComponent>();
@@ -57,6 +56,7 @@ public class FluidFlow extends FluidFlowCalculation {
 		super.earlyInit();
 
 		flowAcceleration = 0.0;
+		network = null;
 
 		// Construct the list of hydraulic components in the flow path
 		routeList.clear();
@@ -89,35 +89,24 @@ public class FluidFlow extends FluidFlowCalculation {
 	@Override
 	protected void calcFlowRate( FluidComponent source, FluidComponent destination, double dt ) {
 
-		// Update the flow rate
-		this.setFlowRate( this.getFlowRate() + flowAcceleration * dt );
+		// The network is built at the first update, once every route has been constructed
+		if( network == null )
+			FluidNetwork.buildNetwork(this);
 
-		// Update the flow velocity and base pressures in each component of the flow route
-		// (base pressure ignores the affect of acceleration)
-		for( FluidComponent each : routeList ) {
-			each.updateVelocity();
-			each.updateBaseInletPressure();
-			each.updateBaseOutletPressure();
-		}
+		// Update the flow rates, pressures, and flow accelerations for the network
+		network.update(dt);
+	}
 
-		// Update the flow acceleration
-		destinationBaseInletPressure = destination.getBaseInletPressure();
-		destinationTargetInletPressure = destination.getTargetInletPressure();
-		flowAcceleration = ( destinationBaseInletPressure
-				- destinationTargetInletPressure ) / totalFlowInertia;
+	ArrayList<FluidComponent> getRouteList() {
+		return routeList;
+	}
 
-		// Update the pressure in each component of the flow route after allowing for acceleration
-		for( FluidComponent each : routeList ) {
-			each.updateInletPressure();
-			each.updateOutletPressure( flowAcceleration );
-		}
+	void setNetwork( FluidNetwork net ) {
+		network = net;
+	}
 
-		// Confirm that the pressure is now balanced
-		double diff = destination.getInletPressure() /
-				destination.getTargetInletPressure() - 1.0;
-		if( Math.abs( diff ) > 1.0e-4 ) {
-			throw new ErrorException( "Pressure did not balance correctly.  Difference = " + diff );
-		}
+	void setFlowAcceleration( double accel ) {
+		flowAcceleration = accel;
 	}
 
 	@Output(name = "FlowAcceleration",
@@ -131,4 +120,12 @@ public class FluidFlow extends FluidFlowCalculation {
 	public double getFlowInertia( double simTime ) {
 		return totalFlowInertia;
 	}
+
+	@Output(name = "NetworkRoutes",
+	 description = "The number of routes that are solved together with this route because they share hydraulic components.")
+	public Integer getNetworkRoutes( double simTime ) {
+		if( network == null )
+			return 1;
+		return network.getNumberOfRoutes();
+	}
 }
@@ -42,8 +42,11 @@ public abstract class FluidFlowCalculation extends CalculationEntity {
 
 	private double flowRate;  // The volumetric flow rate (m3/s) for the route.
 	private double lastUpdateTime;  // The time at which the last update was performed.
+	private double errorEstimate;  // The estimated relative error in the volume transferred during the last update.
 
 	{
+		timeDependent = true;
+
 		fluidInput = new EntityInput<Fluid>( Fluid.class, "Fluid", "Key Inputs", null);
 		this.addInput( fluidInput, true);
 
@@ -68,6 +71,7 @@ public abstract class FluidFlowCalculation extends CalculationEntity {
 	public void earlyInit() {
 		super.earlyInit();
 		lastUpdateTime = 0.0;
+		errorEstimate = 0.0;
 	}
 
 	@Override
@@ -93,6 +97,49 @@ public abstract class FluidFlowCalculation extends CalculationEntity {
 		this.calcFlowRate( source, destination, dt);
 	}
 
+	/**
+	 * Estimates the relative error in the volume transferred over the last time step from the
+	 * change in flow rate.  Called once the new flow rate has been set.
+	 * @param oldRate = flow rate at the start of the time step
+	 */
+	protected void setErrorEstimate( double oldRate ) {
+		double maxRate = Math.max( Math.abs(oldRate), Math.abs(flowRate) );
+		errorEstimate = 0.0;
+		if( maxRate > 0.0 )
+			errorEstimate = 0.5 * Math.abs( flowRate - oldRate ) / maxRate;
+	}
+
+	double getErrorEstimate() {
+		return errorEstimate;
+	}
+
+	/**
+	 * Limits the time step to the time at which the source or destination will be emptied,
+	 * so that the emptying is located accurately, and to the step size that keeps the
+	 * change in flow rate within the tolerance.
+	 */
+	@Override
+	public double getMaxTimeStep(double lastDt, double tol) {
+		double dt = getTimeStepForError(errorEstimate, lastDt, tol);
+
+		FluidComponent source = sourceInput.getValue();
+		FluidComponent destination = destinationInput.getValue();
+		if( flowRate > 0.0 && source != null && source.getFluidVolume() > 0.0 ) {
+			dt = Math.min( dt, source.getFluidVolume() / flowRate );
+		}
+		else if( flowRate < 0.0 && destination != null && destination.getFluidVolume() > 0.0 ) {
+			dt = Math.min( dt, destination.getFluidVolume() / -flowRate );
+		}
+		return dt;
+	}
+
+	@Override
+	public boolean updateValue(double simTime) {
+		double oldRate = flowRate;
+		this.update(simTime);
+		return Double.compare(flowRate, oldRate) != 0;
+	}
+
 	protected abstract void calcFlowRate( FluidComponent source, FluidComponent destination, double dt );
 
 	protected void setFlowRate( double rate) {
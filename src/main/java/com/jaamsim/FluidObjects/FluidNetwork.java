@@ -0,0 +1,268 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.FluidObjects;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import com.sandwell.JavaSimulation.Entity;
+import com.sandwell.JavaSimulation.ErrorException;
+
+/**
+ * FluidNetwork solves the flows for a set of FluidFlow routes that share hydraulic components.
+ * <p>
+ * Each route has its own flow rate and the flow rate through a component is the sum of the
+ * flow rates for the routes that pass through it.  The rates of change of the route flow rates
+ * are found simultaneously from M a = F, where M(r,s) is the flow inertia of the components shared
+ * by routes r and s, and F(r) is the pressure imbalance at the destination of route r.  M depends
+ * only on the network's topology, so its Cholesky factorization is calculated once and reused at
+ * every update.  A network with a single route gives the same result as an isolated FluidFlow.
+ */
+public class FluidNetwork {
+
+	private final ArrayList<FluidFlow> flowList;  // The routes in the network.
+	private final ArrayList<FluidComponent> componentList;  // The components in the network, each one following its previous component.
+	private final int[][] componentRoutes;  // The indices of the routes that pass through each component.
+	private final double[][] factor;  // Lower triangular Cholesky factor of the flow inertia matrix.
+	private final double[] imbalance;  // Pressure imbalance at the destination of each route.
+	private final double[] flowAccel;  // Rate of change of the flow rate for each route.
+	private int numReported;  // Number of routes that have been updated since the last solution.
+
+	private FluidNetwork(ArrayList<FluidFlow> flows) {
+		flowList = flows;
+		int n = flowList.size();
+
+		// Collect the components, ordered by their position along the routes.  Each component has a
+		// single previous component, so it is at the same position in every route that passes through it.
+		componentList = new ArrayList<FluidComponent>();
+		ArrayList<Integer> depthList = new ArrayList<Integer>();
+		for (FluidFlow flow : flowList) {
+			ArrayList<FluidComponent> route = flow.getRouteList();
+			for (int depth = 0; depth < route.size(); depth++) {
+				FluidComponent comp = route.get(depth);
+				if (componentList.contains(comp))
+					continue;
+				int pos = componentList.size();
+				while (pos > 0 && depthList.get(pos-1) > depth) {
+					pos--;
+				}
+				componentList.add(pos, comp);
+				depthList.add(pos, depth);
+			}
+		}
+
+		// Record the routes that pass through each component
+		componentRoutes = new int[componentList.size()][];
+		for (int i = 0; i < componentList.size(); i++) {
+			FluidComponent comp = componentList.get(i);
+			ArrayList<Integer> routes = new ArrayList<Integer>();
+			for (int r = 0; r < n; r++) {
+				if (flowList.get(r).getRouteList().contains(comp))
+					routes.add(r);
+			}
+			componentRoutes[i] = new int[routes.size()];
+			for (int k = 0; k < routes.size(); k++) {
+				componentRoutes[i][k] = routes.get(k);
+			}
+		}
+
+		// Assemble the flow inertia matrix
+		double density = flowList.get(0).getFluid().getDensity();
+		double[][] inertia = new double[n][n];
+		for (int i = 0; i < componentList.size(); i++) {
+			FluidComponent comp = componentList.get(i);
+			double val = density * comp.getLength() / comp.getFlowArea();
+			for (int r : componentRoutes[i]) {
+				for (int s : componentRoutes[i]) {
+					inertia[r][s] += val;
+				}
+			}
+		}
+
+		factor = choleskyFactor(inertia);
+		imbalance = new double[n];
+		flowAccel = new double[n];
+		numReported = 0;
+	}
+
+	/**
+	 * Builds the network containing the given FluidFlow and assigns it to each of its routes.
+	 * The network includes every FluidFlow whose route shares a component, directly or indirectly,
+	 * with the given flow.
+	 */
+	static FluidNetwork buildNetwork(FluidFlow flow) {
+
+		// Find the routes connected to the given one
+		ArrayList<FluidFlow> flows = new ArrayList<FluidFlow>();
+		HashSet<FluidComponent> comps = new HashSet<FluidComponent>();
+		flows.add(flow);
+		comps.addAll(flow.getRouteList());
+		boolean found = true;
+		while (found) {
+			found = false;
+			for (FluidFlow each : Entity.getClonesOfIterator(FluidFlow.class)) {
+				if (flows.contains(each))
+					continue;
+				for (FluidComponent comp : each.getRouteList()) {
+					if (comps.contains(comp)) {
+						flows.add(each);
+						comps.addAll(each.getRouteList());
+						found = true;
+						break;
+					}
+				}
+			}
+		}
+
+		// The routes must be updated together
+		for (FluidFlow each : flows) {
+			if (each.getFluid() != flow.getFluid())
+				throw new ErrorException("FluidFlows %s and %s share components but carry different fluids.",
+						flow.getName(), each.getName());
+			if (each.getController() != flow.getController())
+				throw new ErrorException("FluidFlows %s and %s share components but have different Controllers.",
+						flow.getName(), each.getName());
+		}
+
+		FluidNetwork net = new FluidNetwork(flows);
+		for (FluidFlow each : flows) {
+			each.setNetwork(net);
+		}
+		return net;
+	}
+
+	/**
+	 * Returns the lower triangular Cholesky factor of the given symmetric positive definite matrix.
+	 */
+	private double[][] choleskyFactor(double[][] a) {
+		int n = a.length;
+		double[][] l = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double sum = a[i][j];
+				for (int k = 0; k < j; k++) {
+					sum -= l[i][k] * l[j][k];
+				}
+				if (i == j) {
+					if (sum <= 0.0)
+						throw new ErrorException("The route for FluidFlow %s does not have a component of its own.  " +
+								"Each route in a network must have a unique path.", flowList.get(i).getName());
+					l[i][i] = Math.sqrt(sum);
+				}
+				else {
+					l[i][j] = sum / l[j][j];
+				}
+			}
+		}
+		return l;
+	}
+
+	/**
+	 * Solves M x = b in place using the cached Cholesky factor of M.
+	 */
+	private void choleskySolve(double[] b) {
+		int n = b.length;
+		for (int i = 0; i < n; i++) {
+			double sum = b[i];
+			for (int k = 0; k < i; k++) {
+				sum -= factor[i][k] * b[k];
+			}
+			b[i] = sum / factor[i][i];
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double sum = b[i];
+			for (int k = i + 1; k < n; k++) {
+				sum -= factor[k][i] * b[k];
+			}
+			b[i] = sum / factor[i][i];
+		}
+	}
+
+	/**
+	 * Called by each route in the network when it is updated.  The network is solved once all
+	 * its routes have transferred their fluid volumes for the present time step.
+	 * @param dt = time step since the last update
+	 */
+	void update(double dt) {
+		numReported++;
+		if (numReported < flowList.size())
+			return;
+		numReported = 0;
+		this.solve(dt);
+	}
+
+	private void solve(double dt) {
+		int n = flowList.size();
+
+		// Update the flow rate for each route.  Every route's rate changes here, so the error
+		// estimate for each route is set here from its own change in rate.
+		for (int r = 0; r < n; r++) {
+			FluidFlow flow = flowList.get(r);
+			double oldRate = flow.getFlowRate();
+			flow.setFlowRate( oldRate + flowAccel[r] * dt );
+			flow.setErrorEstimate( oldRate );
+		}
+
+		// Update the flow velocity and base pressures in each component
+		// (base pressure ignores the affect of acceleration)
+		for (int i = 0; i < componentList.size(); i++) {
+			FluidComponent comp = componentList.get(i);
+			double rate = 0.0;
+			for (int r : componentRoutes[i]) {
+				rate += flowList.get(r).getFlowRate();
+			}
+			comp.setFlowRate(rate);
+			comp.updateVelocity();
+			comp.updateBaseInletPressure();
+			comp.updateBaseOutletPressure();
+		}
+
+		// Solve for the flow accelerations that balance the pressure at each destination
+		for (int r = 0; r < n; r++) {
+			FluidComponent destination = flowList.get(r).getDestination();
+			imbalance[r] = destination.getBaseInletPressure() - destination.getTargetInletPressure();
+			flowAccel[r] = imbalance[r];
+		}
+		this.choleskySolve(flowAccel);
+		for (int r = 0; r < n; r++) {
+			flowList.get(r).setFlowAcceleration(flowAccel[r]);
+		}
+
+		// Update the pressure in each component after allowing for acceleration
+		for (int i = 0; i < componentList.size(); i++) {
+			FluidComponent comp = componentList.get(i);
+			double accel = 0.0;
+			for (int r : componentRoutes[i]) {
+				accel += flowAccel[r];
+			}
+			comp.updateInletPressure();
+			comp.updateOutletPressure( accel );
+		}
+
+		// Confirm that the pressure is now balanced
+		for (FluidFlow flow : flowList) {
+			FluidComponent destination = flow.getDestination();
+			double diff = destination.getInletPressure() /
+					destination.getTargetInletPressure() - 1.0;
+			if( Math.abs( diff ) > 1.0e-4 ) {
+				throw new ErrorException( "Pressure did not balance correctly.  Difference = " + diff );
+			}
+		}
+	}
+
+	public int getNumberOfRoutes() {
+		return flowList.size();
+	}
+}
@@ -88,7 +88,7 @@ public class ContinuousDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -99,19 +99,78 @@ public class ContinuousDistribution extends Distribution {
 
 	@Override
 	protected double getNextSample() {
+		return this.getValueForRandom(rng.nextUniform());
+	}
+
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		rng.fillUniform(out, n);
+		for (int j = 0; j < n; j++)
+			out[j] = this.getValueForRandom(out[j]);
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
 
-		double rand = rng.nextUniform();
+	@Override
+	protected double getCDF(double x) {
 		DoubleVector cumList = cumulativeProbabilityListInput.getValue();
-		for( int i=1; i<cumList.size(); i++) {
-			if( rand < cumList.get(i) ) {
-				double cum = cumList.get(i);
-				double lastCum = cumList.get(i-1);
-				double val = valueListInput.getValue().get(i);
-				double lastVal = valueListInput.getValue().get(i-1);
-				return lastVal + (rand-lastCum)*(val-lastVal)/(cum-lastCum);
-			}
+		DoubleVector valueList = valueListInput.getValue();
+		int n = valueList.size();
+		if (x <= valueList.get(0))
+			return 0.0d;
+		if (x >= valueList.get(n-1))
+			return 1.0d;
+
+		// Binary search for the first value that is greater than x
+		int low = 1;
+		int high = n - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (x < valueList.get(mid))
+				high = mid;
+			else
+				low = mid + 1;
+		}
+		double val = valueList.get(low);
+		double lastVal = valueList.get(low-1);
+		double cum = cumList.get(low);
+		double lastCum = cumList.get(low-1);
+		return lastCum + (x-lastVal)*(cum-lastCum)/(val-lastVal);
+	}
+
+	@Override
+	protected double getInverseCDF(double p) {
+		return this.getValueForRandom(p);
+	}
+
+	/**
+	 * Returns the value of the inverse cumulative distribution function for the given random number.
+	 */
+	private double getValueForRandom(double rand) {
+		DoubleVector cumList = cumulativeProbabilityListInput.getValue();
+		DoubleVector valueList = valueListInput.getValue();
+
+		// Binary search for the first cumulative probability that is greater than the random number
+		int low = 1;
+		int high = cumList.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (rand < cumList.get(mid))
+				high = mid;
+			else
+				low = mid + 1;
 		}
-		return valueListInput.getValue().get( cumList.size()-1 );
+		if (low == cumList.size())
+			return valueList.get( cumList.size()-1 );
+
+		double cum = cumList.get(low);
+		double lastCum = cumList.get(low-1);
+		double val = valueList.get(low);
+		double lastVal = valueList.get(low-1);
+		return lastVal + (rand-lastCum)*(val-lastVal)/(cum-lastCum);
 	}
 
 	@Override
@@ -16,6 +16,7 @@ package com.jaamsim.ProbabilityDistributions;
 
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueListInput;
+import com.jaamsim.rng.AliasTable;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -42,6 +43,7 @@ public class DiscreteDistribution extends Distribution {
 	private final DoubleListInput probabilityListInput;
 
 	private final MRG1999a rng = new MRG1999a();
+	private AliasTable aliasTable;  // selects the index of the next value
 
 	{
 		valueListInput = new ValueListInput( "ValueList", "Key Inputs", null);
@@ -68,7 +70,8 @@ public class DiscreteDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
+		aliasTable = new AliasTable(probabilityListInput.getValue());
 	}
 
 	@Override
@@ -80,16 +83,15 @@ public class DiscreteDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
-		double rand = rng.nextUniform();
-		double cumProb = 0.0;
-		DoubleVector probList = probabilityListInput.getValue();
-		for( int i=0; i<probList.size(); i++) {
-			cumProb += probList.get(i);
-			if( rand <= cumProb ) {
-				return valueListInput.getValue().get(i);
-			}
-		}
-		return valueListInput.getValue().get( probList.size()-1 );
+		return valueListInput.getValue().get( aliasTable.getIndex(rng.nextUniform()) );
+	}
+
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		DoubleVector vals = valueListInput.getValue();
+		rng.fillUniform(out, n);
+		for (int j = 0; j < n; j++)
+			out[j] = vals.get( aliasTable.getIndex(out[j]) );
 	}
 
 	@Override
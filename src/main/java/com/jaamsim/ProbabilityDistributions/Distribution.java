@@ -15,22 +15,30 @@
 package com.jaamsim.ProbabilityDistributions;
 
 import com.jaamsim.Samples.SampleProvider;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.OutputHandle;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.ErrorException;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation.Simulation;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
 /**
  * ProbablityDistribution is the super-class for the various probability distributions implemented in JaamSim.
+ * <p>
+ * The MinValue and MaxValue inputs are enforced by the inverse transform method for distributions that provide
+ * their cumulative distribution function (CDF) and when the bounds remove a significant part of the distribution.
+ * Otherwise, samples that fall outside the bounds are rejected and resampled.
  * @author Harry King
  *
  */
@@ -44,14 +52,33 @@ implements SampleProvider {
 			 example = "ProbDist1 RandomSeed { 547 }")
 	private final IntegerInput randomSeedInput;
 
-	@Keyword(description = "Minimum value that can be returned.  Smaller values are rejected and resampled.",
+	@Keyword(description = "Minimum value that can be returned.  The distribution is truncated at this value.",
 	         example = "ProbDist1 MinValue { 0.0 }")
 	protected final ValueInput minValueInput;
 
-	@Keyword(description = "Maximum value that can be returned.  Larger values are rejected and resampled.",
+	@Keyword(description = "Maximum value that can be returned.  The distribution is truncated at this value.",
 	         example = "ProbDist1 MaxValue { 200.0 }")
 	protected final ValueInput maxValueInput;
 
+	// The inverse transform method is used for truncation when fewer than this fraction of samples would be accepted
+	private static final double MIN_REJECTION_ACCEPTANCE = 0.5d;
+
+	// Rejection sampling gives up after this many consecutive samples outside the bounds
+	private static final int MAX_CONSECUTIVE_REJECTIONS = 1000000;
+
+	// A warning is issued when the fraction of samples accepted falls below this value
+	private static final double WARNING_ACCEPTANCE = 0.01d;
+	private static final int WARNING_MIN_DRAWS = 1000;
+
+	private boolean truncationSet;  // true if the truncation parameters are up to date
+	private boolean inverseTruncation;  // true if the inverse transform method is used to enforce the bounds
+	private boolean upperTail;  // true if the truncation probabilities are for the complementary CDF
+	private double truncationLow;  // the lower bound for the uniform random number passed to the inverse CDF
+	private double truncationHigh;  // the upper bound for the uniform random number passed to the inverse CDF
+	private long drawCount;  // number of samples drawn by the rejection method
+	private long rejectionCount;  // number of samples rejected by the rejection method
+	private boolean acceptanceWarning;  // true if a warning has been issued for the acceptance rate
+
 	private int sampleCount;
 	private double sampleSum;
 	private double sampleSquaredSum;
@@ -97,11 +124,18 @@ implements SampleProvider {
 		sampleSquaredSum = 0.0;
 		sampleMin = Double.POSITIVE_INFINITY;
 		sampleMax = Double.NEGATIVE_INFINITY;
+
+		// Re-calculate the truncation parameters
+		truncationSet = false;
+		drawCount = 0;
+		rejectionCount = 0;
+		acceptanceWarning = false;
 	}
 
 	@Override
 	public void updateForInput(Input<?> in) {
 		super.updateForInput(in);
+		truncationSet = false;
 
 		if (in == unitType) {
 			setUnitType(getUnitType());
@@ -123,6 +157,145 @@ implements SampleProvider {
 	 */
 	protected abstract double getNextSample();
 
+	/**
+	 * Fill the first n entries of the given array with samples from the probability distribution.
+	 * The samples must be the same as those returned by n calls to getNextSample().
+	 */
+	protected void fillSamples(double[] out, int n) {
+		for (int i = 0; i < n; i++)
+			out[i] = this.getNextSample();
+	}
+
+	/**
+	 * Returns the cumulative distribution function (CDF) at the given value, ignoring the MinValue and MaxValue
+	 * inputs.  Distributions without a tractable CDF return NaN, in which case the bounds are enforced by rejection.
+	 */
+	protected double getCDF(double x) {
+		return Double.NaN;
+	}
+
+	/**
+	 * Returns the complementary CDF (1 - CDF) at the given value.  Distributions should override this method when
+	 * the complementary CDF can be calculated without loss of precision in the upper tail.
+	 */
+	protected double getComplementaryCDF(double x) {
+		return 1.0d - this.getCDF(x);
+	}
+
+	/**
+	 * Returns the value whose CDF is equal to the given probability.  Must be implemented by distributions that
+	 * implement getCDF.
+	 */
+	protected double getInverseCDF(double p) {
+		throw new ErrorException("Distribution %s does not provide an inverse CDF.", this.getInputName());
+	}
+
+	/**
+	 * Returns the value whose complementary CDF is equal to the given probability.
+	 */
+	protected double getInverseComplementaryCDF(double q) {
+		return this.getInverseCDF(1.0d - q);
+	}
+
+	/**
+	 * Returns the next uniform random number from the distribution's random number generator.  Must be
+	 * implemented by distributions that implement getCDF.
+	 */
+	protected double getNextUniform() {
+		throw new ErrorException("Distribution %s does not provide an inverse CDF.", this.getInputName());
+	}
+
+	/**
+	 * Decides how the MinValue and MaxValue inputs are to be enforced.
+	 */
+	private void setTruncation() {
+		truncationSet = true;
+		inverseTruncation = false;
+
+		double minValue = this.minValueInput.getValue();
+		double maxValue = this.maxValueInput.getValue();
+		if (minValue == Double.NEGATIVE_INFINITY && maxValue == Double.POSITIVE_INFINITY)
+			return;
+
+		double pMin = (minValue == Double.NEGATIVE_INFINITY) ? 0.0d : this.getCDF(minValue);
+		double pMax = (maxValue == Double.POSITIVE_INFINITY) ? 1.0d : this.getCDF(maxValue);
+		if (Double.isNaN(pMin) || Double.isNaN(pMax))
+			return;
+
+		// Use rejection if most of the samples will be accepted
+		if (pMax - pMin >= MIN_REJECTION_ACCEPTANCE)
+			return;
+
+		// Work with the complementary CDF in the upper tail to avoid round-off
+		upperTail = pMin > 0.5d;
+		if (upperTail) {
+			truncationLow = (maxValue == Double.POSITIVE_INFINITY) ? 0.0d : this.getComplementaryCDF(maxValue);
+			truncationHigh = this.getComplementaryCDF(minValue);
+		}
+		else {
+			truncationLow = pMin;
+			truncationHigh = pMax;
+		}
+
+		// Fall back to rejection if the probability between the bounds is below the precision of the CDF
+		inverseTruncation = truncationHigh > truncationLow;
+	}
+
+	/**
+	 * Returns a sample that falls within the MinValue and MaxValue inputs.
+	 */
+	private double getTruncatedSample() {
+		if (!truncationSet)
+			this.setTruncation();
+
+		if (inverseTruncation)
+			return this.getInverseTruncatedSample();
+
+		return this.getRejectionSample();
+	}
+
+	private double getInverseTruncatedSample() {
+		double p = truncationLow + (truncationHigh - truncationLow) * this.getNextUniform();
+		double x = upperTail ? this.getInverseComplementaryCDF(p) : this.getInverseCDF(p);
+
+		// Guard against round-off at the bounds
+		return Math.min(Math.max(x, this.minValueInput.getValue()), this.maxValueInput.getValue());
+	}
+
+	private double getRejectionSample() {
+		double minValue = this.minValueInput.getValue();
+		double maxValue = this.maxValueInput.getValue();
+
+		// Loop until the select sample falls within the desired min and max values
+		for (int n = 1; n <= MAX_CONSECUTIVE_REJECTIONS; n++) {
+			double nextSample = this.getNextSample();
+			if (nextSample >= minValue && nextSample <= maxValue) {
+				this.recordRejections(n, n - 1);
+				return nextSample;
+			}
+		}
+		throw new ErrorException("Distribution %s failed to return a sample between MinValue = %s and MaxValue = %s " +
+				"after %d attempts.", this.getInputName(), minValue, maxValue, MAX_CONSECUTIVE_REJECTIONS);
+	}
+
+	/**
+	 * Updates the acceptance rate for rejection sampling and warns the user if it has collapsed.
+	 */
+	private void recordRejections(int draws, int rejections) {
+		drawCount += draws;
+		rejectionCount += rejections;
+		if (acceptanceWarning || drawCount < WARNING_MIN_DRAWS)
+			return;
+
+		double acceptance = 1.0d - (double)rejectionCount / drawCount;
+		if (acceptance < WARNING_ACCEPTANCE) {
+			acceptanceWarning = true;
+			InputAgent.logWarning("Distribution %s rejects %.2f%% of its samples to enforce MinValue = %s and MaxValue = %s.  " +
+					"Consider a distribution whose values fall between the bounds.",
+					this.getInputName(), 100.0d * (1.0d - acceptance), minValueInput.getValue(), maxValueInput.getValue());
+		}
+	}
+
 	@Override
 	public Class<? extends Unit> getUnitType() {
 		return unitType.getUnitType();
@@ -138,7 +311,20 @@ implements SampleProvider {
 	}
 
 	protected int getSubstreamNumber() {
-		return 0;
+		return Simulation.getReplicationSubstream();
+	}
+
+	protected boolean isAntithetic() {
+		return Simulation.isAntitheticReplication();
+	}
+
+	/**
+	 * Seeds the given random number generator for the present replication.  Distributions that use more than one
+	 * generator give each one a different offset from the stream number.
+	 */
+	protected void seedRandomGenerator(MRG1999a rng, int streamOffset) {
+		rng.setSeedStream(this.getStreamNumber() + streamOffset, this.getSubstreamNumber());
+		rng.setAntithetic(this.isAntithetic());
 	}
 
 	/**
@@ -146,13 +332,7 @@ implements SampleProvider {
 	 */
 	@Override
 	public final double getNextSample(double simTime) {
-		// Loop until the select sample falls within the desired min and max values
-		double nextSample;
-		do {
-			nextSample = this.getNextSample();
-		}
-		while (nextSample < this.minValueInput.getValue() ||
-		       nextSample > this.maxValueInput.getValue());
+		double nextSample = this.getTruncatedSample();
 
 		// Collect statistics on the sampled values
 		sampleCount++;
@@ -163,6 +343,61 @@ implements SampleProvider {
 		return nextSample;
 	}
 
+	/**
+	 * Fills the given array with n samples from the probability distribution.  The samples are
+	 * the same as those returned by n calls to getNextSample(simTime).
+	 */
+	@Override
+	public final void fillSamples(double simTime, double[] out, int n) {
+		double minValue = this.minValueInput.getValue();
+		double maxValue = this.maxValueInput.getValue();
+		if (!truncationSet)
+			this.setTruncation();
+
+		// Truncated by the inverse transform method
+		if (inverseTruncation) {
+			for (int i = 0; i < n; i++)
+				out[i] = this.getInverseTruncatedSample();
+		}
+
+		// Generate the samples in bulk and remove the ones that fall outside the min and max values
+		else {
+			this.fillSamples(out, n);
+			int count = 0;
+			for (int i = 0; i < n; i++) {
+				double nextSample = out[i];
+				if (nextSample < minValue || nextSample > maxValue)
+					continue;
+				out[count] = nextSample;
+				count++;
+			}
+			this.recordRejections(n, n - count);
+
+			// Replace the rejected samples
+			for (; count < n; count++) {
+				out[count] = this.getRejectionSample();
+			}
+		}
+
+		// Collect statistics on the sampled values
+		double sum = 0.0;
+		double squaredSum = 0.0;
+		double min = sampleMin;
+		double max = sampleMax;
+		for (int i = 0; i < n; i++) {
+			double x = out[i];
+			sum += x;
+			squaredSum += x * x;
+			min = Math.min(min, x);
+			max = Math.max(max, x);
+		}
+		sampleCount += n;
+		sampleSum += sum;
+		sampleSquaredSum += squaredSum;
+		sampleMin = min;
+		sampleMax = max;
+	}
+
 	@Override
 	public double getMinValue() {
 		return minValueInput.getValue();
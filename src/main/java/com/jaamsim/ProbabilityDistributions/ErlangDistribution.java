@@ -17,13 +17,16 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.rng.MRG1999a;
+import com.jaamsim.rng.Ziggurat;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.EnumInput;
 import com.sandwell.JavaSimulation.IntegerInput;
 
 /**
  * Erlang Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 449.
+ * The method of Marsaglia and Tsang (2000) can be used as an alternative for large shape parameters.
  */
 public class ErlangDistribution extends Distribution {
 
@@ -37,6 +40,17 @@ public class ErlangDistribution extends Distribution {
 	         example = "ErlangDist-1 Shape { 2 }")
 	private final IntegerInput shapeInput;
 
+	@Keyword(description = "The algorithm used to generate the samples: PRODUCT (product of Shape uniform random numbers) " +
+			"or MARSAGLIA_TSANG (Marsaglia and Tsang gamma sampler, whose cost does not depend on Shape).  " +
+			"The two methods return different sequences of samples for the same random number stream.",
+	         example = "ErlangDist-1 SamplingMethod { MARSAGLIA_TSANG }")
+	private final EnumInput<SamplingMethod> samplingMethodInput;
+
+	public enum SamplingMethod {
+		PRODUCT,
+		MARSAGLIA_TSANG
+	}
+
 	private final MRG1999a rng = new MRG1999a();
 
 	{
@@ -50,6 +64,9 @@ public class ErlangDistribution extends Distribution {
 		shapeInput = new IntegerInput("Shape", "Key Inputs", 1);
 		shapeInput.setValidRange( 1, Integer.MAX_VALUE);
 		this.addInput(shapeInput, true);
+
+		samplingMethodInput = new EnumInput<SamplingMethod>(SamplingMethod.class, "SamplingMethod", "Key Inputs", SamplingMethod.PRODUCT);
+		this.addInput(samplingMethodInput, true);
 	}
 
 	public ErlangDistribution() {}
@@ -57,7 +74,7 @@ public class ErlangDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -69,6 +86,9 @@ public class ErlangDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
+		if (samplingMethodInput.getValue() == SamplingMethod.MARSAGLIA_TSANG)
+			return meanInput.getValue() / shapeInput.getValue() * Ziggurat.nextGamma(rng, shapeInput.getValue());
+
 		// Calculate the product of k random values
 		double u = 1.0;
 		int k = shapeInput.getValue();
@@ -80,6 +100,25 @@ public class ErlangDistribution extends Distribution {
 		return (- meanInput.getValue() / shapeInput.getValue() * Math.log( u ));
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		int k = shapeInput.getValue();
+		double factor = - meanInput.getValue() / shapeInput.getValue();
+		if (samplingMethodInput.getValue() == SamplingMethod.MARSAGLIA_TSANG) {
+			for (int j = 0; j < n; j++)
+				out[j] = -factor * Ziggurat.nextGamma(rng, k);
+			return;
+		}
+
+		for (int j = 0; j < n; j++) {
+			double u = 1.0;
+			for( int i=0; i<k; i++) {
+				u *= rng.nextUniform();
+			}
+			out[j] = factor * Math.log( u );
+		}
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
@@ -17,12 +17,15 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.rng.MRG1999a;
+import com.jaamsim.rng.Ziggurat;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.EnumInput;
 
 /**
  * Exponential Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 448.
+ * Ziggurat Method, Marsaglia and Tsang (2000)
  */
 public class ExponentialDistribution extends Distribution {
 
@@ -30,6 +33,16 @@ public class ExponentialDistribution extends Distribution {
 	         example = "ExponentialDist-1 Mean { 5.0 }")
 	private final ValueInput meanInput;
 
+	@Keyword(description = "The algorithm used to generate the samples: INVERSE (inverse transform) or ZIGGURAT (Marsaglia and Tsang).  " +
+			"The two methods return different sequences of samples for the same random number stream.",
+	         example = "ExponentialDist-1 SamplingMethod { ZIGGURAT }")
+	private final EnumInput<SamplingMethod> samplingMethodInput;
+
+	public enum SamplingMethod {
+		INVERSE,
+		ZIGGURAT
+	}
+
 	private final MRG1999a rng = new MRG1999a();
 
 	{
@@ -39,6 +52,9 @@ public class ExponentialDistribution extends Distribution {
 		meanInput.setUnitType(UserSpecifiedUnit.class);
 		meanInput.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(meanInput, true);
+
+		samplingMethodInput = new EnumInput<SamplingMethod>(SamplingMethod.class, "SamplingMethod", "Key Inputs", SamplingMethod.INVERSE);
+		this.addInput(samplingMethodInput, true);
 	}
 
 	public ExponentialDistribution() {}
@@ -46,7 +62,7 @@ public class ExponentialDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -58,10 +74,56 @@ public class ExponentialDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
+		if (samplingMethodInput.getValue() == SamplingMethod.ZIGGURAT)
+			return meanInput.getValue() * Ziggurat.nextExponential(rng);
+
 		// Inverse transform method
 		return (-meanInput.getValue() * Math.log(rng.nextUniform()));
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double mean = meanInput.getValue();
+		if (samplingMethodInput.getValue() == SamplingMethod.ZIGGURAT) {
+			for (int i = 0; i < n; i++)
+				out[i] = mean * Ziggurat.nextExponential(rng);
+			return;
+		}
+
+		rng.fillUniform(out, n);
+		for (int i = 0; i < n; i++)
+			out[i] = -mean * Math.log(out[i]);
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
+
+	@Override
+	protected double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return -Math.expm1( -x / meanInput.getValue() );
+	}
+
+	@Override
+	protected double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return Math.exp( -x / meanInput.getValue() );
+	}
+
+	@Override
+	protected double getInverseCDF(double p) {
+		return -meanInput.getValue() * Math.log1p( -p );
+	}
+
+	@Override
+	protected double getInverseComplementaryCDF(double q) {
+		return -meanInput.getValue() * Math.log( q );
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
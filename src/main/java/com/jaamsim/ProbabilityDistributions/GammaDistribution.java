@@ -17,15 +17,18 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.rng.MRG1999a;
+import com.jaamsim.rng.Ziggurat;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
 import com.sandwell.JavaSimulation.DoubleInput;
+import com.sandwell.JavaSimulation.EnumInput;
 
 /**
  * Gamma Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", pages 449-452.
  * Ahrens and Dieter (1974) for shape parameter < 1
  * Cheng (1977) for shape parameter >= 1
+ * Marsaglia and Tsang (2000) as an alternative for all shape parameters
  */
 public class GammaDistribution extends Distribution {
 
@@ -37,6 +40,17 @@ public class GammaDistribution extends Distribution {
 	         example = "GammaDist-1 Shape { 2.0 }")
 	private final DoubleInput shapeInput;
 
+	@Keyword(description = "The algorithm used to generate the samples: CHENG (Ahrens and Dieter for Shape < 1, Cheng for Shape >= 1) " +
+			"or MARSAGLIA_TSANG (Marsaglia and Tsang, using the ziggurat normal sampler).  " +
+			"The two methods return different sequences of samples for the same random number stream.",
+	         example = "GammaDist-1 SamplingMethod { MARSAGLIA_TSANG }")
+	private final EnumInput<SamplingMethod> samplingMethodInput;
+
+	public enum SamplingMethod {
+		CHENG,
+		MARSAGLIA_TSANG
+	}
+
 	private final MRG1999a rng1 = new MRG1999a();
 	private final MRG1999a rng2 = new MRG1999a();
 
@@ -51,6 +65,9 @@ public class GammaDistribution extends Distribution {
 		shapeInput = new DoubleInput("Shape", "Key Inputs", 1.0);
 		shapeInput.setValidRange( 1.0e-10d, Integer.MAX_VALUE);
 		this.addInput(shapeInput, true);
+
+		samplingMethodInput = new EnumInput<SamplingMethod>(SamplingMethod.class, "SamplingMethod", "Key Inputs", SamplingMethod.CHENG);
+		this.addInput(samplingMethodInput, true);
 	}
 
 	public GammaDistribution() {}
@@ -59,8 +76,8 @@ public class GammaDistribution extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 
-		rng1.setSeedStream(getStreamNumber());
-		rng2.setSeedStream(getStreamNumber() + 1);
+		this.seedRandomGenerator(rng1, 0);
+		this.seedRandomGenerator(rng2, 1);
 	}
 
 	@Override
@@ -71,6 +88,10 @@ public class GammaDistribution extends Distribution {
 
 	@Override
 	protected double getNextSample() {
+
+		if (samplingMethodInput.getValue() == SamplingMethod.MARSAGLIA_TSANG)
+			return Ziggurat.nextGamma(rng1, shapeInput.getValue()) * meanInput.getValue() / shapeInput.getValue();
+
 		double u2, b, sample;
 
 		// Case 1 - Shape parameter < 1
@@ -114,6 +135,62 @@ public class GammaDistribution extends Distribution {
 		return sample * meanInput.getValue() / shapeInput.getValue();
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double shape = shapeInput.getValue();
+		double mean = meanInput.getValue();
+		if (samplingMethodInput.getValue() == SamplingMethod.MARSAGLIA_TSANG) {
+			for (int i = 0; i < n; i++)
+				out[i] = Ziggurat.nextGamma(rng1, shape) * mean / shape;
+			return;
+		}
+
+		double u2, b, sample;
+
+		// Case 1 - Shape parameter < 1
+		if( shape < 1.0 ) {
+			double threshold;
+			b = 1.0 + ( shape / Math.E );
+			for (int i = 0; i < n; i++) {
+				do {
+					double p = b * rng2.nextUniform();
+					u2 = rng1.nextUniform();
+
+					if( p <= 1.0 ) {
+						sample = Math.pow( p, 1.0/shape );
+						threshold = Math.exp( - sample );
+					}
+
+					else {
+						sample = - Math.log( ( b - p ) / shape );
+						threshold = Math.pow( sample, shape - 1.0 );
+					}
+				} while ( u2 > threshold );
+				out[i] = sample * mean / shape;
+			}
+		}
+
+		// Case 2 - Shape parameter >= 1
+		else {
+			double u1, w, z;
+			double a = 1.0 / Math.sqrt( ( 2.0 * shape ) - 1.0 );
+			b = shape - Math.log( 4.0 );
+			double q = shape + ( 1.0 / a );
+			double d = 1.0 + Math.log( 4.5 );
+			for (int i = 0; i < n; i++) {
+				do {
+					u1 = rng1.nextUniform();
+					u2 = rng2.nextUniform();
+					double v = a * Math.log( u1 / ( 1.0 - u1 ) );
+					sample = shape * Math.exp( v );
+					z = u1 * u1 * u2;
+					w = b + q*v - sample;
+				} while( ( w + d - 4.5*z < 0.0 ) && ( w < Math.log(z) ) );
+				out[i] = sample * mean / shape;
+			}
+		}
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
@@ -56,7 +56,7 @@ public class LogLogisticDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -73,6 +73,46 @@ public class LogLogisticDistribution extends Distribution {
 		return scaleInput.getValue() * Math.pow( u / (1 - u), 1.0 / shapeInput.getValue() );
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double scale = scaleInput.getValue();
+		double power = 1.0 / shapeInput.getValue();
+		rng.fillUniform(out, n);
+		for (int i = 0; i < n; i++) {
+			double u = out[i];
+			out[i] = scale * Math.pow( u / (1 - u), power );
+		}
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
+
+	@Override
+	protected double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return 1.0d / ( 1.0d + Math.pow( x / scaleInput.getValue(), -shapeInput.getValue() ) );
+	}
+
+	@Override
+	protected double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return 1.0d / ( 1.0d + Math.pow( x / scaleInput.getValue(), shapeInput.getValue() ) );
+	}
+
+	@Override
+	protected double getInverseCDF(double p) {
+		return scaleInput.getValue() * Math.pow( p / (1.0d - p), 1.0 / shapeInput.getValue() );
+	}
+
+	@Override
+	protected double getInverseComplementaryCDF(double q) {
+		return scaleInput.getValue() * Math.pow( (1.0d - q) / q, 1.0 / shapeInput.getValue() );
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double theta = Math.PI / shapeInput.getValue();
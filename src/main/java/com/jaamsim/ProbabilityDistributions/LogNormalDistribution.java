@@ -14,16 +14,20 @@
  */
 package com.jaamsim.ProbabilityDistributions;
 
+import com.jaamsim.ProbabilityDistributions.NormalDistribution.SamplingMethod;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.rng.MRG1999a;
+import com.jaamsim.rng.Ziggurat;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.EnumInput;
 
 /**
  * LogNormal Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 454.
- * Polar Method, Marsaglia and Bray (1964) is used to calculate the normal distribution
+ * Polar Method, Marsaglia and Bray (1964) or the Ziggurat Method, Marsaglia and Tsang (2000)
+ * is used to calculate the normal distribution
  */
 public class LogNormalDistribution extends Distribution {
 
@@ -35,6 +39,11 @@ public class LogNormalDistribution extends Distribution {
 	         example = "LogNormalDist-1 NormalStandardDeviation { 2.0 }")
 	private final ValueInput normalStandardDeviationInput;
 
+	@Keyword(description = "The algorithm used to generate the normal samples: POLAR (Marsaglia and Bray) or ZIGGURAT (Marsaglia and Tsang).  " +
+			"The two methods return different sequences of samples for the same random number stream.",
+	         example = "LogNormalDist-1 SamplingMethod { ZIGGURAT }")
+	private final EnumInput<SamplingMethod> samplingMethodInput;
+
 	private final MRG1999a rng1 = new MRG1999a();
 	private final MRG1999a rng2 = new MRG1999a();
 
@@ -49,6 +58,9 @@ public class LogNormalDistribution extends Distribution {
 		normalStandardDeviationInput.setUnitType(UserSpecifiedUnit.class);
 		normalStandardDeviationInput.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(normalStandardDeviationInput, true);
+
+		samplingMethodInput = new EnumInput<SamplingMethod>(SamplingMethod.class, "SamplingMethod", "Key Inputs", SamplingMethod.POLAR);
+		this.addInput(samplingMethodInput, true);
 	}
 
 	public LogNormalDistribution() {}
@@ -57,8 +69,8 @@ public class LogNormalDistribution extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 
-		rng1.setSeedStream(getStreamNumber());
-		rng2.setSeedStream(getStreamNumber() + 1);
+		this.seedRandomGenerator(rng1, 0);
+		this.seedRandomGenerator(rng2, 1);
 	}
 
 	@Override
@@ -71,6 +83,9 @@ public class LogNormalDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
+		if (samplingMethodInput.getValue() == SamplingMethod.ZIGGURAT)
+			return Math.exp( normalMeanInput.getValue() + ( Ziggurat.nextNormal(rng1) * normalStandardDeviationInput.getValue() ) );
+
 		// Loop until we have a random x-y coordinate in the unit circle
 		double w, v1, v2, sample;
 		do {
@@ -90,6 +105,59 @@ public class LogNormalDistribution extends Distribution {
 		return Math.exp( sample );
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double mean = normalMeanInput.getValue();
+		double sd = normalStandardDeviationInput.getValue();
+		if (samplingMethodInput.getValue() == SamplingMethod.ZIGGURAT) {
+			for (int i = 0; i < n; i++)
+				out[i] = Math.exp( mean + ( Ziggurat.nextNormal(rng1) * sd ) );
+			return;
+		}
+
+		for (int i = 0; i < n; i++) {
+
+			// Loop until we have a random x-y coordinate in the unit circle
+			double w, v1, v2;
+			do {
+				v1 = 2.0 * rng1.nextUniform() - 1.0;
+				v2 = 2.0 * rng2.nextUniform() - 1.0;
+				w = ( v1 * v1 ) + ( v2 * v2 );
+			} while( w > 1.0 || w == 0.0 );
+
+			out[i] = Math.exp( mean + ( v1 * Math.sqrt( -2.0 * Math.log( w ) / w ) * sd ) );
+		}
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng1.nextUniform();
+	}
+
+	@Override
+	protected double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return NormalDistribution.getStandardNormalCDF( (Math.log(x) - normalMeanInput.getValue()) / normalStandardDeviationInput.getValue() );
+	}
+
+	@Override
+	protected double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return NormalDistribution.getStandardNormalCDF( (normalMeanInput.getValue() - Math.log(x)) / normalStandardDeviationInput.getValue() );
+	}
+
+	@Override
+	protected double getInverseCDF(double p) {
+		return Math.exp( normalMeanInput.getValue() + NormalDistribution.getStandardNormalInverseCDF(p) * normalStandardDeviationInput.getValue() );
+	}
+
+	@Override
+	protected double getInverseComplementaryCDF(double q) {
+		return Math.exp( normalMeanInput.getValue() - NormalDistribution.getStandardNormalInverseCDF(q) * normalStandardDeviationInput.getValue() );
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double sd = normalStandardDeviationInput.getValue();
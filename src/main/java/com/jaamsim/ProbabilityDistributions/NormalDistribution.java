@@ -17,13 +17,16 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.rng.MRG1999a;
+import com.jaamsim.rng.Ziggurat;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.EnumInput;
 
 /**
  * Normal Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 453.
  * Polar Method, Marsaglia and Bray (1964)
+ * Ziggurat Method, Marsaglia and Tsang (2000)
  */
 public class NormalDistribution extends Distribution {
 
@@ -35,6 +38,16 @@ public class NormalDistribution extends Distribution {
 	         example = "NormalDist-1 StandardDeviation { 2.0 }")
 	private final ValueInput standardDeviationInput;
 
+	@Keyword(description = "The algorithm used to generate the samples: POLAR (Marsaglia and Bray) or ZIGGURAT (Marsaglia and Tsang).  " +
+			"The two methods return different sequences of samples for the same random number stream.",
+	         example = "NormalDist-1 SamplingMethod { ZIGGURAT }")
+	private final EnumInput<SamplingMethod> samplingMethodInput;
+
+	public enum SamplingMethod {
+		POLAR,
+		ZIGGURAT
+	}
+
 	private final MRG1999a rng1 = new MRG1999a();
 	private final MRG1999a rng2 = new MRG1999a();
 
@@ -47,6 +60,9 @@ public class NormalDistribution extends Distribution {
 		standardDeviationInput.setUnitType(UserSpecifiedUnit.class);
 		standardDeviationInput.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(standardDeviationInput, true);
+
+		samplingMethodInput = new EnumInput<SamplingMethod>(SamplingMethod.class, "SamplingMethod", "Key Inputs", SamplingMethod.POLAR);
+		this.addInput(samplingMethodInput, true);
 	}
 
 	public NormalDistribution() {}
@@ -55,8 +71,8 @@ public class NormalDistribution extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 
-		rng1.setSeedStream(getStreamNumber());
-		rng2.setSeedStream(getStreamNumber() + 1);
+		this.seedRandomGenerator(rng1, 0);
+		this.seedRandomGenerator(rng2, 1);
 	}
 
 	@Override
@@ -69,6 +85,9 @@ public class NormalDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
+		if (samplingMethodInput.getValue() == SamplingMethod.ZIGGURAT)
+			return meanInput.getValue() + ( Ziggurat.nextNormal(rng1) * standardDeviationInput.getValue() );
+
 		// Loop until we have a random x-y coordinate in the unit circle
 		double w, v1, v2, sample;
 		do {
@@ -85,6 +104,121 @@ public class NormalDistribution extends Distribution {
 		return meanInput.getValue() + ( sample * standardDeviationInput.getValue() );
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double mean = meanInput.getValue();
+		double sd = standardDeviationInput.getValue();
+		if (samplingMethodInput.getValue() == SamplingMethod.ZIGGURAT) {
+			for (int i = 0; i < n; i++)
+				out[i] = mean + ( Ziggurat.nextNormal(rng1) * sd );
+			return;
+		}
+
+		for (int i = 0; i < n; i++) {
+
+			// Loop until we have a random x-y coordinate in the unit circle
+			double w, v1, v2;
+			do {
+				v1 = 2.0 * rng1.nextUniform() - 1.0;
+				v2 = 2.0 * rng2.nextUniform() - 1.0;
+				w = ( v1 * v1 ) + ( v2 * v2 );
+			} while( w > 1.0 || w == 0.0 );
+
+			out[i] = mean + ( v1 * Math.sqrt( -2.0 * Math.log( w ) / w ) * sd );
+		}
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng1.nextUniform();
+	}
+
+	@Override
+	protected double getCDF(double x) {
+		return getStandardNormalCDF( (x - meanInput.getValue()) / standardDeviationInput.getValue() );
+	}
+
+	@Override
+	protected double getComplementaryCDF(double x) {
+		return getStandardNormalCDF( (meanInput.getValue() - x) / standardDeviationInput.getValue() );
+	}
+
+	@Override
+	protected double getInverseCDF(double p) {
+		return meanInput.getValue() + getStandardNormalInverseCDF(p) * standardDeviationInput.getValue();
+	}
+
+	@Override
+	protected double getInverseComplementaryCDF(double q) {
+		return meanInput.getValue() - getStandardNormalInverseCDF(q) * standardDeviationInput.getValue();
+	}
+
+	/**
+	 * Returns the CDF for the standard normal distribution.
+	 * Marsaglia (2004), "Evaluating the Normal Distribution", Taylor series for |z| < 3.
+	 * Continued fraction for the Mills ratio in the tails, which keeps the relative accuracy for small values.
+	 */
+	static double getStandardNormalCDF(double z) {
+		if (Math.abs(z) < 3.0d) {
+			double sum = z;
+			double term = z;
+			double last = 0.0d;
+			double zsq = z * z;
+			for (int i = 3; sum != last; i += 2) {
+				last = sum;
+				term *= zsq / i;
+				sum += term;
+			}
+			return 0.5d + sum * Math.exp( -0.5d * zsq - 0.91893853320467274178d );
+		}
+
+		double x = Math.abs(z);
+		double frac = x;
+		for (int k = 100; k >= 1; k--) {
+			frac = x + k / frac;
+		}
+		double tail = Math.exp( -0.5d * x * x - 0.91893853320467274178d ) / frac;
+		return (z < 0.0d) ? tail : 1.0d - tail;
+	}
+
+	private static final double[] invA = { -3.969683028665376e+01,  2.209460984245205e+02, -2.759285104469687e+02,
+	                                        1.383577518672690e+02, -3.066479806614716e+01,  2.506628277459239e+00 };
+	private static final double[] invB = { -5.447609879822406e+01,  1.615858368580409e+02, -1.556989798598866e+02,
+	                                        6.680131188771972e+01, -1.328068155288572e+01 };
+	private static final double[] invC = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+	                                       -2.549732539343734e+00,  4.374664141464968e+00,  2.938163982698783e+00 };
+	private static final double[] invD = {  7.784695709041462e-03,  3.224671290700398e-01,  2.445134137142996e+00,
+	                                        3.754408661907416e+00 };
+
+	/**
+	 * Returns the inverse CDF for the standard normal distribution.
+	 * Acklam (2003) rational approximation (relative error < 1.15e-9), followed by one step of Halley's method.
+	 */
+	static double getStandardNormalInverseCDF(double p) {
+		double z;
+		if (p < 0.02425d) {
+			double q = Math.sqrt( -2.0d * Math.log(p) );
+			z = (((((invC[0]*q + invC[1])*q + invC[2])*q + invC[3])*q + invC[4])*q + invC[5]) /
+			    ((((invD[0]*q + invD[1])*q + invD[2])*q + invD[3])*q + 1.0d);
+		}
+		else if (p > 1.0d - 0.02425d) {
+			double q = Math.sqrt( -2.0d * Math.log(1.0d - p) );
+			z = -(((((invC[0]*q + invC[1])*q + invC[2])*q + invC[3])*q + invC[4])*q + invC[5]) /
+			     ((((invD[0]*q + invD[1])*q + invD[2])*q + invD[3])*q + 1.0d);
+		}
+		else {
+			double q = p - 0.5d;
+			double r = q * q;
+			z = (((((invA[0]*r + invA[1])*r + invA[2])*r + invA[3])*r + invA[4])*r + invA[5])*q /
+			    (((((invB[0]*r + invB[1])*r + invB[2])*r + invB[3])*r + invB[4])*r + 1.0d);
+		}
+
+		// Refine the result
+		double e = getStandardNormalCDF(z) - p;
+		double u = e * Math.sqrt(2.0d * Math.PI) * Math.exp(0.5d * z * z);
+		return z - u / (1.0d + 0.5d * z * u);
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
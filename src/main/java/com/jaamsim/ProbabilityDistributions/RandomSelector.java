@@ -14,11 +14,11 @@
  */
 package com.jaamsim.ProbabilityDistributions;
 
-import java.util.Random;
-
 import com.jaamsim.input.Keyword;
-import com.sandwell.JavaSimulation.DoubleVector;
+import com.jaamsim.rng.AliasTable;
+import com.jaamsim.rng.MRG1999a;
 import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation.Simulation;
 
 /**
  * RandomSelector randomly selects the next entity to return based on the given probabilities.
@@ -31,7 +31,8 @@ public class RandomSelector extends ObjectSelector {
 			 example = "RandomSelector-1 RandomSeed { 547 }")
 	private IntegerInput randomSeedInput;
 
-	protected final Random randomGenerator;
+	protected final MRG1999a randomGenerator;
+	private AliasTable aliasTable;  // selects the index of the next entity
 
 	{
 		randomSeedInput = new IntegerInput("RandomSeed", "Key Inputs", 1);
@@ -40,26 +41,19 @@ public class RandomSelector extends ObjectSelector {
 	}
 
 	public RandomSelector() {
-		randomGenerator = new Random();
+		randomGenerator = new MRG1999a();
 	}
 
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		randomGenerator.setSeed( randomSeedInput.getValue() );
+		randomGenerator.setSeedStream( randomSeedInput.getValue(), Simulation.getReplicationSubstream() );
+		randomGenerator.setAntithetic( Simulation.isAntitheticReplication() );
+		aliasTable = new AliasTable(this.getProbabilityList());
 	}
 
 	@Override
 	protected int getNextIndex() {
-		DoubleVector probList = this.getProbabilityList();
-		double rand = randomGenerator.nextDouble();
-		double cumProb = 0.0;
-		for( int i=0; i<probList.size(); i++) {
-			cumProb += probList.get(i);
-			if( rand <= cumProb ) {
-				return i;
-			}
-		}
-		return probList.size()-1;
+		return aliasTable.getIndex(randomGenerator.nextUniform());
 	}
 }
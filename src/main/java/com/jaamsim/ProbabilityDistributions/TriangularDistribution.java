@@ -57,7 +57,7 @@ public class TriangularDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -92,6 +92,25 @@ public class TriangularDistribution extends Distribution {
 		return  min + sample * ( max - min );
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double min = this.getMinValue();
+		double max = this.getMaxValue();
+		double m = ( modeInput.getValue() - min )/ ( max - min );
+		rng.fillUniform(out, n);
+		for (int i = 0; i < n; i++) {
+			double rand = out[i];
+			double sample;
+			if( rand <= m ) {
+				sample = Math.sqrt( m * rand );
+			}
+			else {
+				sample = 1.0 - Math.sqrt( ( 1.0 - m )*( 1.0 - rand ) );
+			}
+			out[i] = min + sample * ( max - min );
+		}
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return ( ( this.getMinValue() + modeInput.getValue() + this.getMaxValue() ) / 3.0 );
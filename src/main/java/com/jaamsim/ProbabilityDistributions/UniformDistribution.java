@@ -28,7 +28,7 @@ public class UniformDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -38,6 +38,15 @@ public class UniformDistribution extends Distribution {
 		return this.getMinValue() + rng.nextUniform() * ( this.getMaxValue() - this.getMinValue() );
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double min = this.getMinValue();
+		double range = this.getMaxValue() - this.getMinValue();
+		rng.fillUniform(out, n);
+		for (int i = 0; i < n; i++)
+			out[i] = min + out[i] * range;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return ( 0.5 * ( this.getMinValue() + this.getMaxValue() ) );
@@ -58,7 +58,7 @@ public class WeibullDistribution extends Distribution {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		rng.setSeedStream(getStreamNumber());
+		this.seedRandomGenerator(rng, 0);
 	}
 
 	@Override
@@ -74,6 +74,44 @@ public class WeibullDistribution extends Distribution {
 		return  scaleInput.getValue() * Math.pow( - Math.log( rng.nextUniform() ), 1.0/shapeInput.getValue() );
 	}
 
+	@Override
+	protected void fillSamples(double[] out, int n) {
+		double scale = scaleInput.getValue();
+		double power = 1.0/shapeInput.getValue();
+		rng.fillUniform(out, n);
+		for (int i = 0; i < n; i++)
+			out[i] = scale * Math.pow( - Math.log( out[i] ), power );
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
+
+	@Override
+	protected double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return -Math.expm1( -Math.pow( x / scaleInput.getValue(), shapeInput.getValue() ) );
+	}
+
+	@Override
+	protected double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return Math.exp( -Math.pow( x / scaleInput.getValue(), shapeInput.getValue() ) );
+	}
+
+	@Override
+	protected double getInverseCDF(double p) {
+		return scaleInput.getValue() * Math.pow( -Math.log1p( -p ), 1.0/shapeInput.getValue() );
+	}
+
+	@Override
+	protected double getInverseComplementaryCDF(double q) {
+		return scaleInput.getValue() * Math.pow( -Math.log( q ), 1.0/shapeInput.getValue() );
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double shape = shapeInput.getValue();
@@ -14,6 +14,8 @@
  */
 package com.jaamsim.Samples;
 
+import java.util.Arrays;
+
 import com.jaamsim.units.Unit;
 
 public class SampleConstant implements SampleProvider {
@@ -44,6 +46,11 @@ public class SampleConstant implements SampleProvider {
 		return val;
 	}
 
+	@Override
+	public void fillSamples(double simTime, double[] out, int n) {
+		Arrays.fill(out, 0, n, val);
+	}
+
 	@Override
 	public double getMeanValue(double simTime) {
 		return val;
@@ -19,6 +19,12 @@ import com.jaamsim.units.Unit;
 public interface SampleProvider {
 	public Class<? extends Unit> getUnitType();
 	public double getNextSample(double simTime);
+
+	/**
+	 * Fills the first n entries of the given array with the values that would be returned by
+	 * n successive calls to getNextSample(simTime).
+	 */
+	public void fillSamples(double simTime, double[] out, int n);
 	public double getMeanValue(double simTime);
 	public double getMinValue();
 	public double getMaxValue();
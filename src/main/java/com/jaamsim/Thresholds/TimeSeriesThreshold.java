@@ -14,6 +14,9 @@
  */
 package com.jaamsim.Thresholds;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import com.jaamsim.events.Process;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.InputAgent;
@@ -26,6 +29,9 @@ import com.jaamsim.units.UserSpecifiedUnit;
 import com.sandwell.JavaSimulation.EntityTarget;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
+import com.sandwell.JavaSimulation.Tester;
+import com.sandwell.JavaSimulation.TimeSeries;
+import com.sandwell.JavaSimulation.TimeSeriesCursor;
 import com.sandwell.JavaSimulation.TimeSeriesInput;
 import com.sandwell.JavaSimulation.TimeSeriesProvider;
 
@@ -59,6 +65,17 @@ public class TimeSeriesThreshold extends Threshold {
     example = "Threshold1  UnitType { DistanceUnit }")
 	private final UnitTypeInput unitType;
 
+	private double[] openStart;  // Start of each period during which the threshold is open (hours, including offset)
+	private double[] openEnd;  // Last time in each open period that satisfies the lookahead
+	private int numOpen;  // Number of open periods in the index
+	private double indexStart;  // First time covered by the index
+	private double indexEnd;  // Last time covered by the index
+	private double indexCycle;  // Period over which the index repeats, or 0.0 if it does not repeat
+
+	private final TimeSeriesCursor timeSeriesCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor maxOpenLimitCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor minOpenLimitCursor = new TimeSeriesCursor();
+
 	{
 		unitType = new UnitTypeInput("UnitType", "Key Inputs", UserSpecifiedUnit.class);
 		this.addInput(unitType, true);
@@ -87,6 +104,7 @@ public class TimeSeriesThreshold extends Threshold {
 	@Override
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput( in );
+		openStart = null;
 
 		if (in == unitType) {
 			timeSeries.setUnitType(this.getUnitType());
@@ -125,6 +143,12 @@ public class TimeSeriesThreshold extends Threshold {
 			InputAgent.logWarning( "Threshold %s is closed forever.  MinOpenLimit = %f Min TimeSeries Value = %f", this, this.getMaxMinOpenLimit(), this.getTimeSeries().getMinValue() );
 	}
 
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+		openStart = null;
+	}
+
 	public Class<? extends Unit> getUnitType() {
 		return unitType.getUnitType();
 	}
@@ -185,26 +209,12 @@ public class TimeSeriesThreshold extends Threshold {
 		// Add offset from input
 		time += this.getOffsetInHours();
 
-		double changeTime = time;
-
-		// if the current point is closed, we are done
-		if( this.isPointClosed(changeTime) ) {
+		// Closed unless the time falls within one of the open periods
+		double timeInIndex = time - this.getIndexShift(time);
+		int i = this.getOpenPeriod(timeInIndex);
+		if( i == numOpen )
 			return true;
-		}
-
-		while( true ) {
-
-			// Current point is open
-			// If there has already been lookahead hours since the given time, the threshold is open
-			if( changeTime - this.getLookAheadInHours() > time )
-				return false;
-
-			// If the next point is closed, determine if open long enough too satisfy lookahead
-			changeTime = this.getNextChangeTimeAfterHours(changeTime);
-			if( this.isPointClosed(changeTime) ) {
-				return (changeTime - this.getLookAheadInHours()) < time;
-			}
-		}
+		return openStart[i] > timeInIndex;
 	}
 
 	/**
@@ -230,55 +240,12 @@ public class TimeSeriesThreshold extends Threshold {
 		// Add offset from input
 		startTime += this.getOffsetInHours();
 
-		// Threshold is currently closed. Find the next open point
-		double openTime = -1;
-		double changeTime = startTime;
-		double maxTimeValueFromTimeSeries = this.getMaxTimeValueFromTimeSeries();
-		while( true ) {
-			changeTime = this.getNextChangeTimeAfterHours( changeTime );
-
-			if( changeTime == Double.POSITIVE_INFINITY ) {
-
-				// If an open point was found, it will be open forever
-				if( openTime != -1 ) {
-					return openTime - startTime;
-				}
-
-				// Threshold will never be open
-				return Double.POSITIVE_INFINITY;
-			}
-
-			// if have already searched the longest cycle, the threshold will never open
-			if( changeTime > startTime + maxTimeValueFromTimeSeries + this.getLookAhead() )
-				return Double.POSITIVE_INFINITY;
-
-			// Closed index
-			if( this.isPointClosed(changeTime) ) {
-
-				// If an open point has not been found yet, keep looking
-				if( openTime == -1 ) {
-					continue;
-				}
-
-				// Has enough time been gathered to satisfy the lookahead?
-				double openDuration = changeTime - openTime;
-				if( openDuration >= this.getLookAheadInHours() ) {
-					return openTime - startTime;
-				}
-				// not enough time, need to start again
-				else {
-					openTime = -1;
-				}
-			}
-			// Open index
-			else {
-
-				// Keep track of the first open index.
-				if( openTime == -1 ) {
-					openTime = changeTime;
-				}
-			}
-		}
+		// Threshold is currently closed. Find the start of the next open period
+		double timeInIndex = startTime - this.getIndexShift(startTime);
+		int i = this.getOpenPeriod(timeInIndex);
+		if( i == numOpen )
+			return Double.POSITIVE_INFINITY;
+		return openStart[i] - timeInIndex;
 	}
 
 	public boolean isAlwaysOpen() {
@@ -378,29 +345,152 @@ public class TimeSeriesThreshold extends Threshold {
 		// Add offset from input
 		startTime += this.getOffsetInHours();
 
-		// Find the next change point after startTime
-		double changeTime = startTime;
-		double maxTimeValueFromTimeSeries = this.getMaxTimeValueFromTimeSeries();
+		// Threshold is currently open. Find the end of the present open period
+		double timeInIndex = startTime - this.getIndexShift(startTime);
+		int i = this.getOpenPeriod(timeInIndex);
+		if( openEnd[i] == Double.POSITIVE_INFINITY )
+			return Double.POSITIVE_INFINITY;
+
+		// if the time required is 0.0, the lookahead window is equal to the time until the next closed point.
+		// Need to wait at least one clock tick before closing again.
+		return Math.max(openEnd[i] - timeInIndex, Process.getEventTolerance());
+	}
+
+	/**
+	 * Return the period in hours over which the threshold's inputs repeat, or 0.0 if they do not repeat.
+	 */
+	private double getCommonCycleInHours() {
+		double cycle = 0.0;
+		TimeSeriesProvider[] list = { this.getTimeSeries(), maxOpenLimit.getValue(), minOpenLimit.getValue() };
+		for (TimeSeriesProvider each : list) {
+			if (!(each instanceof TimeSeries))
+				continue;
+			double eachCycle = ((TimeSeries)each).getCycleTimeInHours();
+			if (eachCycle == Double.POSITIVE_INFINITY)
+				return 0.0;
+			cycle = Math.max(cycle, eachCycle);
+		}
+
+		// Every cycle must divide evenly into the longest one
+		for (TimeSeriesProvider each : list) {
+			if (!(each instanceof TimeSeries))
+				continue;
+			double ratio = cycle / ((TimeSeries)each).getCycleTimeInHours();
+			if (!Tester.equalCheckTolerance(ratio, Math.rint(ratio)))
+				return 0.0;
+		}
+		return cycle;
+	}
+
+	/**
+	 * Return the multiple of the index's cycle that must be subtracted from the given time to
+	 * obtain a time covered by the index.  The index is rebuilt if necessary.
+	 * @param time - The time in hours, including offset
+	 */
+	private double getIndexShift( double time ) {
+		if( openStart == null || (indexCycle == 0.0 && (time < indexStart || time > indexEnd)) )
+			this.buildIndex(time);
+
+		if( indexCycle == 0.0 )
+			return 0.0;
+
+		double shift = Math.floor(time / indexCycle) * indexCycle;
+		if( Tester.equalCheckTolerance(time - shift, indexCycle) )
+			shift += indexCycle;
+		return Math.min(shift, time);
+	}
+
+	/**
+	 * Return the index of the first open period that ends at or after the given time, or
+	 * numOpen if there are none.
+	 * @param time - The time in hours, relative to the index
+	 */
+	private int getOpenPeriod( double time ) {
+		int i = Arrays.binarySearch(openEnd, 0, numOpen, time);
+		if( i < 0 )
+			i = -i - 1;
+		return i;
+	}
+
+	/**
+	 * Build the index of the periods during which the threshold is open, starting from the given time.
+	 * <p>
+	 * An open period begins when the inputs move within the limits and ends one lookahead
+	 * before they next move outside them.  If the inputs repeat, queries are made for times in
+	 * the first cycle and the index is reused for every later cycle.  Otherwise, queries are made
+	 * for times up to the longest cycle plus the lookahead after the given time, and the index
+	 * is rebuilt when a time outside this range is requested.
+	 * <p>
+	 * In both cases, the change points are followed for twice this range and then to the next
+	 * closed point, so that an open period running past the end of the range, and its lookahead,
+	 * is complete.
+	 * @param time - The time in hours, including offset
+	 */
+	private void buildIndex( double time ) {
+		double lookAheadHours = this.getLookAheadInHours();
+		double horizon = this.getMaxTimeValueFromTimeSeries() + lookAheadHours;
+		indexCycle = this.getCommonCycleInHours();
+		if( indexCycle > 0.0 ) {
+			indexStart = 0.0;
+			horizon = indexCycle;
+		}
+		else {
+			indexStart = time;
+		}
+		double limit = indexStart + 2.0*horizon;
+		indexEnd = indexStart + horizon;
+
+		ArrayList<Double> startList = new ArrayList<Double>();
+		ArrayList<Double> endList = new ArrayList<Double>();
+		boolean pointClosed = this.isPointClosed(indexStart);
+		double runStart = indexStart;
+		double changeTime = indexStart;
 		while( true ) {
-			changeTime = this.getNextChangeTimeAfterHours( changeTime );
+			changeTime = this.getNextChangeTimeAfterHours(changeTime);
 
-			if( changeTime == Double.POSITIVE_INFINITY )
-				return Double.POSITIVE_INFINITY;
+			// The inputs do not change again
+			if( changeTime == Double.POSITIVE_INFINITY ) {
+				if( !pointClosed ) {
+					startList.add(runStart);
+					endList.add(Double.POSITIVE_INFINITY);
+				}
+				indexEnd = Double.POSITIVE_INFINITY;
+				break;
+			}
 
-			// if have already searched the longest cycle, the threshold will never close
-			if( changeTime > startTime + maxTimeValueFromTimeSeries )
-				return Double.POSITIVE_INFINITY;
+			if( this.isPointClosed(changeTime) != pointClosed ) {
+				pointClosed = !pointClosed;
 
-			// Closed index
-			if( this.isPointClosed(changeTime) ) {
+				// Start of an open period
+				if( !pointClosed ) {
+					runStart = changeTime;
+				}
+				// End of an open period.  Keep it only if it satisfies the lookahead
+				else if( changeTime - lookAheadHours >= runStart ) {
+					startList.add(runStart);
+					endList.add(changeTime - lookAheadHours);
+				}
+			}
 
-				double timeUntilClose = changeTime - this.getLookAheadInHours() - startTime;
+			// Stop at the first closed point after the end of the index
+			if( changeTime > limit && pointClosed )
+				break;
 
-				// if the time required is 0.0, the lookahead window is equal to the time until the next closed point.
-				// Need to wait at least one clock tick before closing again.
-				return Math.max(timeUntilClose, Process.getEventTolerance());
+			// If the threshold has been open for the longest cycle, it will never close
+			if( changeTime > limit + horizon ) {
+				startList.add(runStart);
+				endList.add(Double.POSITIVE_INFINITY);
+				break;
 			}
 		}
+
+		numOpen = startList.size();
+		openStart = new double[numOpen];
+		openEnd = new double[numOpen];
+		for( int i = 0; i < numOpen; i++ ) {
+			openStart[i] = startList.get(i);
+			openEnd[i] = endList.get(i);
+		}
 	}
 
 	/**
@@ -409,17 +499,31 @@ public class TimeSeriesThreshold extends Threshold {
 	 * @return
 	 */
 	public double getNextChangeTimeAfterHours( double time ) {
-		double firstChange = this.getTimeSeries().getNextChangeTimeAfterHours(time);
+		this.seek(time);
+		double firstChange = timeSeriesCursor.getNextChangeTime();
 
 		if (maxOpenLimit.getValue() != null)
-			firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeTimeAfterHours(time));
+			firstChange = Math.min(firstChange, maxOpenLimitCursor.getNextChangeTime());
 
 		if (minOpenLimit.getValue() != null)
-			firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeTimeAfterHours(time));
+			firstChange = Math.min(firstChange, minOpenLimitCursor.getNextChangeTime());
 
 		return firstChange;
 	}
 
+	/**
+	 * Position the cursors for TimeSeries, MaxOpenLimit, and MinOpenLimit at the given time.
+	 */
+	private void seek( double time ) {
+		this.getTimeSeries().seek(timeSeriesCursor, time);
+
+		if (maxOpenLimit.getValue() != null)
+			maxOpenLimit.getValue().seek(maxOpenLimitCursor, time);
+
+		if (minOpenLimit.getValue() != null)
+			minOpenLimit.getValue().seek(minOpenLimitCursor, time);
+	}
+
 	/**
 	 * Return either the longest cycle, or the largest time in TimeSeries, MaxOpenLimit, and MinOpenLimit. This value is used to
 	 * determine whether the series has cycled around once while finding the next open/close time.
@@ -442,15 +546,16 @@ public class TimeSeriesThreshold extends Threshold {
 	 * MinOpenLimit.
 	 */
 	public boolean isPointClosed( double time ) {
-		double value = this.getTimeSeries().getValueForTimeHours(time);
+		this.seek(time);
+		double value = timeSeriesCursor.getValue();
 
 		double minOpenLimitVal = Double.NEGATIVE_INFINITY;
 		if (minOpenLimit.getValue() != null)
-			minOpenLimitVal = minOpenLimit.getValue().getValueForTimeHours(time);
+			minOpenLimitVal = minOpenLimitCursor.getValue();
 
 		double maxOpenLimitVal = Double.POSITIVE_INFINITY;
 		if (maxOpenLimit.getValue() != null)
-			maxOpenLimitVal = maxOpenLimit.getValue().getValueForTimeHours(time);
+			maxOpenLimitVal = maxOpenLimitCursor.getValue();
 
 		// Error check that threshold limits remain consistent
 		if (minOpenLimitVal > maxOpenLimitVal)
@@ -0,0 +1,368 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * ConfigCache stores the tokenized records for a configuration file in a binary file so that
+ * the file does not need to be tokenized again the next time it is read.
+ * <p>
+ * Each entry is keyed by a hash of the file contents and the parser version, so an entry is
+ * never used for a file that has changed.  Include records are stored like any other record
+ * and the included file is looked up by its own contents when it is read, so changing an
+ * included file does not invalidate the entries for the files that include it.
+ * <p>
+ * The cache is off unless a directory is set.  The directory must be owned by the user and
+ * not accessible to anyone else, as the entries are trusted once their checksum matches.  The
+ * least recently used entries are deleted when the total size exceeds MAX_SIZE.
+ */
+class ConfigCache {
+	private static final int MAGIC = 0x4A434346;  // "JCCF"
+	private static final String SUFFIX = ".jcc";
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	static final long MAX_SIZE = 64L * 1024L * 1024L;  // total size of the entries in bytes
+
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+	private static File cacheDir = null;  // null if the cache is disabled
+	private static boolean dirChecked = false;  // true once the directory is known to be private
+
+	private ConfigCache() {}
+
+	/**
+	 * Sets the directory used for the cache files, or disables the cache if dir is null.
+	 */
+	static synchronized void setDirectory(File dir) {
+		cacheDir = dir;
+		dirChecked = false;
+	}
+
+	/**
+	 * Returns the cache directory, creating it if necessary, or null if the cache is disabled
+	 * or the directory can be accessed by other users.
+	 */
+	static synchronized File getDirectory() {
+		if (cacheDir == null || dirChecked)
+			return cacheDir;
+
+		if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+			cacheDir = null;
+			return null;
+		}
+
+		if (!ConfigCache.makePrivate(cacheDir)) {
+			cacheDir = null;
+			return null;
+		}
+
+		dirChecked = true;
+		return cacheDir;
+	}
+
+	/**
+	 * Restricts the given directory to its owner, and returns false if it is owned by another
+	 * user or the permissions could not be set.
+	 */
+	private static boolean makePrivate(File dir) {
+		Path path = dir.toPath();
+		try {
+			PosixFileAttributes attr = Files.readAttributes(path, PosixFileAttributes.class);
+			if (!attr.owner().getName().equals(System.getProperty("user.name")))
+				return false;
+
+			if (!attr.permissions().equals(OWNER_ONLY))
+				Files.setPosixFilePermissions(path, OWNER_ONLY);
+			return true;
+		}
+		catch (UnsupportedOperationException e) {
+			// Not a POSIX file system, rely on the permissions of the user's home directory
+			return true;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the key for the given file contents.  The parser version is included so that
+	 * the entries written by an older parser are not used.
+	 */
+	static byte[] getKey(byte[] contents) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-1");
+			md.update((byte)(Parser.VERSION >>> 24));
+			md.update((byte)(Parser.VERSION >>> 16));
+			md.update((byte)(Parser.VERSION >>> 8));
+			md.update((byte)Parser.VERSION);
+			md.update(contents);
+			return md.digest();
+		}
+		catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	static File getFile(File dir, byte[] key) {
+		StringBuilder name = new StringBuilder(2 * key.length + SUFFIX.length());
+		for (byte b : key)
+			name.append(String.format("%02x", b & 0xFF));
+		name.append(SUFFIX);
+		return new File(dir, name.toString());
+	}
+
+	/**
+	 * Returns the records cached for the given file contents, or null if there is no entry.
+	 * The Include records are returned without a reader for the included file.
+	 */
+	static ArrayList<ConfigFileReader.Record> load(byte[] contents) {
+		File dir = getDirectory();
+		if (dir == null)
+			return null;
+
+		byte[] key = getKey(contents);
+		if (key == null)
+			return null;
+
+		File file = getFile(dir, key);
+		if (!file.isFile())
+			return null;
+
+		ByteBuffer in;
+		try {
+			byte[] buf = ConfigCache.readFile(file);
+			if (buf.length < 4)
+				return null;
+
+			// The last four bytes are the checksum of the rest of the entry
+			in = ByteBuffer.wrap(buf, 0, buf.length - 4);
+			CRC32 crc = new CRC32();
+			crc.update(buf, 0, buf.length - 4);
+			if (ByteBuffer.wrap(buf, buf.length - 4, 4).getInt() != (int)crc.getValue())
+				return null;
+		}
+		catch (IOException e) {
+			return null;
+		}
+
+		// Mark the entry as recently used
+		file.setLastModified(System.currentTimeMillis());
+
+		try {
+			if (in.getInt() != MAGIC || in.getInt() != Parser.VERSION)
+				return null;
+
+			byte[] storedKey = new byte[key.length];
+			in.get(storedKey);
+			if (!Arrays.equals(key, storedKey))
+				return null;
+
+			// Table of distinct strings, each token is stored as an index into the table
+			String[] strings = new String[in.getInt()];
+			for (int i = 0; i < strings.length; i++)
+				strings[i] = ConfigCache.getString(in);
+
+			int numRecords = in.getInt();
+			ArrayList<ConfigFileReader.Record> records = new ArrayList<ConfigFileReader.Record>(numRecords);
+			for (int i = 0; i < numRecords; i++) {
+				String error = null;
+				if (in.get() != 0)
+					error = ConfigCache.getString(in);
+
+				int numTokens = in.getInt();
+				ArrayList<String> tokens = new ArrayList<String>(numTokens);
+				for (int j = 0; j < numTokens; j++)
+					tokens.add(strings[in.getInt()]);
+
+				records.add(new ConfigFileReader.Record(tokens, error, null, null));
+			}
+			return records;
+		}
+		// A damaged entry is treated as a miss and overwritten
+		catch (BufferUnderflowException e) {
+			return null;
+		}
+		catch (IndexOutOfBoundsException e) {
+			return null;
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			byte[] buf = new byte[(int)file.length()];
+			int off = 0;
+			while (off < buf.length) {
+				int len = in.read(buf, off, buf.length - off);
+				if (len < 0)
+					throw new EOFException();
+				off += len;
+			}
+			return buf;
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static String getString(ByteBuffer in) {
+		int len = in.getInt();
+		String ret = new String(in.array(), in.position(), len, UTF8);
+		in.position(in.position() + len);
+		return ret;
+	}
+
+	private static void putString(DataOutputStream out, String str) throws IOException {
+		byte[] bytes = str.getBytes(UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Stores the records tokenized from the given file contents.  Any failure to write the
+	 * entry is ignored, the file is simply tokenized again the next time it is read.
+	 * Each entry ends with a CRC-32 checksum of the rest of the entry.
+	 */
+	static void store(byte[] contents, ArrayList<ConfigFileReader.Record> records) {
+		File dir = getDirectory();
+		if (dir == null)
+			return;
+
+		byte[] key = getKey(contents);
+		if (key == null)
+			return;
+
+		File file = getFile(dir, key);
+		if (file.isFile())
+			return;
+
+		File temp = null;
+		DataOutputStream out = null;
+		try {
+			// Write to a temporary file first so that a partial entry is never read
+			temp = File.createTempFile("config", ".tmp", dir);
+			CRC32 crc = new CRC32();
+			out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(new FileOutputStream(temp), crc)));
+			out.writeInt(MAGIC);
+			out.writeInt(Parser.VERSION);
+			out.write(key);
+
+			HashMap<String, Integer> index = new HashMap<String, Integer>();
+			ArrayList<String> strings = new ArrayList<String>();
+			for (ConfigFileReader.Record rec : records) {
+				for (String tok : rec.tokens) {
+					if (index.containsKey(tok))
+						continue;
+					index.put(tok, strings.size());
+					strings.add(tok);
+				}
+			}
+
+			out.writeInt(strings.size());
+			for (String each : strings)
+				ConfigCache.putString(out, each);
+
+			out.writeInt(records.size());
+			for (ConfigFileReader.Record rec : records) {
+				out.writeBoolean(rec.error != null);
+				if (rec.error != null)
+					ConfigCache.putString(out, rec.error);
+
+				out.writeInt(rec.tokens.size());
+				for (String tok : rec.tokens)
+					out.writeInt(index.get(tok));
+			}
+			out.flush();
+			out.writeInt((int)crc.getValue());
+			out.close();
+			out = null;
+
+			if (!temp.renameTo(file))
+				temp.delete();
+			temp = null;
+		}
+		catch (IOException e) {}
+		finally {
+			if (out != null)
+				try { out.close(); } catch (IOException e) {}
+			if (temp != null)
+				temp.delete();
+		}
+
+		ConfigCache.trim(dir, MAX_SIZE);
+	}
+
+	/**
+	 * Deletes the least recently used entries until their total size is no more than maxSize.
+	 */
+	static void trim(File dir, long maxSize) {
+		File[] files = dir.listFiles();
+		if (files == null)
+			return;
+
+		ArrayList<File> entries = new ArrayList<File>(files.length);
+		long size = 0;
+		for (File each : files) {
+			if (!each.getName().endsWith(SUFFIX))
+				continue;
+			entries.add(each);
+			size += each.length();
+		}
+		if (size <= maxSize)
+			return;
+
+		Collections.sort(entries, new Comparator<File>() {
+			@Override
+			public int compare(File f1, File f2) {
+				return Long.compare(f1.lastModified(), f2.lastModified());
+			}
+		});
+
+		for (File each : entries) {
+			if (size <= maxSize)
+				break;
+			long len = each.length();
+			if (each.delete())
+				size -= len;
+		}
+	}
+}
@@ -0,0 +1,342 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sandwell.JavaSimulation.InputErrorException;
+
+/**
+ * ConfigFileReader reads and tokenizes a configuration file on a worker thread and passes
+ * the complete records to InputAgent, which applies them in order on its own thread.  The
+ * files named by Include records are opened and tokenized in parallel as soon as the Include
+ * record is read, so they are ready by the time InputAgent reaches the Include record.
+ * <p>
+ * Only the reading and tokenizing is done in parallel.  Any message for a file, such as a
+ * brace error, is passed to InputAgent as a record so that it is logged in the same order as
+ * when the files were read one at a time.
+ * <p>
+ * If the file is unchanged since it was last read, its records are taken from ConfigCache
+ * instead of tokenizing it again.
+ * <p>
+ * An Include record for a file that is already being read further up the chain of Include
+ * records is reported as an input error instead of being opened, as it would never end.
+ */
+class ConfigFileReader implements Runnable {
+	static final int MAX_BRACE_DEPTH = 2;
+
+	private static final ExecutorService workers;
+
+	static {
+		final AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "ConfigFileReader-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		};
+		workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), factory);
+	}
+
+	/**
+	 * A complete record from the configuration file, or a message to be logged in its place.
+	 */
+	static final class Record {
+		final ArrayList<String> tokens;  // the tokens for the record, null for a file that could not be read
+		final String error;  // the message to be logged in place of applying the record
+		final ConfigFileReader include;  // the reader for the file named by an Include record
+		final Exception failure;  // the exception to be re-thrown in place of applying the record
+
+		Record(ArrayList<String> tokens, String error, ConfigFileReader include, Exception failure) {
+			this.tokens = tokens;
+			this.error = error;
+			this.include = include;
+			this.failure = failure;
+		}
+	}
+
+	// Marks the end of the records for a file
+	private static final Record END = new Record(null, null, null, null);
+
+	private final String root;
+	private final URI path;
+	private final String file;
+	private final URI resolved;
+	private final URI canonical;  // the resolved URI with any relative paths and links removed
+	private final ConfigFileReader parent;  // the reader for the file that includes this one
+	private final LinkedBlockingQueue<Record> records;
+
+	private ConfigFileReader(String root, URI path, String file, URI resolved, ConfigFileReader parent) {
+		this.root = root;
+		this.path = path;
+		this.file = file;
+		this.resolved = resolved;
+		this.canonical = ConfigFileReader.getCanonicalURI(resolved);
+		this.parent = parent;
+		records = new LinkedBlockingQueue<Record>();
+	}
+
+	/**
+	 * Starts reading the given file on a worker thread.
+	 * @param root the jail prefix for the file
+	 * @param path the URI that the file path is relative to
+	 * @param file the file path
+	 */
+	static ConfigFileReader start(String root, URI path, String file) throws URISyntaxException {
+		return ConfigFileReader.start(root, path, file, null);
+	}
+
+	private static ConfigFileReader start(String root, URI path, String file, ConfigFileReader parent) throws URISyntaxException {
+		URI resolved = InputAgent.getFileURI(path, file, root);
+		ConfigFileReader reader = new ConfigFileReader(root, path, file, resolved, parent);
+		workers.execute(reader);
+		return reader;
+	}
+
+	/**
+	 * Returns the given URI in a form that is the same for every path to the file, so that an
+	 * Include cycle is found however the file names are written.
+	 */
+	private static URI getCanonicalURI(URI uri) {
+		if (uri == null)
+			return null;
+
+		URI norm = uri.normalize();
+		if (!"file".equals(norm.getScheme()))
+			return norm;
+
+		try {
+			return new File(norm).getCanonicalFile().toURI();
+		}
+		catch (IOException e) {
+			return norm;
+		}
+		catch (IllegalArgumentException e) {
+			return norm;
+		}
+	}
+
+	/**
+	 * Returns true if the given file is being read by this reader or by one of the readers
+	 * for the files that include it.
+	 */
+	private boolean isReading(URI uri) {
+		if (uri == null)
+			return false;
+
+		for (ConfigFileReader each = this; each != null; each = each.parent) {
+			if (uri.equals(each.canonical))
+				return true;
+		}
+		return false;
+	}
+
+	String getRoot() {
+		return root;
+	}
+
+	URI getURI() {
+		return resolved;
+	}
+
+	String getShortName() {
+		return file.substring(file.lastIndexOf('/') + 1, file.length());
+	}
+
+	/**
+	 * Returns the next record from the file, waiting for it to be read if necessary, or
+	 * null if there are no more records.
+	 */
+	Record nextRecord() {
+		Record rec;
+		try {
+			rec = records.take();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InputErrorException("Interrupted while reading %s", file);
+		}
+
+		if (rec == END) {
+			// Leave the marker in place for any further calls
+			records.add(END);
+			return null;
+		}
+		return rec;
+	}
+
+	@Override
+	public void run() {
+		try {
+			this.read();
+		}
+		catch (Exception e) {
+			records.add(new Record(null, null, null, e));
+		}
+		finally {
+			records.add(END);
+		}
+	}
+
+	private void read() {
+		URL url = null;
+		try {
+			url = resolved.normalize().toURL();
+		}
+		catch (MalformedURLException e) {
+			records.add(new Record(null, null, null, e));
+			return;
+		}
+
+		if (url == null) {
+			String msg = String.format("Unable to resolve path %s%s - %s", root, path.toString(), file);
+			records.add(new Record(null, msg, null, null));
+			return;
+		}
+
+		byte[] contents;
+		try {
+			contents = ConfigFileReader.readContents(url);
+		}
+		catch (IOException e) {
+			String msg = String.format("Could not read from %s", url.toString());
+			records.add(new Record(null, msg, null, null));
+			return;
+		}
+
+		// Use the records tokenized the last time the file was read, if it is unchanged
+		ArrayList<Record> cached = ConfigCache.load(contents);
+		if (cached != null) {
+			for (Record rec : cached)
+				this.addRecord(rec.tokens, rec.error, null);
+			return;
+		}
+
+		ArrayList<Record> parsed = new ArrayList<Record>();
+		BufferedReader buf = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(contents)));
+		try {
+			ArrayList<String> record = new ArrayList<String>();
+			int braceDepth = 0;
+
+			while (true) {
+				String line = buf.readLine();
+				// end of file, stop reading
+				if (line == null)
+					break;
+
+				braceDepth = Parser.tokenize(record, line, true, braceDepth, MAX_BRACE_DEPTH);
+				if (braceDepth < 0) {
+					this.addRecord(record, "Extra closing braces found", parsed);
+					record = new ArrayList<String>();
+					braceDepth = 0;
+				}
+				if (braceDepth > MAX_BRACE_DEPTH) {
+					this.addRecord(record, "Maximum brace depth (2) exceeded", parsed);
+					record = new ArrayList<String>();
+					braceDepth = 0;
+				}
+				if( braceDepth != 0 )
+					continue;
+
+				if (record.size() == 0)
+					continue;
+
+				this.addRecord(record, null, parsed);
+				record = new ArrayList<String>();
+			}
+
+			// Leftover Input at end of file
+			if (record.size() > 0)
+				this.addRecord(record, "Leftover input at end of file", parsed);
+			buf.close();
+		}
+		catch (IOException e) {
+			// Reading from memory does not fail, do not cache a partial file
+			return;
+		}
+
+		ConfigCache.store(contents, parsed);
+	}
+
+	/**
+	 * Passes the given record to InputAgent.  The file named by an Include record is opened
+	 * and read straight away so that it is ready by the time the Include record is applied.
+	 * @param parsed the records to be cached for the file, or null if they are from the cache
+	 */
+	private void addRecord(ArrayList<String> tokens, String error, ArrayList<Record> parsed) {
+		// An Include cycle depends on the files that include this one, so is not cached
+		if (parsed != null)
+			parsed.add(new Record(tokens, error, null, null));
+
+		Record rec;
+		if (error == null && tokens.size() == 2 && "INCLUDE".equalsIgnoreCase(tokens.get(0))) {
+			try {
+				String includeFile = tokens.get(1).replaceAll("\\\\", "/");
+				URI uri = ConfigFileReader.getCanonicalURI(InputAgent.getFileURI(resolved, includeFile, root));
+				if (this.isReading(uri)) {
+					String msg = String.format("Include cycle found, %s is already being read", uri);
+					rec = new Record(tokens, msg, null, null);
+				}
+				else {
+					ConfigFileReader include = ConfigFileReader.start(root, resolved, includeFile, this);
+					rec = new Record(tokens, null, include, null);
+				}
+			}
+			catch (URISyntaxException e) {
+				rec = new Record(tokens, null, null, e);
+			}
+		}
+		else {
+			rec = new Record(tokens, error, null, null);
+		}
+		records.add(rec);
+	}
+
+	private static byte[] readContents(URL url) throws IOException {
+		InputStream in = url.openStream();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[8192];
+			while (true) {
+				int len = in.read(buf);
+				if (len < 0)
+					break;
+				out.write(buf, 0, len);
+			}
+			return out.toByteArray();
+		}
+		finally {
+			in.close();
+		}
+	}
+}
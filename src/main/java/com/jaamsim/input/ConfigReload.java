@@ -0,0 +1,253 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.jaamsim.input.InputAgent.KeywordIndex;
+import com.sandwell.JavaSimulation.Input.ParseContext;
+import com.sandwell.JavaSimulation.InputErrorException;
+
+/**
+ * ConfigReload holds the Define and keyword records read from a configuration file, so that
+ * the file can be read again and only the records that have changed applied to the model.
+ */
+class ConfigReload {
+
+	/**
+	 * The input for a single keyword as it was given in the configuration file.
+	 */
+	static final class Entry {
+		final String entity;
+		final KeywordIndex kw;
+		final boolean recordEdits;  // TRUE if the keyword followed the RecordEdits marker
+
+		Entry(String entity, KeywordIndex kw, boolean recordEdits) {
+			this.entity = entity;
+			this.kw = kw;
+			this.recordEdits = recordEdits;
+		}
+
+		/**
+		 * Returns true if the other entry sets the same keyword to the same value.
+		 */
+		boolean sameInput(Entry other) {
+			if (!kw.keyword.equals(other.kw.keyword))
+				return false;
+
+			if (recordEdits != other.recordEdits)
+				return false;
+
+			if (kw.end - kw.start != other.kw.end - other.kw.start)
+				return false;
+
+			for (int i = kw.start, j = other.kw.start; i <= kw.end; i++, j++) {
+				if (!kw.input.get(i).equals(other.kw.input.get(j)))
+					return false;
+			}
+
+			// Relative file names depend on the file the keyword was read from
+			return getContext(kw.context).equals(getContext(other.kw.context));
+		}
+
+		/**
+		 * Returns true if the value for the keyword refers to any of the given names.
+		 */
+		boolean refersTo(HashSet<String> names) {
+			if (names.isEmpty())
+				return false;
+
+			for (int i = kw.start + 2; i < kw.end; i++) {
+				if (names.contains(kw.input.get(i)))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The changes needed to bring the model from one configuration file to the next.
+	 */
+	static final class Changes {
+		final ArrayList<String> killed = new ArrayList<String>();  // entities to be removed
+		final LinkedHashMap<String, String> defined = new LinkedHashMap<String, String>();  // entities to be defined, name to type
+		final ArrayList<Entry> reset = new ArrayList<Entry>();  // keywords to be returned to their default values
+		final ArrayList<Entry> applied = new ArrayList<Entry>();  // keywords to be applied, in file order
+
+		boolean isEmpty() {
+			return killed.isEmpty() && defined.isEmpty() && reset.isEmpty() && applied.isEmpty();
+		}
+	}
+
+	private final LinkedHashMap<String, String> defines;  // entity name to the type given in its Define record
+	private final ArrayList<Entry> entries;
+	private boolean recordEdits;
+
+	ConfigReload() {
+		defines = new LinkedHashMap<String, String>();
+		entries = new ArrayList<Entry>();
+		recordEdits = false;
+	}
+
+	void setRecordEdits(boolean bool) {
+		recordEdits = bool;
+	}
+
+	/**
+	 * Adds the entities named in a Define record.
+	 */
+	void addDefineRecord(ArrayList<String> record) {
+		if (record.size() < 5 ||
+		    !record.get(2).equals("{") ||
+		    !record.get(record.size() - 1).equals("}"))
+			return;
+
+		for (int i = 3; i < record.size() - 1; i++)
+			defines.put(record.get(i), record.get(1));
+	}
+
+	/**
+	 * Adds the keywords in a keyword record.
+	 */
+	void addKeywordRecord(ArrayList<String> record, ParseContext context) {
+		ArrayList<KeywordIndex> words;
+		try {
+			words = InputAgent.getKeywords(record, context);
+		}
+		catch (InputErrorException e) {
+			return;
+		}
+
+		for (KeywordIndex kw : words)
+			entries.add(new Entry(record.get(0), kw, recordEdits));
+	}
+
+	/**
+	 * Returns the changes needed to bring a model loaded from the previous configuration file
+	 * up to date with this one.
+	 * <p>
+	 * Keywords are applied in the order they appear in the file.  Once a keyword for an entity
+	 * has changed, every later keyword for the same entity is applied again as well, since the
+	 * value of one input can depend on those given before it (e.g. UnitType).
+	 */
+	Changes getChanges(ConfigReload prev) {
+		Changes ret = new Changes();
+
+		// Entities that were removed or whose type has changed
+		HashSet<String> replaced = new HashSet<String>();
+		for (Map.Entry<String, String> each : prev.defines.entrySet()) {
+			String type = defines.get(each.getKey());
+			if (type != null && type.equals(each.getValue()))
+				continue;
+
+			ret.killed.add(each.getKey());
+			replaced.add(each.getKey());
+		}
+
+		for (Map.Entry<String, String> each : defines.entrySet()) {
+			String type = prev.defines.get(each.getKey());
+			if (type != null && type.equals(each.getValue()))
+				continue;
+
+			ret.defined.put(each.getKey(), each.getValue());
+			replaced.add(each.getKey());
+		}
+
+		LinkedHashMap<String, ArrayList<Entry>> prevEntries = getEntriesByEntity(prev.entries);
+		LinkedHashMap<String, ArrayList<Entry>> newEntries = getEntriesByEntity(entries);
+		IdentityHashMap<Entry, Entry> apply = new IdentityHashMap<Entry, Entry>();
+
+		for (Map.Entry<String, ArrayList<Entry>> each : newEntries.entrySet()) {
+			String name = each.getKey();
+			ArrayList<Entry> newList = each.getValue();
+			ArrayList<Entry> prevList = prevEntries.remove(name);
+			if (prevList == null || replaced.contains(name))
+				prevList = new ArrayList<Entry>();
+
+			// Find the first keyword that differs from the previous file
+			int first = 0;
+			while (first < newList.size() && first < prevList.size()) {
+				Entry entry = newList.get(first);
+				if (!entry.sameInput(prevList.get(first)) || entry.refersTo(replaced))
+					break;
+				first++;
+			}
+
+			// Keywords that are no longer set after this point are returned to their
+			// default values, and then to the last value given before this point if any
+			HashSet<String> remaining = new HashSet<String>();
+			for (int i = first; i < newList.size(); i++)
+				remaining.add(newList.get(i).kw.keyword);
+
+			HashSet<String> resetKeywords = new HashSet<String>();
+			if (!replaced.contains(name)) {
+				for (int i = first; i < prevList.size(); i++) {
+					Entry entry = prevList.get(i);
+					if (remaining.contains(entry.kw.keyword) || !resetKeywords.add(entry.kw.keyword))
+						continue;
+					ret.reset.add(entry);
+				}
+			}
+
+			for (int i = 0; i < newList.size(); i++) {
+				Entry entry = newList.get(i);
+				if (i >= first || resetKeywords.contains(entry.kw.keyword))
+					apply.put(entry, entry);
+			}
+		}
+
+		// Entities that no longer have any keywords set
+		for (Map.Entry<String, ArrayList<Entry>> each : prevEntries.entrySet()) {
+			if (replaced.contains(each.getKey()))
+				continue;
+
+			HashSet<String> resetKeywords = new HashSet<String>();
+			for (Entry entry : each.getValue()) {
+				if (resetKeywords.add(entry.kw.keyword))
+					ret.reset.add(entry);
+			}
+		}
+
+		for (Entry entry : entries) {
+			if (apply.containsKey(entry))
+				ret.applied.add(entry);
+		}
+
+		return ret;
+	}
+
+	private static LinkedHashMap<String, ArrayList<Entry>> getEntriesByEntity(ArrayList<Entry> list) {
+		LinkedHashMap<String, ArrayList<Entry>> ret = new LinkedHashMap<String, ArrayList<Entry>>();
+		for (Entry entry : list) {
+			ArrayList<Entry> entityList = ret.get(entry.entity);
+			if (entityList == null) {
+				entityList = new ArrayList<Entry>();
+				ret.put(entry.entity, entityList);
+			}
+			entityList.add(entry);
+		}
+		return ret;
+	}
+
+	private static String getContext(ParseContext context) {
+		if (context == null || context.context == null)
+			return "";
+		return context.context.toString();
+	}
+}
@@ -21,15 +21,14 @@ import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import com.jaamsim.ui.ExceptionBox;
 import com.jaamsim.ui.FrameBox;
@@ -66,6 +65,10 @@ public class InputAgent {
 
 	private static File reportDir;
 
+	private static ConfigReload loadedConfig;  // records applied from the present configuration file
+	private static ConfigReload recording;     // records being applied from a configuration file
+	private static int bulkApplyDepth;         // greater than zero while inputs are applied in bulk
+
 	static {
 		recordEditsFound = false;
 		sessionEdited = false;
@@ -84,6 +87,7 @@ public class InputAgent {
 		configFile = null;
 		reportDir = null;
 		lastTimeForTrace = -1.0d;
+		loadedConfig = null;
 		setReportDirectory(null);
 	}
 
@@ -218,6 +222,15 @@ public class InputAgent {
 		return batchRun;
 	}
 
+	/**
+	 * Sets the directory used to cache the tokenized configuration files, or disables the
+	 * cache if dir is null.  The directory is created if necessary and restricted to the
+	 * current user, the cache is not used if it belongs to another user.
+	 */
+	public static void setConfigCache(File dir) {
+		ConfigCache.setDirectory(dir);
+	}
+
 	/**
 	 * returns true if the first and last tokens are matched braces
 	 **/
@@ -248,31 +261,6 @@ public class InputAgent {
 		return false;
 	}
 
-	private static int getBraceDepth(ArrayList<String> tokens, int startingBraceDepth, int startingIndex) {
-		int braceDepth = startingBraceDepth;
-		for (int i = startingIndex; i < tokens.size(); i++) {
-			String token = tokens.get(i);
-
-			if (token.equals("{"))
-				braceDepth++;
-
-			if (token.equals("}"))
-				braceDepth--;
-
-			if (braceDepth < 0) {
-				InputAgent.logBadInput(tokens, "Extra closing braces found");
-				tokens.clear();
-			}
-
-			if (braceDepth > 2) {
-				InputAgent.logBadInput(tokens, "Maximum brace depth (2) exceeded");
-				tokens.clear();
-			}
-		}
-
-		return braceDepth;
-	}
-
 	private static URI resRoot;
 	private static URI resPath;
 	private static final String res = "/resources/";
@@ -310,105 +298,139 @@ public class InputAgent {
 	}
 
 	public static final boolean readStream(String root, URI path, String file) throws URISyntaxException {
-		String shortName = file.substring(file.lastIndexOf('/') + 1, file.length());
-		GUIFrame.instance().setProgressText(shortName);
-		URI resolved = getFileURI(path, file, root);
-
-		URL url = null;
+		ConfigFileReader reader = ConfigFileReader.start(root, path, file);
+		InputAgent.beginBulkApply();
 		try {
-			url = resolved.normalize().toURL();
+			return InputAgent.readRecords(reader);
 		}
-		catch (MalformedURLException e) {
-			rethrowWrapped(e);
+		finally {
+			InputAgent.endBulkApply();
 		}
+	}
 
-		if (url == null) {
-			InputAgent.logWarning("Unable to resolve path %s%s - %s", root, path.toString(), file);
-			return false;
-		}
+	/**
+	 * Applies the records from the given configuration file in order.  The records are read and
+	 * tokenized by the ConfigFileReader on a worker thread.
+	 */
+	private static boolean readRecords(ConfigFileReader reader) {
+		GUIFrame.instance().setProgressText(reader.getShortName());
+
+		Input.ParseContext pc = new Input.ParseContext();
+		pc.jail = reader.getRoot();
+		pc.context = reader.getURI();
+
+		while (true) {
+			ConfigFileReader.Record rec = reader.nextRecord();
+			// end of file, stop reading
+			if (rec == null)
+				break;
+
+			// The file could not be read
+			if (rec.tokens == null) {
+				if (rec.failure != null)
+					rethrowWrapped(rec.failure);
+				InputAgent.logWarning("%s", rec.error);
+				return false;
+			}
 
-		BufferedReader buf = null;
-		try {
-			InputStream in = url.openStream();
-			buf = new BufferedReader(new InputStreamReader(in));
-		} catch (IOException e) {
-			InputAgent.logWarning("Could not read from %s", url.toString());
-			return false;
-		}
+			ArrayList<String> record = rec.tokens;
+			if (rec.error != null) {
+				InputAgent.logBadInput(record, rec.error);
+				continue;
+			}
 
-		try {
-			ArrayList<String> record = new ArrayList<String>();
-			int braceDepth = 0;
+			InputAgent.echoInputRecord(record);
 
-			Input.ParseContext pc = new Input.ParseContext();
-			pc.jail = root;
-			pc.context = resolved;
+			if ("DEFINE".equalsIgnoreCase(record.get(0))) {
+				InputAgent.processDefineRecord(record);
+				if (recording != null)
+					recording.addDefineRecord(record);
+				continue;
+			}
 
-			while (true) {
-				String line = buf.readLine();
-				// end of file, stop reading
-				if (line == null)
-					break;
+			if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
+				if (rec.failure != null)
+					rethrowWrapped(rec.failure);
+				InputAgent.processIncludeRecord(rec);
+				continue;
+			}
 
-				int previousRecordSize = record.size();
-				Parser.tokenize(record, line, true);
-				braceDepth = InputAgent.getBraceDepth(record, braceDepth, previousRecordSize);
-				if( braceDepth != 0 )
-					continue;
+			if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
+				InputAgent.setRecordEditsFound(true);
+				InputAgent.setRecordEdits(true);
+				if (recording != null)
+					recording.setRecordEdits(true);
+				continue;
+			}
 
-				if (record.size() == 0)
-					continue;
+			// Otherwise assume it is a Keyword record
+			InputAgent.processKeywordRecord(record, pc);
+			if (recording != null)
+				recording.addKeywordRecord(record, pc);
+		}
 
-				InputAgent.echoInputRecord(record);
+		return true;
+	}
 
-				if ("DEFINE".equalsIgnoreCase(record.get(0))) {
-					InputAgent.processDefineRecord(record);
-					record.clear();
-					continue;
-				}
+	/**
+	 * Reads the records from the given configuration file into cfg without applying them.
+	 */
+	private static boolean collectRecords(ConfigFileReader reader, ConfigReload cfg) {
+		Input.ParseContext pc = new Input.ParseContext();
+		pc.jail = reader.getRoot();
+		pc.context = reader.getURI();
+
+		while (true) {
+			ConfigFileReader.Record rec = reader.nextRecord();
+			if (rec == null)
+				break;
+
+			if (rec.tokens == null) {
+				if (rec.failure != null)
+					rethrowWrapped(rec.failure);
+				InputAgent.logWarning("%s", rec.error);
+				return false;
+			}
 
-				if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
-					try {
-						InputAgent.processIncludeRecord(pc, record);
-					}
-					catch (URISyntaxException ex) {
-						rethrowWrapped(ex);
-					}
-					record.clear();
-					continue;
-				}
+			ArrayList<String> record = rec.tokens;
+			if (rec.error != null) {
+				InputAgent.logBadInput(record, rec.error);
+				continue;
+			}
 
-				if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
-					InputAgent.setRecordEditsFound(true);
-					InputAgent.setRecordEdits(true);
-					record.clear();
+			if ("DEFINE".equalsIgnoreCase(record.get(0))) {
+				cfg.addDefineRecord(record);
+				continue;
+			}
+
+			if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
+				if (rec.failure != null)
+					rethrowWrapped(rec.failure);
+				if (rec.include == null) {
+					InputAgent.logError("Bad Include record, should be: Include <File>");
 					continue;
 				}
+				InputAgent.collectRecords(rec.include, cfg);
+				continue;
+			}
 
-				// Otherwise assume it is a Keyword record
-				InputAgent.processKeywordRecord(record, pc);
-				record.clear();
+			if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
+				cfg.setRecordEdits(true);
+				continue;
 			}
 
-			// Leftover Input at end of file
-			if (record.size() > 0)
-				InputAgent.logBadInput(record, "Leftover input at end of file");
-			buf.close();
-		}
-		catch (IOException e) {
-			// Make best effort to ensure it closes
-			try { buf.close(); } catch (IOException e2) {}
+			cfg.addKeywordRecord(record, pc);
 		}
 
 		return true;
 	}
 
-	private static void processIncludeRecord(ParseContext pc, ArrayList<String> record) throws URISyntaxException {
-		if (record.size() != 2) {
+	private static void processIncludeRecord(ConfigFileReader.Record rec) {
+		if (rec.include == null) {
 			InputAgent.logError("Bad Include record, should be: Include <File>");
 			return;
 		}
-		InputAgent.readStream(pc.jail, pc.context, record.get(1).replaceAll("\\\\", "/"));
+		InputAgent.readRecords(rec.include);
 	}
 
 	private static void processDefineRecord(ArrayList<String> record) {
@@ -540,7 +562,7 @@ public class InputAgent {
 		}
 	}
 
-	private static ArrayList<KeywordIndex> getKeywords(ArrayList<String> input, ParseContext context) {
+	static ArrayList<KeywordIndex> getKeywords(ArrayList<String> input, ParseContext context) {
 		ArrayList<KeywordIndex> ret = new ArrayList<KeywordIndex>();
 
 		int braceDepth = 0;
@@ -606,7 +628,15 @@ public class InputAgent {
 		}
 
 		URI dirURI = file.getParentFile().toURI();
-		InputAgent.readStream("", dirURI, file.getName());
+		ConfigReload cfg = new ConfigReload();
+		recording = cfg;
+		try {
+			InputAgent.readStream("", dirURI, file.getName());
+		}
+		finally {
+			recording = null;
+		}
+		loadedConfig = cfg;
 
 		GUIFrame.instance().setProgressText(null);
 		GUIFrame.instance().setProgress(0);
@@ -633,6 +663,113 @@ public class InputAgent {
 			InputAgent.printInputFileKeywords();
 	}
 
+	/**
+	 * Reads the present configuration file again and applies only the records that have
+	 * changed since it was loaded: entities that were removed are killed, new entities are
+	 * defined, and keywords whose values have changed are applied again.
+	 * <p>
+	 * Returns false without changing the model if the file must be loaded in full instead,
+	 * for example if the model has been edited since it was loaded or an ObjectType has
+	 * changed.
+	 */
+	public static boolean reloadConfigurationFile() throws URISyntaxException {
+		if (loadedConfig == null || configFile == null || sessionEdited)
+			return false;
+
+		ConfigReload cfg = new ConfigReload();
+		URI dirURI = configFile.getParentFile().toURI();
+		if (!InputAgent.collectRecords(ConfigFileReader.start("", dirURI, configFile.getName()), cfg))
+			return false;
+
+		ConfigReload.Changes changes = cfg.getChanges(loadedConfig);
+
+		// Object types and palettes determine how the rest of the file is read
+		for (String name : changes.killed) {
+			if (isTypeDefinition(Entity.getNamedEntity(name)))
+				return false;
+		}
+		for (String type : changes.defined.values()) {
+			if (type.equalsIgnoreCase("ObjectType") || type.equalsIgnoreCase("Palette"))
+				return false;
+		}
+		for (ConfigReload.Entry entry : changes.reset) {
+			Entity ent = Input.tryParseEntity(entry.entity, Entity.class);
+			if (isTypeDefinition(ent))
+				return false;
+
+			// Group keywords are applied to the members and cannot be reset
+			if (ent != null && ent.getInput(entry.kw.keyword) == null)
+				return false;
+		}
+		for (ConfigReload.Entry entry : changes.applied) {
+			if (isTypeDefinition(Input.tryParseEntity(entry.entity, Entity.class)))
+				return false;
+		}
+
+		int errors = numErrors;
+		boolean edits = recordEdits;
+		InputAgent.beginBulkApply();
+		try {
+			for (String name : changes.killed) {
+				Entity ent = Entity.getNamedEntity(name);
+				if (ent != null)
+					ent.kill();
+			}
+
+			for (Map.Entry<String, String> each : changes.defined.entrySet()) {
+				ArrayList<String> record = new ArrayList<String>(5);
+				record.add("Define");
+				record.add(each.getValue());
+				record.add("{");
+				record.add(each.getKey());
+				record.add("}");
+				InputAgent.processDefineRecord(record);
+			}
+
+			for (ConfigReload.Entry entry : changes.reset) {
+				Entity ent = Input.tryParseEntity(entry.entity, Entity.class);
+				if (ent == null)
+					continue;
+
+				Input<?> in = ent.getInput(entry.kw.keyword);
+				in.reset();
+				ent.updateForInput(in);
+			}
+
+			for (ConfigReload.Entry entry : changes.applied) {
+				Entity ent = Input.tryParseEntity(entry.entity, Entity.class);
+				if (ent == null) {
+					InputAgent.logError("Could not find Entity: %s", entry.entity);
+					continue;
+				}
+
+				recordEdits = entry.recordEdits;
+				try {
+					InputAgent.processKeyword(ent, entry.kw);
+				}
+				catch (Throwable e) {
+					InputAgent.logInpError("Entity: %s, Keyword: %s - %s", ent.getInputName(), entry.kw.keyword, e.getMessage());
+				}
+			}
+		}
+		finally {
+			recordEdits = edits;
+			InputAgent.endBulkApply();
+		}
+
+		loadedConfig = cfg;
+		sessionEdited = false;
+
+		if (InputAgent.numErrors > errors)
+			throw new InputErrorException("%d input errors found, check %s", InputAgent.numErrors - errors, InputAgent.getRunName() + ".log");
+
+		return true;
+	}
+
+	private static boolean isTypeDefinition(Entity ent) {
+		return ent instanceof ObjectType || ent instanceof Palette;
+	}
+
 	public static final void apply(Entity ent, KeywordIndex kw) {
 		Input<?> in = ent.getInput(kw.keyword);
 		if (in == null) {
@@ -641,7 +778,7 @@ public class InputAgent {
 		}
 
 		InputAgent.apply(ent, in, kw);
-		FrameBox.valueUpdate();
+		InputAgent.valueUpdate();
 	}
 
 	public static final void apply(Entity ent, Input<?> in, KeywordIndex kw) {
@@ -661,23 +798,32 @@ public class InputAgent {
 		if(ent.testFlag(Entity.FLAG_GENERATED))
 			return;
 
-		StringBuilder out = new StringBuilder(data.size() * 6);
-		for (int i = 0; i < data.size(); i++) {
-			String dat = data.get(i);
-			if (Parser.needsQuoting(dat) && !dat.equals("{") && !dat.equals("}"))
-				out.append("'").append(dat).append("'");
-			else
-				out.append(dat);
-
-			if( i < data.size() - 1 )
-				out.append("  ");
-		}
-
 		if(in.isEdited()) {
 			ent.setFlag(Entity.FLAG_EDITED);
 			sessionEdited = true;
 		}
-		in.setValueString(out.toString());
+		in.setValueTokens(data);
+	}
+
+	/**
+	 * Starts applying a large number of inputs, such as the records in a configuration file.
+	 * The user interface is not updated for each input, but once at the end.  Every call must
+	 * be matched by a call to endBulkApply().
+	 */
+	public static void beginBulkApply() {
+		bulkApplyDepth++;
+	}
+
+	public static void endBulkApply() {
+		bulkApplyDepth--;
+		if (bulkApplyDepth == 0)
+			FrameBox.valueUpdate();
+	}
+
+	private static void valueUpdate() {
+		if (bulkApplyDepth > 0)
+			return;
+		FrameBox.valueUpdate();
 	}
 
 	private static void processKeyword(Entity entity, KeywordIndex key) {
@@ -687,7 +833,7 @@ public class InputAgent {
 		Input<?> input = entity.getInput( key.keyword );
 		if (input != null) {
 			InputAgent.apply(entity, input, key);
-			FrameBox.valueUpdate();
+			InputAgent.valueUpdate();
 			return;
 		}
 
@@ -828,6 +974,50 @@ public class InputAgent {
 		}).start();
 	}
 
+	/**
+	 * Reloads the present configuration file.  If the model has not been run since it was
+	 * loaded, only the inputs that have changed are applied, otherwise the file is loaded in
+	 * full.
+	 * <p>
+	 * @param gui - the Control Panel.
+	 */
+	public static void reload(final GUIFrame gui) {
+		final File file = InputAgent.getConfigFile();
+		if (file == null)
+			return;
+
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (gui.getSimState() == GUIFrame.SIM_STATE_CONFIGURED &&
+					    InputAgent.reloadConfigurationFile()) {
+						LogBox.logLine("Configuration File Reloaded");
+						return;
+					}
+				}
+				catch (InputErrorException iee) {
+					if (!batchRun)
+						ExceptionBox.instance().setErrorBox(iee.getMessage());
+					else
+						LogBox.logLine( iee.getMessage() );
+					return;
+				}
+				catch (Throwable t) {
+					ExceptionBox.instance().setError(t);
+					return;
+				}
+
+				InputAgent.setRecordEdits(false);
+				InputAgent.configure(gui, file);
+				InputAgent.setRecordEdits(true);
+
+				GUIFrame.displayWindows(true);
+				FrameBox.valueUpdate();
+			}
+		}).start();
+	}
+
 	/**
 	 * Saves the configuration file.
 	 * @param gui = Control Panel window for JaamSim
@@ -14,7 +14,9 @@
  */
 package com.jaamsim.input;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -38,9 +40,15 @@ public class OutputHandle {
 	public Class<? extends Unit> unitType;
 
 	private static final HashMap<Class<? extends Entity>, ArrayList<OutputPair>> outputPairCache;
+	private static final HashMap<Class<? extends Entity>, HashMap<String, OutputPair>> outputNameCache;
+
+	// Method types for the handles that read an output, (Entity, simTime)
+	private static final MethodType objectType = MethodType.methodType(Object.class, Entity.class, double.class);
+	private static final MethodType doubleType = MethodType.methodType(double.class, Entity.class, double.class);
 
 	static {
 		outputPairCache = new HashMap<Class<? extends Entity>, ArrayList<OutputPair>>();
+		outputNameCache = new HashMap<Class<? extends Entity>, HashMap<String, OutputPair>>();
 	}
 
 	public OutputHandle(Entity e, String outputName) {
@@ -52,10 +60,23 @@ public class OutputHandle {
 	private static class OutputPair {
 		public Method method;
 		public Output annotation;
+		public MethodHandle handle;  // returns the value as an Object, primitives are boxed
+		public MethodHandle doubleHandle;  // returns a primitive numeric value as a double, null for any other type
 
 		public OutputPair(Method m, Output a) {
 			method = m;
 			annotation = a;
+
+			// The handles are bound once so that reading an output does not go through
+			// reflection, a method that cannot be accessed is left without a handle
+			try {
+				MethodHandle mh = MethodHandles.publicLookup().unreflect(m);
+				handle = mh.asType(objectType);
+				Class<?> rtype = m.getReturnType();
+				if (rtype.isPrimitive() && rtype != boolean.class && rtype != void.class)
+					doubleHandle = mh.asType(doubleType);
+			}
+			catch (IllegalAccessException e) {}
 		}
 	}
 
@@ -64,11 +85,12 @@ public class OutputHandle {
 	}
 
 	private static OutputPair getOutputPair(Class<? extends Entity> klass, String outputName) {
-		for (OutputPair p : getOutputPair(klass)) {
-			if( p.annotation.name().equals(outputName) )
-				return p;
+		HashMap<String, OutputPair> names = outputNameCache.get(klass);
+		if (names == null) {
+			getOutputPair(klass);
+			names = outputNameCache.get(klass);
 		}
-		return null;
+		return names.get(outputName);
 	}
 
 	private static ArrayList<OutputPair> getOutputPair(Class<? extends Entity> klass) {
@@ -92,6 +114,14 @@ public class OutputHandle {
 
 			ret.add(new OutputPair(m, a));
 		}
+
+		// Index the outputs by name, the first output with a given name is used
+		HashMap<String, OutputPair> names = new HashMap<String, OutputPair>(ret.size() * 2);
+		for (OutputPair p : ret) {
+			if (!names.containsKey(p.annotation.name()))
+				names.put(p.annotation.name(), p);
+		}
+		outputNameCache.put(klass, names);
 		outputPairCache.put(klass, ret);
 		return ret;
 	}
@@ -133,20 +163,32 @@ public class OutputHandle {
 
 	@SuppressWarnings("unchecked") // This suppresses the warning on the cast, which is effectively checked
 	public <T> T getValue(double simTime, Class<T> klass) {
-		if( pair.method == null )
+		if( pair.handle == null )
 			return null;
 
-		T ret = null;
-		try {
-			if (!klass.isAssignableFrom(pair.method.getReturnType()))
-				return null;
+		if (!klass.isAssignableFrom(pair.method.getReturnType()))
+			return null;
 
-			ret = (T)pair.method.invoke(ent, simTime);
+		return (T)this.getObjectValue(simTime);
+	}
+
+	/**
+	 * Returns the value of the output, primitive values are boxed.  Any exception thrown by the
+	 * output method is passed on to the caller.
+	 */
+	private Object getObjectValue(double simTime) {
+		try {
+			return pair.handle.invokeExact(ent, simTime);
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Error e) {
+			throw e;
+		}
+		catch (Throwable t) {
+			throw new ErrorException(t);
 		}
-		catch (InvocationTargetException ex) {}
-		catch (IllegalAccessException ex) {}
-		catch (ClassCastException ex) {}
-		return ret;
 	}
 
 	public boolean isNumericValue() {
@@ -193,51 +235,30 @@ public class OutputHandle {
 	 * @return
 	 */
 	public double getValueAsDouble(double simTime, double def) {
-		Class<?> retType = this.getReturnType();
-		if (retType == double.class)
-			return this.getValue(simTime, double.class);
-
-		if (retType == Double.class) {
-			Double val = getValue(simTime, Double.class);
-			if (val == null) return def;
-			return val.doubleValue();
-		}
-		if (retType == Float.class) {
-			Float val = getValue(simTime, Float.class);
-			if (val == null) return def;
-			return val.doubleValue();
-		}
-		if (retType == Long.class) {
-			Long val = getValue(simTime, Long.class);
-			if (val == null) return def;
-			return val.doubleValue();
-		}
-		if (retType == Integer.class) {
-			Integer val = getValue(simTime, Integer.class);
-			if (val == null) return def;
-			return val.doubleValue();
-		}
-		if (retType == Short.class) {
-			Short val = getValue(simTime, Short.class);
-			if (val == null) return def;
-			return val.doubleValue();
-		}
-		if (retType == Character.class) {
-			Character val = getValue(simTime, Character.class);
-			if (val == null) return def;
-			return val.charValue();
+		// Primitive values are read without boxing
+		if (pair.doubleHandle != null) {
+			try {
+				return (double)pair.doubleHandle.invokeExact(ent, simTime);
+			}
+			catch (RuntimeException e) {
+				throw e;
+			}
+			catch (Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new ErrorException(t);
+			}
 		}
 
-		if (retType == float.class)
-			return this.getValue(simTime, float.class);
-		if (retType == int.class)
-			return this.getValue(simTime, int.class);
-		if (retType == long.class)
-			return this.getValue(simTime, long.class);
-		if (retType == short.class)
-			return this.getValue(simTime, short.class);
-		if (retType == char.class)
-			return this.getValue(simTime, char.class);
+		if (pair.handle == null || !this.isNumericValue())
+			return def;
+
+		Object val = this.getObjectValue(simTime);
+		if (val instanceof Number)
+			return ((Number)val).doubleValue();
+		if (val instanceof Character)
+			return ((Character)val).charValue();
 
 		return def;
 	}
@@ -26,6 +26,22 @@ public class OutputInput<T> extends Input<String> {
 	private String outputName;  // The first Output name in the chain
 	private OutputHandle out;  // The OutputHandle for the first Output in the chain
 	private StringVector outputNameList;  // The names of the second, third, etc. Outputs in the chain.
+	private ChainLink[] chain;  // The last OutputHandle resolved for each name in outputNameList
+
+	/**
+	 * An OutputHandle resolved for one of the names in the chain, along with the entity it
+	 * was resolved against.  A link is replaced as a whole so that it can be read from
+	 * another thread without locking.
+	 */
+	private static final class ChainLink {
+		final Entity ent;
+		final OutputHandle out;
+
+		ChainLink(Entity e, OutputHandle o) {
+			ent = e;
+			out = o;
+		}
+	}
 
 	public OutputInput(Class<T> klass, String key, String cat, String def) {
 		super(key, cat, def);
@@ -40,6 +56,7 @@ public class OutputInput<T> extends Input<String> {
 			outputName = "";
 			out = null;
 			outputNameList.clear();
+			chain = null;
 			return;
 		}
 
@@ -57,6 +74,7 @@ public class OutputInput<T> extends Input<String> {
 		outputNameList = new StringVector();
 		if( input.size() > 2 )
 			outputNameList = input.subString(2, input.size()-1);
+		chain = new ChainLink[outputNameList.size()];
 
 		Class<?> retClass = out.getReturnType();
 		if( input.size() == 2 ) {
@@ -76,13 +94,32 @@ public class OutputInput<T> extends Input<String> {
 		}
 	}
 
+	/**
+	 * Returns the OutputHandle for the last Output in the chain.  The handle for each link is
+	 * reused for as long as the previous Output returns the same entity, so only the Outputs
+	 * for the intermediate entities are evaluated.
+	 */
 	public OutputHandle getOutputHandle(double simTime) {
 		OutputHandle o = out;
-		for( String name : outputNameList ) {
+		ChainLink[] links = chain;
+		if (links == null)
+			return o;
+
+		for (int i = 0; i < links.length; i++) {
 			Entity e = o.getValue(simTime, Entity.class);
-			if( e == null || !e.hasOutput(name) )
+			if (e == null)
 				return null;
-			o = e.getOutputHandle(name);
+
+			ChainLink link = links[i];
+			if (link == null || link.ent != e) {
+				String name = outputNameList.get(i);
+				if (!e.hasOutput(name))
+					return null;
+
+				link = new ChainLink(e, e.getOutputHandle(name));
+				links[i] = link;
+			}
+			o = link.out;
 		}
 		return o;
 	}
@@ -19,6 +19,12 @@ import java.util.regex.Pattern;
 
 public class Parser {
 
+/**
+ * Version of the tokenizer, increment whenever the tokens produced for a record change so that
+ * any cached configuration files are tokenized again.
+ */
+public static final int VERSION = 1;
+
 /**
  * Tokenize the given record and append to the given list of tokens
  *
@@ -41,64 +47,241 @@ public static final void tokenize(ArrayList<String> tokens, String rec) {
  * @param stripComments if true, do not append any commented tokens
  */
 public static final void tokenize(ArrayList<String> tokens, String rec, boolean stripComments) {
+	tokenize(tokens, rec, stripComments, 0, Integer.MAX_VALUE);
+}
+
+/**
+ * Tokenize the given record and append to the given list of tokens, returning the
+ * brace depth at the end of the record.
+ *
+ * The brace depth is updated as each brace is appended.  If it falls below zero or
+ * exceeds the given maximum, it is no longer updated and the out-of-range value is
+ * returned so that the caller can reject the record.
+ *
+ * @param tokens list of String tokens to append to
+ * @param rec record to tokenize and append
+ * @param stripComments if true, do not append any commented tokens
+ * @param braceDepth brace depth at the start of the record
+ * @param maxDepth maximum valid brace depth
+ */
+public static final int tokenize(ArrayList<String> tokens, String rec, boolean stripComments, int braceDepth, int maxDepth) {
+	char[] buf = rec.toCharArray();
+	return tokenize(tokens, buf, 0, buf.length, stripComments, braceDepth, maxDepth);
+}
+
+/**
+ * Tokenize the record held in the given range of the character buffer, see
+ * tokenize(ArrayList, String, boolean, int, int).
+ */
+public static final int tokenize(ArrayList<String> tokens, char[] buf, int off, int len, boolean stripComments, int braceDepth, int maxDepth) {
+	final int end = off + len;
+
 	// Records can be divided into two pieces, the contents portion and possibly
 	// a commented portion, the division point is the first " character, if no
 	// quoting in a record, the entire line is contents for tokenizing
-	final int cIndex = rec.indexOf("\"");
-	final String contents;
-	if (cIndex == -1)
-		contents = rec;
-	else
-		contents = rec.substring(0, cIndex);
-
-	// Split the contents along single-quoted substring boundaries to allow
-	// us to parse quoted and unquoted sections separately
-	String[] substring = contents.split("'", -1);
-	for (int i = 0; i < substring.length; i++) {
-		// Odd indices were single-quoted strings in the original record
-		// append the whole string as a single token even if there was nothing
-		// between the quotes (an empty string)
-		if (i % 2 != 0) {
-			tokens.add(substring[i]);
-			continue;
+	int cIndex = -1;
+	for (int i = off; i < end; i++) {
+		if (buf[i] == '"') {
+			cIndex = i;
+			break;
 		}
+	}
+	final int contentsEnd = (cIndex == -1) ? end : cIndex;
 
-		// The even-index strings need tokenizing, we allow spaces, tabs and
-		// commas to delimit token boundaries, we also want all braces {} to
-		// appear as a single token
-		// Ensure { or } has tabs separating if from adjacent characters
-		String temp = substring[i].replaceAll("([\\{\\}])", "\t$1\t");
-		// Split along space, comma and tab characters, treat consecutive
-		// characters as one delimiter
-		String[] delimTokens = temp.split("[ ,\t]+", 0);
-		// Append the new tokens that have greater than zero length
-		for (String each : delimTokens) {
-			if (each.length() == 0)
-				continue;
+	int depth = braceDepth;
+	int tokStart = -1;
+	int i = off;
+	while (i < contentsEnd) {
+		char c = buf[i];
+		switch (c) {
+		case '\'':
+			// A single-quoted string is appended as one token, even if there was
+			// nothing between the quotes (an empty string), an unmatched quote runs
+			// to the end of the contents
+			if (tokStart != -1) {
+				tokens.add(new String(buf, tokStart, i - tokStart));
+				tokStart = -1;
+			}
+			int close = i + 1;
+			while (close < contentsEnd && buf[close] != '\'')
+				close++;
+			tokens.add(new String(buf, i + 1, close - i - 1));
+			i = close + 1;
+			continue;
+
+		// Spaces, tabs and commas delimit tokens, consecutive delimiters are
+		// treated as one
+		case ' ':
+		case ',':
+		case '\t':
+			if (tokStart != -1) {
+				tokens.add(new String(buf, tokStart, i - tokStart));
+				tokStart = -1;
+			}
+			break;
 
-			if (each.length() == 1) {
-				if ("{".equals(each)) {
-					tokens.add("{");
-					continue;
-				}
-				if ("}".equals(each)) {
-					tokens.add("}");
-					continue;
-				}
+		// Braces are always a single token
+		case '{':
+		case '}':
+			if (tokStart != -1) {
+				tokens.add(new String(buf, tokStart, i - tokStart));
+				tokStart = -1;
+			}
+			boolean inRange = depth >= 0 && depth <= maxDepth;
+			if (c == '{') {
+				tokens.add("{");
+				if (inRange) depth++;
 			}
+			else {
+				tokens.add("}");
+				if (inRange) depth--;
+			}
+			break;
 
-			tokens.add(each);
+		default:
+			if (tokStart == -1)
+				tokStart = i;
+			break;
 		}
+		i++;
+	}
+	if (tokStart != -1) {
+		tokens.add(new String(buf, tokStart, contentsEnd - tokStart));
 	}
 
 	// add comments if they exist including the leading " to denote it as commented
 	if (!stripComments && cIndex > -1)
-		tokens.add(rec.substring(cIndex, rec.length()));
+		tokens.add(new String(buf, cIndex, end - cIndex));
+
+	return depth;
 }
 
-private static final Pattern quoted = Pattern.compile("[ ,\t{}]");
+/**
+ * Returns true if the given token contains a delimiter or brace and must be quoted to be
+ * read back as a single token.
+ */
 public static final boolean needsQuoting(String s) {
-	return quoted.matcher(s).find();
+	for (int i = 0; i < s.length(); i++) {
+		switch (s.charAt(i)) {
+		case ' ':
+		case ',':
+		case '\t':
+		case '{':
+		case '}':
+			return true;
+		}
+	}
+	return false;
+}
+
+// Powers of ten that are exactly representable as a double
+private static final double[] POW10 = {
+	1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+	1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+};
+
+/**
+ * Convert the given token to a double.  Plain decimal numbers such as "-12.5" or "3.0e-4" are
+ * converted directly, anything else is passed to Double.parseDouble().
+ * @throws NumberFormatException if the token is not a number
+ */
+public static final double parseDouble(String s) {
+	double val = parseDecimal(s);
+	if (val == val)
+		return val;
+
+	return Double.parseDouble(s);
+}
+
+/**
+ * Returns true if the given token is a plain decimal number that is converted directly by
+ * parseDouble().
+ */
+public static final boolean isDecimal(String s) {
+	return !Double.isNaN(parseDecimal(s));
+}
+
+/**
+ * Converts a plain decimal number with at most 15 significant digits and a small exponent,
+ * returning NaN for anything else.  The digits and the power of ten are both exact, so the
+ * single multiplication or division gives the correctly rounded result, the same value as
+ * Double.parseDouble().
+ */
+private static double parseDecimal(String s) {
+	final int len = s.length();
+	int i = 0;
+	boolean neg = false;
+	if (len > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+		neg = s.charAt(0) == '-';
+		i++;
+	}
+
+	long mant = 0;
+	int numDigits = 0;  // significant digits in the mantissa
+	int scale = 0;      // digits after the decimal point
+	boolean point = false;
+	boolean digits = false;
+	for (; i < len; i++) {
+		char c = s.charAt(i);
+		if (c >= '0' && c <= '9') {
+			digits = true;
+			if (point)
+				scale++;
+
+			// Leading zeros are not significant
+			if (mant == 0 && c == '0')
+				continue;
+
+			if (++numDigits > 15)
+				return Double.NaN;
+
+			mant = mant * 10 + (c - '0');
+			continue;
+		}
+		if (c == '.' && !point) {
+			point = true;
+			continue;
+		}
+		if (c == 'e' || c == 'E')
+			break;
+
+		return Double.NaN;
+	}
+	if (!digits)
+		return Double.NaN;
+
+	int exp = 0;
+	if (i < len) {
+		i++;
+		boolean expNeg = false;
+		if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+			expNeg = s.charAt(i) == '-';
+			i++;
+		}
+		if (i == len || len - i > 3)
+			return Double.NaN;
+
+		for (; i < len; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9')
+				return Double.NaN;
+			exp = exp * 10 + (c - '0');
+		}
+		if (expNeg)
+			exp = -exp;
+	}
+
+	double val = mant;
+	int pow = exp - scale;
+	if (mant != 0 && pow != 0) {
+		if (pow > 0 && pow < POW10.length)
+			val *= POW10[pow];
+		else if (pow < 0 && -pow < POW10.length)
+			val /= POW10[-pow];
+		else
+			return Double.NaN;
+	}
+	return neg ? -val : val;
 }
 
 private static final Pattern isquoted = Pattern.compile("'.*'");
@@ -0,0 +1,113 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+import java.util.ArrayList;
+
+import com.sandwell.JavaSimulation.DoubleVector;
+
+/**
+ * Selects an index from a discrete probability distribution in constant time using the
+ * alias method (Walker 1977, with the construction of Vose 1991).
+ * <p>
+ * Each of the n columns of the table holds a probability and an alias.  A uniform random
+ * number picks a column and is then compared to the column's probability to choose between
+ * the column's own index and its alias.
+ */
+public class AliasTable {
+	private final double[] prob;  // probability of returning the column's own index
+	private final int[] alias;  // index returned when the column's own index is not selected
+
+	/**
+	 * Constructs the table for the given probabilities, which are normalised by their sum.
+	 */
+	public AliasTable(DoubleVector probs) {
+		int n = probs.size();
+		if (n == 0)
+			throw new IllegalArgumentException("At least one probability must be given");
+
+		double sum = 0.0d;
+		for (int i = 0; i < n; i++) {
+			if (probs.get(i) < 0.0d)
+				throw new IllegalArgumentException("Probabilities cannot be negative");
+			sum += probs.get(i);
+		}
+		if (sum <= 0.0d)
+			throw new IllegalArgumentException("The probabilities must sum to a positive value");
+
+		prob = new double[n];
+		alias = new int[n];
+
+		// Scale the probabilities so that their mean is one and sort the columns into those
+		// that are under and over filled
+		double[] scaled = new double[n];
+		ArrayList<Integer> small = new ArrayList<Integer>(n);
+		ArrayList<Integer> large = new ArrayList<Integer>(n);
+		for (int i = 0; i < n; i++) {
+			scaled[i] = probs.get(i) * n / sum;
+			alias[i] = i;
+			if (scaled[i] < 1.0d)
+				small.add(i);
+			else
+				large.add(i);
+		}
+
+		// Fill each under filled column with the excess from an over filled one
+		while (!small.isEmpty() && !large.isEmpty()) {
+			int s = small.remove(small.size() - 1);
+			int l = large.get(large.size() - 1);
+			prob[s] = scaled[s];
+			alias[s] = l;
+			scaled[l] -= 1.0d - scaled[s];
+			if (scaled[l] < 1.0d) {
+				large.remove(large.size() - 1);
+				small.add(l);
+			}
+		}
+
+		// The remaining columns are full, apart from round-off.  An outcome with zero
+		// probability must never be selected, so its column is given to the most likely one.
+		for (int i : large)
+			prob[i] = 1.0d;
+		for (int i : small) {
+			if (probs.get(i) > 0.0d) {
+				prob[i] = 1.0d;
+				continue;
+			}
+			prob[i] = 0.0d;
+			alias[i] = probs.indexOf(probs.getMax());
+		}
+	}
+
+	/**
+	 * Returns the number of outcomes in the table.
+	 */
+	public int size() {
+		return prob.length;
+	}
+
+	/**
+	 * Returns the index selected by the given uniform random number in the range [0,1).
+	 */
+	public int getIndex(double rand) {
+		double x = rand * prob.length;
+		int col = (int)x;
+		if (col >= prob.length)
+			col = prob.length - 1;
+		if (x - col < prob[col])
+			return col;
+		return alias[col];
+	}
+}
@@ -27,6 +27,9 @@ public class MRG1999a {
 	// The internal state machine is held in 6 integer values (treat as unsigned)
 	int s0, s1, s2, s3, s4, s5;
 
+	// If true, each uniform value U is replaced by 1 - U
+	private boolean antithetic;
+
 	/**
 	 * Constructs a random generator seeded with values the first entry in the seed
 	 * table.
@@ -70,12 +73,25 @@ public class MRG1999a {
 	 * @param stream
 	 */
 	public void setSeedStream(int stream) {
+		setSeedStream(stream, 0);
+	}
+
+	/**
+	 * Seed the MRG with values from the given substream of the given stream number.
+	 * The seeds are found by jumping ahead, so the cost is proportional to the log of
+	 * the stream and substream numbers.
+	 * @param stream
+	 * @param substream
+	 */
+	public void setSeedStream(int stream, int substream) {
 		if (stream < 0)
 			throw new IllegalArgumentException("Stream numbers must be positive");
+		if (substream < 0)
+			throw new IllegalArgumentException("Substream numbers must be positive");
 
 		long seeds[] = { 12345, 12345, 12345, 12345, 12345, 12345 };
-		for (int i = 0; i < stream; i++)
-			advanceStream(seeds);
+		advanceStream(seeds, stream);
+		advanceSubstream(seeds, substream);
 
 		setSeed(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
 	}
@@ -95,6 +111,19 @@ public class MRG1999a {
 		this.s3 = (int)s3; this.s4 = (int)s4; this.s5 = (int)s5;
 	}
 
+	/**
+	 * Sets whether the generator returns antithetic values.  An antithetic generator returns
+	 * 1 - U for each value U that would be returned by the same generator otherwise.
+	 * @param bool
+	 */
+	public void setAntithetic(boolean bool) {
+		antithetic = bool;
+	}
+
+	public boolean isAntithetic() {
+		return antithetic;
+	}
+
 	/**
 	 * Get the next uniformly distributed double value U(0,1)
 	 * @return
@@ -114,9 +143,39 @@ public class MRG1999a {
 
 		long p = p1 - p2;
 		if (p <= 0) p += m1;
+		if (antithetic) p = m1 + 1 - p;
 		return p * norm;
 	}
 
+	/**
+	 * Fill the first n entries of the given array with uniformly distributed values U(0,1).
+	 * The values are identical to those returned by n calls to nextUniform().
+	 */
+	public void fillUniform(double[] out, int n) {
+		long a0 = uint(s0), a1 = uint(s1), a2 = uint(s2);
+		long a3 = uint(s3), a4 = uint(s4), a5 = uint(s5);
+		for (int i = 0; i < n; i++) {
+			// Mix the first half of the state
+			long p1 = 1403580l * a1 - 810728l * a0;
+			p1 = p1 % m1;
+			if (p1 < 0) p1 += m1;
+			a0 = a1; a1 = a2; a2 = p1;
+
+			// Mix the second half of the state
+			long p2 = 527612l * a5 - 1370589l * a3;
+			p2 = p2 % m2;
+			if (p2 < 0) p2 += m2;
+			a3 = a4; a4 = a5; a5 = p2;
+
+			long p = p1 - p2;
+			if (p <= 0) p += m1;
+			if (antithetic) p = m1 + 1 - p;
+			out[i] = p * norm;
+		}
+		s0 = (int)a0; s1 = (int)a1; s2 = (int)a2;
+		s3 = (int)a3; s4 = (int)a4; s5 = (int)a5;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%d, %d, %d, %d, %d, %d",
@@ -166,6 +225,77 @@ public class MRG1999a {
 		{ 3859662829L, 4292754251L, 3708466080L }
 	};
 
+	// streamPowers1[k] is the first half of streamAdvance raised to the power 2^k, etc.
+	private static final long[][][] streamPowers1 = getPowers(streamAdvance, 0, m1);
+	private static final long[][][] streamPowers2 = getPowers(streamAdvance, 3, m2);
+	private static final long[][][] substreamPowers1 = getPowers(substreamAdvance, 0, m1);
+	private static final long[][][] substreamPowers2 = getPowers(substreamAdvance, 3, m2);
+
+	/**
+	 * Returns the 3x3 matrix starting at the given row of the advance matrix raised to the
+	 * powers 2^0, 2^1, ..., 2^30, modulo m.
+	 */
+	private static long[][][] getPowers(long[][] advance, int row, long m) {
+		long[][][] ret = new long[31][][];
+		ret[0] = new long[3][];
+		for (int i = 0; i < 3; i++)
+			ret[0][i] = advance[row + i].clone();
+
+		for (int k = 1; k < ret.length; k++)
+			ret[k] = multiply(ret[k - 1], ret[k - 1], m);
+
+		return ret;
+	}
+
+	private static long[][] multiply(long[][] a, long[][] b, long m) {
+		long[][] ret = new long[3][3];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				long tmp;
+				tmp = ulong_mod(a[i][0] * b[0][j]      , m);
+				tmp = ulong_mod(a[i][1] * b[1][j] + tmp, m);
+				tmp = ulong_mod(a[i][2] * b[2][j] + tmp, m);
+				ret[i][j] = tmp;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Advances the seeds by n steps of the transformation whose powers are given.
+	 */
+	private static void jumpAhead(long[] seeds, int n, long[][][] powers1, long[][][] powers2) {
+		for (int k = 0; n != 0; k++, n >>>= 1) {
+			if ((n & 1) == 0)
+				continue;
+
+			long s0 = mixHalf1(powers1[k][0], seeds);
+			long s1 = mixHalf1(powers1[k][1], seeds);
+			long s2 = mixHalf1(powers1[k][2], seeds);
+
+			long s3 = mixHalf2(powers2[k][0], seeds);
+			long s4 = mixHalf2(powers2[k][1], seeds);
+			long s5 = mixHalf2(powers2[k][2], seeds);
+
+			seeds[0] = s0; seeds[1] = s1; seeds[2] = s2;
+			seeds[3] = s3; seeds[4] = s4; seeds[5] = s5;
+		}
+	}
+
+	/**
+	 * Advances the seeds by the given number of streams.
+	 */
+	static void advanceStream(long[] seeds, int n) {
+		jumpAhead(seeds, n, streamPowers1, streamPowers2);
+	}
+
+	/**
+	 * Advances the seeds by the given number of substreams.
+	 */
+	static void advanceSubstream(long[] seeds, int n) {
+		jumpAhead(seeds, n, substreamPowers1, substreamPowers2);
+	}
+
 	static void advanceStream(long[] seeds) {
 		long s0 = mixHalf1(streamAdvance[0], seeds);
 		long s1 = mixHalf1(streamAdvance[1], seeds);
@@ -0,0 +1,161 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+/**
+ * Ziggurat samplers for the standard normal and exponential distributions.
+ * Marsaglia and Tsang (2000), "The Ziggurat Method for Generating Random Variables",
+ * using the floating point formulation of Doornik (2005) so that the uniform
+ * random numbers can be taken from an MRG1999a generator.
+ * <p>
+ * The density is covered by N layers of equal area.  A sample is accepted from
+ * inside its layer's rectangle most of the time, which needs two uniforms and no
+ * calls to log, exp or sqrt.  The wedges and the tail are sampled exactly.
+ */
+public class Ziggurat {
+
+	// Normal distribution, 128 layers
+	private static final int NOR_N = 128;
+	private static final double NOR_R = 3.442619855899d;  // start of the tail
+	private static final double NOR_V = 9.91256303526217e-3d;  // area of each layer
+	private static final double[] norX = new double[NOR_N + 1];
+	private static final double[] norF = new double[NOR_N + 1];
+	private static final double[] norRatio = new double[NOR_N];
+
+	// Exponential distribution, 256 layers
+	private static final int EXP_N = 256;
+	private static final double EXP_R = 7.69711747013104972d;
+	private static final double EXP_V = 3.949659822581572e-3d;
+	private static final double[] expX = new double[EXP_N + 1];
+	private static final double[] expF = new double[EXP_N + 1];
+	private static final double[] expRatio = new double[EXP_N];
+
+	static {
+		// Layer i spans the horizontal range [0, x[i]] and the vertical range [f(x[i]), f(x[i+1])].
+		// Layer 0 is the base strip, which includes the tail beyond R.
+		norX[0] = NOR_V / Math.exp(-0.5d * NOR_R * NOR_R);
+		norX[1] = NOR_R;
+		for (int i = 2; i < NOR_N; i++) {
+			norX[i] = Math.sqrt(-2.0d * Math.log(NOR_V / norX[i-1] + Math.exp(-0.5d * norX[i-1] * norX[i-1])));
+		}
+		norX[NOR_N] = 0.0d;
+		for (int i = 0; i <= NOR_N; i++) {
+			norF[i] = Math.exp(-0.5d * norX[i] * norX[i]);
+		}
+		for (int i = 0; i < NOR_N; i++) {
+			norRatio[i] = norX[i+1] / norX[i];
+		}
+
+		expX[0] = EXP_V / Math.exp(-EXP_R);
+		expX[1] = EXP_R;
+		for (int i = 2; i < EXP_N; i++) {
+			expX[i] = -Math.log(EXP_V / expX[i-1] + Math.exp(-expX[i-1]));
+		}
+		expX[EXP_N] = 0.0d;
+		for (int i = 0; i <= EXP_N; i++) {
+			expF[i] = Math.exp(-expX[i]);
+		}
+		for (int i = 0; i < EXP_N; i++) {
+			expRatio[i] = expX[i+1] / expX[i];
+		}
+	}
+
+	private Ziggurat() {}
+
+	/**
+	 * Returns a sample from the standard normal distribution (mean = 0, standard deviation = 1).
+	 */
+	public static double nextNormal(MRG1999a rng) {
+		while (true) {
+			double u = 2.0d * rng.nextUniform() - 1.0d;
+			int i = (int)(rng.nextUniform() * NOR_N);
+
+			// Inside the rectangle
+			if (Math.abs(u) < norRatio[i])
+				return u * norX[i];
+
+			// Tail beyond R (Marsaglia 1964)
+			if (i == 0) {
+				double x, y;
+				do {
+					x = -Math.log(rng.nextUniform()) / NOR_R;
+					y = -Math.log(rng.nextUniform());
+				} while (y + y < x * x);
+				return (u > 0.0d) ? NOR_R + x : -NOR_R - x;
+			}
+
+			// Wedge between the rectangle and the density
+			double x = u * norX[i];
+			if (norF[i] + rng.nextUniform() * (norF[i+1] - norF[i]) < Math.exp(-0.5d * x * x))
+				return x;
+		}
+	}
+
+	/**
+	 * Returns a sample from the standard exponential distribution (mean = 1).
+	 */
+	public static double nextExponential(MRG1999a rng) {
+		while (true) {
+			double u = rng.nextUniform();
+			int i = (int)(rng.nextUniform() * EXP_N);
+
+			// Inside the rectangle
+			if (u < expRatio[i])
+				return u * expX[i];
+
+			// Tail beyond R (the exponential distribution is memoryless)
+			if (i == 0)
+				return EXP_R - Math.log(rng.nextUniform());
+
+			// Wedge between the rectangle and the density
+			double x = u * expX[i];
+			if (expF[i] + rng.nextUniform() * (expF[i+1] - expF[i]) < Math.exp(-x))
+				return x;
+		}
+	}
+
+	/**
+	 * Returns a sample from the Gamma distribution with the given shape parameter and a
+	 * scale parameter of one (mean = shape).
+	 * Marsaglia and Tsang (2000), "A Simple Method for Generating Gamma Variables".
+	 * Shape parameters less than one are boosted by sampling Gamma(shape + 1) and
+	 * multiplying by U^(1/shape).
+	 */
+	public static double nextGamma(MRG1999a rng, double shape) {
+		if (shape < 1.0d) {
+			double u = rng.nextUniform();
+			return nextGamma(rng, shape + 1.0d) * Math.pow(u, 1.0d / shape);
+		}
+
+		double d = shape - 1.0d / 3.0d;
+		double c = 1.0d / Math.sqrt(9.0d * d);
+		while (true) {
+			double x, v;
+			do {
+				x = nextNormal(rng);
+				v = 1.0d + c * x;
+			} while (v <= 0.0d);
+			v = v * v * v;
+
+			// Squeeze test, followed by the full test
+			double u = rng.nextUniform();
+			double xsq = x * x;
+			if (u < 1.0d - 0.0331d * xsq * xsq)
+				return d * v;
+			if (Math.log(u) < 0.5d * xsq + d * (1.0d - v + Math.log(v)))
+				return d * v;
+		}
+	}
+}
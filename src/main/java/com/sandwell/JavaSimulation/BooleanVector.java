@@ -63,13 +63,10 @@ public class BooleanVector {
 		if (storage.length >= newCapacity)
 			return;
 
-		if (storage.length + capIncrement >= newCapacity) {
-			newCapacity = storage.length + capIncrement;
-		}
-
-		boolean[] copy = new boolean[newCapacity];
-		System.arraycopy(storage, 0, copy, 0, storage.length);
-		storage = copy;
+		// Grow by at least half the current capacity so that appending n values
+		// copies the storage O(log n) times instead of O(n) times
+		int grow = Math.max(capIncrement, storage.length >> 1);
+		storage = Arrays.copyOf(storage, Math.max(newCapacity, storage.length + grow));
 	}
 
 	/**
@@ -110,6 +107,38 @@ public class BooleanVector {
 		numElements++;
 	}
 
+	/**
+	 * Append the given values to the end of the vector.
+	 */
+	public void addAll(boolean[] values) {
+		ensureCapacity(numElements + values.length);
+		System.arraycopy(values, 0, storage, numElements, values.length);
+		numElements += values.length;
+	}
+
+	/**
+	 * Append the values in the given vector to the end of this vector.
+	 */
+	public void addAll(BooleanVector vec) {
+		ensureCapacity(numElements + vec.numElements);
+		System.arraycopy(vec.storage, 0, storage, numElements, vec.numElements);
+		numElements += vec.numElements;
+	}
+
+	/**
+	 * Set the size of the vector, any entries added to reach the new size are false.
+	 */
+	public void setSize(int size) {
+		if (size < 0)
+			throw new ArrayIndexOutOfBoundsException("Invalid size:" + size);
+
+		if (size > numElements) {
+			ensureCapacity(size);
+			Arrays.fill(storage, numElements, size, false);
+		}
+		numElements = size;
+	}
+
 	/**
 	 * Replaces the element at the specified position in this BooleanVector with the
 	 * specified element. Returns the element that was replaced in the BooleanVector.
@@ -156,7 +185,7 @@ public class BooleanVector {
 	 */
 	public void fillWithEntriesOf(int entries, boolean value) {
 		ensureCapacity(entries);
-		Arrays.fill(storage, value);
+		Arrays.fill(storage, 0, entries, value);
 		numElements = entries;
 	}
 
@@ -16,8 +16,6 @@ package com.sandwell.JavaSimulation;
 
 import java.util.ArrayList;
 
-import com.jaamsim.input.InputAgent;
-
 public class DoubleTableInput extends Input<ArrayList<DoubleVector>> {
 	protected double minValue = Double.NEGATIVE_INFINITY;
 	protected double maxValue = Double.POSITIVE_INFINITY;
@@ -34,10 +32,18 @@ public class DoubleTableInput extends Input<ArrayList<DoubleVector>> {
 
 	@Override
 	public void parse(StringVector input) throws InputErrorException {
-		ArrayList<StringVector> temp = InputAgent.splitStringVectorByBraces(input);
-		ArrayList<DoubleVector> tab = new ArrayList<DoubleVector>(temp.size());
-		for (StringVector each : temp) {
-			DoubleVector vec = Input.parseDoubleVector(each, minValue, maxValue, unitString);
+		ArrayList<DoubleVector> tab = new ArrayList<DoubleVector>();
+		for (int i = 0; i < input.size(); i++) {
+			//skip over opening brace if present
+			if (input.get(i).equals("{"))
+				continue;
+
+			// Parse each row in place, up to the closing brace or the end of the entry
+			int start = i;
+			while (i < input.size() && !input.get(i).equals("}"))
+				i++;
+
+			DoubleVector vec = Input.parseDoubleVector(input, start, i, minValue, maxValue, unitString);
 			if (!Double.isNaN(sumValue))
 				Input.assertSumTolerance(vec, sumValue, 0.001d);
 
@@ -46,6 +46,16 @@ public class DoubleVector {
 		System.arraycopy(original.storage, 0, storage, 0, numElements);
 	}
 
+	/**
+	 * Construct a vector holding the given values, the array is used as the
+	 * storage for the vector without being copied.
+	 */
+	DoubleVector(double[] values) {
+		storage = values;
+		capIncrement = 1;
+		numElements = values.length;
+	}
+
 	/**
 	 * Construct an empty vector with the given initial capacity and capacity
 	 * increment.
@@ -60,13 +70,10 @@ public class DoubleVector {
 		if (storage.length >= newCapacity)
 			return;
 
-		if (storage.length + capIncrement >= newCapacity) {
-			newCapacity = storage.length + capIncrement;
-		}
-
-		double[] copy = new double[newCapacity];
-		System.arraycopy(storage, 0, copy, 0, storage.length);
-		storage = copy;
+		// Grow by at least half the current capacity so that appending n values
+		// copies the storage O(log n) times instead of O(n) times
+		int grow = Math.max(capIncrement, storage.length >> 1);
+		storage = Arrays.copyOf(storage, Math.max(newCapacity, storage.length + grow));
 	}
 
 	/**
@@ -114,6 +121,48 @@ public class DoubleVector {
 		numElements++;
 	}
 
+	/**
+	 * Append the given values to the end of the vector.
+	 */
+	public void addAll(double[] values) {
+		ensureCapacity(numElements + values.length);
+		System.arraycopy(values, 0, storage, numElements, values.length);
+		numElements += values.length;
+	}
+
+	/**
+	 * Append the values in the given vector to the end of this vector.
+	 */
+	public void addAll(DoubleVector vec) {
+		ensureCapacity(numElements + vec.numElements);
+		System.arraycopy(vec.storage, 0, storage, numElements, vec.numElements);
+		numElements += vec.numElements;
+	}
+
+	/**
+	 * Set the size of the vector, any entries added to reach the new size are zero.
+	 */
+	public void setSize(int size) {
+		if (size < 0)
+			throw new ArrayIndexOutOfBoundsException("Invalid size:" + size);
+
+		if (size > numElements) {
+			ensureCapacity(size);
+			Arrays.fill(storage, numElements, size, 0.0d);
+		}
+		numElements = size;
+	}
+
+	/**
+	 * Return a new vector holding the values from start to end - 1.
+	 */
+	public DoubleVector subVector(int start, int end) {
+		if (start < 0 || end > numElements || start > end)
+			throw new ArrayIndexOutOfBoundsException("Invalid range:" + start + " to " + end);
+
+		return new DoubleVector(Arrays.copyOfRange(storage, start, end));
+	}
+
 	/**
 	 * Replaces the element at the specified position in this DoubleVector with the
 	 * specified element. Returns the element that was replaced in the DoubleVector.
@@ -159,14 +208,20 @@ public class DoubleVector {
 	 * Add the specified value to the value at the specified index.
 	 */
 	public void addAt( double value, int index ) {
-		set(index, (get( index ) + value));
+		if (index < 0 || index >= numElements)
+			throw new ArrayIndexOutOfBoundsException("Invalid index:" + index);
+
+		storage[index] += value;
 	}
 
 	/**
 	 * Subtract the specified value from the value at the specified index.
 	 */
 	public void subAt( double value, int index ) {
-		set(index, (get( index ) - value));
+		if (index < 0 || index >= numElements)
+			throw new ArrayIndexOutOfBoundsException("Invalid index:" + index);
+
+		storage[index] -= value;
 	}
 
 	/**
@@ -186,10 +241,7 @@ public class DoubleVector {
 	 */
 	public void set(DoubleVector original) {
 		clear();
-
-		for (int i=0; i<original.size(); i++) {
-			add(original.get(i));
-		}
+		addAll(original);
 	}
 
 	/**
@@ -212,7 +264,7 @@ public class DoubleVector {
 	 */
 	public void fillWithEntriesOf( int entries, double value ) {
 		ensureCapacity(entries);
-		Arrays.fill(storage, value);
+		Arrays.fill(storage, 0, entries, value);
 		numElements = entries;
 	}
 
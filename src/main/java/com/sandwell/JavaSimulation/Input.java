@@ -16,11 +16,13 @@ package com.sandwell.JavaSimulation;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.Parser;
 import com.jaamsim.input.ValueListInput;
 import com.jaamsim.math.Color4d;
 import com.jaamsim.math.Vec3d;
@@ -72,7 +74,11 @@ public abstract class Input<T> {
 	private boolean locked; // indicates if input is locked for this entity
 	private boolean edited; // indicates if input has been edited for this entity
 	private boolean hidden; // Hide this input from the EditBox
-	protected String valueString; // value from .cfg file
+	private String valueString; // value from .cfg file
+	private StringVector valueTokens; // tokens for the value string, formatted when first needed
+
+	// valueString and valueTokens are set while the inputs are applied and read by the user
+	// interface, so they are accessed only while holding the lock on the Input
 
 	public static class ParseContext {
 		public URI context;
@@ -88,11 +94,12 @@ public abstract class Input<T> {
 		edited = false;
 		hidden = false;
 		valueString = "";
+		valueTokens = null;
 	}
 
 	public void reset() {
 		this.setDefaultValue( this.getDefaultValue() );
-		valueString = "";
+		this.setValueString("");
 		edited = false;
 	}
 
@@ -167,12 +174,41 @@ public abstract class Input<T> {
 		return edited;
 	}
 
-	public String getValueString() {
+	public synchronized String getValueString() {
+		if (valueTokens != null) {
+			valueString = Input.getValueString(valueTokens);
+			valueTokens = null;
+		}
 		return valueString;
 	}
 
-	public void setValueString(String str) {
+	public synchronized void setValueString(String str) {
 		valueString = str;
+		valueTokens = null;
+	}
+
+	/**
+	 * Sets the tokens given for the input.  The value string is formatted from the tokens
+	 * the first time it is needed, as most are never displayed.
+	 */
+	public synchronized void setValueTokens(StringVector data) {
+		valueString = null;
+		valueTokens = data;
+	}
+
+	private static String getValueString(StringVector data) {
+		StringBuilder out = new StringBuilder(data.size() * 6);
+		for (int i = 0; i < data.size(); i++) {
+			String dat = data.get(i);
+			if (Parser.needsQuoting(dat) && !dat.equals("{") && !dat.equals("}"))
+				out.append("'").append(dat).append("'");
+			else
+				out.append(dat);
+
+			if( i < data.size() - 1 )
+				out.append("  ");
+		}
+		return out.toString();
 	}
 
 	public abstract void parse(StringVector input) throws InputErrorException;
@@ -696,7 +732,7 @@ public abstract class Input<T> {
 	throws InputErrorException {
 		double temp;
 		try {
-			temp = Double.parseDouble(data) * factor;
+			temp = Parser.parseDouble(data) * factor;
 		}
 		catch (NumberFormatException e) {
 			throw new InputErrorException(INP_ERR_DOUBLE, data);
@@ -723,20 +759,8 @@ public abstract class Input<T> {
 		double conversionFactor = 1.0;
 		if( input.size() == 2 ) {
 
-			// Determine the units
-			Unit unit = Input.parseUnits( input.get(1) );
-
-			// Determine the default units
-			Unit defaultUnit = Input.tryParseEntity( defaultUnitString.replaceAll("[()]", "").trim(), Unit.class );
-			if( defaultUnit == null ) {
-				throw new InputErrorException( "Could not determine default units " + defaultUnitString );
-			}
-
-			if (defaultUnit.getClass() != unit.getClass())
-				throw new InputErrorException( "Cannot convert from %s to %s", defaultUnit.getName(), unit.getName());
-
 			// Determine the conversion factor from units to default units
-			conversionFactor = unit.getConversionFactorToUnit( defaultUnit );
+			conversionFactor = Input.getConversionFactor(input.get(1), defaultUnitString);
 		}
 
 		// Parse and convert the value
@@ -753,17 +777,28 @@ public abstract class Input<T> {
 	 */
 	public static DoubleVector parseDoubleVector(StringVector input, double minValue, double maxValue, double factor)
 	throws InputErrorException {
-		DoubleVector temp = new DoubleVector(input.size());
+		return Input.parseDoubles(input, 0, input.size(), minValue, maxValue, factor, false);
+	}
 
-		for (int i = 0; i < input.size(); i++) {
+	/**
+	 * Convert the tokens from start to end - 1 to doubles and apply the given conversion factor.
+	 * The values are parsed straight into the array used by the returned DoubleVector.
+	 * @param seconds - if true, the tokens may also be given as hh:mm or hh:mm:ss
+	 */
+	private static DoubleVector parseDoubles(List<String> input, int start, int end, double minValue, double maxValue, double factor, boolean seconds)
+	throws InputErrorException {
+		double[] values = new double[end - start];
+		for (int i = start; i < end; i++) {
 			try {
-				double element = Input.parseDouble(input.get(i), minValue, maxValue, factor);
-				temp.add(element);
+				if (seconds)
+					values[i - start] = Input.parseSeconds(input.get(i), minValue, maxValue, factor);
+				else
+					values[i - start] = Input.parseDouble(input.get(i), minValue, maxValue, factor);
 			} catch (InputErrorException e) {
-				throw new InputErrorException(INP_ERR_ELEMENT, i, e.getMessage());
+				throw new InputErrorException(INP_ERR_ELEMENT, i - start, e.getMessage());
 			}
 		}
-		return temp;
+		return new DoubleVector(values);
 	}
 
 	/**
@@ -779,35 +814,60 @@ public abstract class Input<T> {
 
 		// If not a Dimensionless value, a unit is mandatory
 		if (unitType != DimensionlessUnit.class) {
-			Entity ent = Entity.getNamedEntity(input.get(input.size() - 1));
-			if (ent == null)
-				throw new InputErrorException(INP_ERR_NOUNITFOUND, input.get(input.size() - 1), unitType.getSimpleName());
-
-			Unit unit = Input.castEntity(ent, unitType);
-			if (unit == null)
-				throw new InputErrorException(INP_ERR_ENTCLASS, unitType.getSimpleName(), ent.getInputName(), ent.getClass().getSimpleName());
-
-			factor = unit.getConversionFactorToSI();
+			factor = Input.getUnitFactorToSI(input.get(input.size() - 1), unitType);
 			numDoubles = input.size() - 1;
 		}
 
-		DoubleVector temp = new DoubleVector(numDoubles);
-		for (int i = 0; i < numDoubles; i++) {
-			try {
-				// Allow a special syntax for time-based inputs
-				if (unitType == TimeUnit.class) {
-					double element = Input.parseSeconds(input.get(i), minValue, maxValue, factor);
-					temp.add(element);
-				}
-				else {
-					double element = Input.parseDouble(input.get(i), minValue, maxValue, factor);
-					temp.add(element);
-				}
-			} catch (InputErrorException e) {
-				throw new InputErrorException(INP_ERR_ELEMENT, i, e.getMessage());
+		// Allow a special syntax for time-based inputs
+		return Input.parseDoubles(input, 0, numDoubles, minValue, maxValue, factor, unitType == TimeUnit.class);
+	}
+
+	/**
+	 * Returns the factor to convert a value in the given unit to SI.
+	 * @throws InputErrorException if the name is not a unit of the given type
+	 */
+	public static double getUnitFactorToSI(String unitName, Class<? extends Unit> unitType)
+	throws InputErrorException {
+		Entity ent = Entity.getNamedEntity(unitName);
+		if (ent == null)
+			throw new InputErrorException(INP_ERR_NOUNITFOUND, unitName, unitType.getSimpleName());
+
+		Unit unit = Input.castEntity(ent, unitType);
+		if (unit == null)
+			throw new InputErrorException(INP_ERR_ENTCLASS, unitType.getSimpleName(), ent.getInputName(), ent.getClass().getSimpleName());
+
+		return unit.getConversionFactorToSI();
+	}
+
+	/**
+	 * Returns the factor to convert a value in the given unit to the default unit, which may be
+	 * given in parentheses.
+	 */
+	private static double getConversionFactor(String unitString, String defaultUnitString)
+	throws InputErrorException {
+		// Determine the units
+		Unit unit = Input.parseUnits(unitString);
+
+		// Determine the default units
+		String defaultName = defaultUnitString;
+		if (defaultName.indexOf('(') > -1 || defaultName.indexOf(')') > -1) {
+			StringBuilder tmp = new StringBuilder(defaultName.length());
+			for (int i = 0; i < defaultName.length(); i++) {
+				char c = defaultName.charAt(i);
+				if (c != '(' && c != ')')
+					tmp.append(c);
 			}
+			defaultName = tmp.toString();
 		}
-		return temp;
+		Unit defaultUnit = Input.tryParseEntity( defaultName.trim(), Unit.class );
+		if( defaultUnit == null ) {
+			throw new InputErrorException( "Could not determine default units " + defaultUnitString );
+		}
+
+		if (defaultUnit.getClass() != unit.getClass())
+			throw new InputErrorException( "Cannot convert from %s to %s", defaultUnit.getName(), unit.getName());
+
+		return unit.getConversionFactorToUnit( defaultUnit );
 	}
 
 	/**
@@ -815,30 +875,29 @@ public abstract class Input<T> {
 	 */
 	public static DoubleVector parseDoubleVector(StringVector data, double minValue, double maxValue, String defaultUnitString)
 	throws InputErrorException {
-		StringVector numericData = new StringVector(data);
+		return Input.parseDoubleVector(data, 0, data.size(), minValue, maxValue, defaultUnitString);
+	}
+
+	/**
+	 * Convert the tokens from start to end - 1 to a DoubleVector including a unit conversion,
+	 * if necessary.  The unit is looked up once for the list.
+	 */
+	public static DoubleVector parseDoubleVector(List<String> data, int start, int end, double minValue, double maxValue, String defaultUnitString)
+	throws InputErrorException {
+		if (end == start)
+			return new DoubleVector(0);
 
 		// If there is more than one value, and the last one is not a number, then assume it is a unit
 		double conversionFactor = 1.0;
-		String unitString = data.get( data.size()-1 );
-		if( data.size() > 1 && !Tester.isDouble(unitString) ) {
-
-			// Determine the units
-			Unit unit = Input.parseUnits(unitString);
-
-			// Determine the default units
-			Unit defaultUnit = Input.tryParseEntity( defaultUnitString.replaceAll("[()]", "").trim(), Unit.class );
-			if( defaultUnit == null ) {
-				throw new InputErrorException( "Could not determine default units " + defaultUnitString );
-			}
-
-			if (defaultUnit.getClass() != unit.getClass())
-				throw new InputErrorException( "Cannot convert from %s to %s", defaultUnit.getName(), unit.getName());
+		int numericEnd = end;
+		String unitString = data.get(end - 1);
+		if( end - start > 1 && !Parser.isDecimal(unitString) && !Tester.isDouble(unitString) ) {
 
 			// Determine the conversion factor to the default units
-			conversionFactor = unit.getConversionFactorToUnit( defaultUnit );
+			conversionFactor = Input.getConversionFactor(unitString, defaultUnitString);
 
-			// Remove the unit string from the inputs
-			numericData.remove( numericData.size()-1 );
+			// Exclude the unit string from the inputs
+			numericEnd = end - 1;
 		}
 		else {
 			if( defaultUnitString.length() > 0 )
@@ -846,7 +905,7 @@ public abstract class Input<T> {
 		}
 
 		// Parse and convert the values
-		return Input.parseDoubleVector( numericData, minValue, maxValue, conversionFactor);
+		return Input.parseDoubles(data, start, numericEnd, minValue, maxValue, conversionFactor, false);
 	}
 
 	public static Vec3d parseVec3d(StringVector input)
@@ -63,13 +63,10 @@ public class IntegerVector {
 		if (storage.length >= newCapacity)
 			return;
 
-		if (storage.length + capIncrement >= newCapacity) {
-			newCapacity = storage.length + capIncrement;
-		}
-
-		int[] copy = new int[newCapacity];
-		System.arraycopy(storage, 0, copy, 0, storage.length);
-		storage = copy;
+		// Grow by at least half the current capacity so that appending n values
+		// copies the storage O(log n) times instead of O(n) times
+		int grow = Math.max(capIncrement, storage.length >> 1);
+		storage = Arrays.copyOf(storage, Math.max(newCapacity, storage.length + grow));
 	}
 
 	/**
@@ -110,6 +107,38 @@ public class IntegerVector {
 		numElements++;
 	}
 
+	/**
+	 * Append the given values to the end of the vector.
+	 */
+	public void addAll(int[] values) {
+		ensureCapacity(numElements + values.length);
+		System.arraycopy(values, 0, storage, numElements, values.length);
+		numElements += values.length;
+	}
+
+	/**
+	 * Append the values in the given vector to the end of this vector.
+	 */
+	public void addAll(IntegerVector vec) {
+		ensureCapacity(numElements + vec.numElements);
+		System.arraycopy(vec.storage, 0, storage, numElements, vec.numElements);
+		numElements += vec.numElements;
+	}
+
+	/**
+	 * Set the size of the vector, any entries added to reach the new size are 0.
+	 */
+	public void setSize(int size) {
+		if (size < 0)
+			throw new ArrayIndexOutOfBoundsException("Invalid size:" + size);
+
+		if (size > numElements) {
+			ensureCapacity(size);
+			Arrays.fill(storage, numElements, size, 0);
+		}
+		numElements = size;
+	}
+
 	/**
 	 * Set the component at the given index of this vector to be the given
 	 * integer.
@@ -142,14 +171,20 @@ public class IntegerVector {
 	 * Add the specified value to the value at the specified index.
 	 */
 	public void addAt( int value, int index ) {
-		set( index, get( index ) + value );
+		if (index < 0 || index >= numElements)
+			throw new ArrayIndexOutOfBoundsException("Invalid index:" + index);
+
+		storage[index] += value;
 	}
 
 	/**
 	 * Subtract the specified value from the value at the specified index.
 	 */
 	public void subAt( int value, int index ) {
-		set( index, get( index ) - value );
+		if (index < 0 || index >= numElements)
+			throw new ArrayIndexOutOfBoundsException("Invalid index:" + index);
+
+		storage[index] -= value;
 	}
 
 	/**
@@ -172,7 +207,7 @@ public class IntegerVector {
 	 */
 	public void fillWithEntriesOf( int entries, int value ) {
 		ensureCapacity(entries);
-		Arrays.fill(storage, value);
+		Arrays.fill(storage, 0, entries, value);
 		numElements = entries;
 	}
 
@@ -15,10 +15,11 @@
 package com.sandwell.JavaSimulation;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.Keyword;
+import com.jaamsim.rng.AliasTable;
+import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
 
@@ -57,7 +58,9 @@ implements SampleProvider {
 	protected DoubleVector cumValueList; // list of values associated with cumulative probabilities
 	protected Vector cumObjectList; // list of objects associated with cumulative probabilities
 
-	protected Random randomGenerator; // random generator for picking values
+	protected MRG1999a randomGenerator; // random generator for picking values
+	private AliasTable aliasTable; // alias table for selecting from aliasProbs
+	private DoubleVector aliasProbs; // probabilities used to build aliasTable
 
 	@Keyword(description = "An integer greater than or equal to 0 specifying the seed for the random number generator." +
 			        "  If empty or zero, then the values are chosen deterministically and Interpolate must be set to FALSE.",
@@ -105,7 +108,7 @@ implements SampleProvider {
 		cumValueList = new DoubleVector( 1, 1 );
 		cumObjectList = new Vector( 1, 1 );
 
-		randomGenerator = new Random( 2345 );
+		randomGenerator = new MRG1999a();
 		randomSeed = 0;
 		interpolate = false;
 		initialized = false;
@@ -221,14 +224,9 @@ implements SampleProvider {
 	 * Reset the random generator (required for model re-starts)
 	 */
 	public void reset() {
-		randomGenerator = new Random( 2345 );
+		this.seedRandomGenerator();
 
 		if( objectList.size() == 0 ) {
-			// Initialize the random generator
-			if( randomSeed > 0 ) {
-				randomGenerator.setSeed( randomSeed );
-			}
-
 			if( randomSeed == 0 ) {
 				if( interpolate ) {
 					throw new InputErrorException( "Interpolation requires a random seed" );
@@ -243,6 +241,9 @@ implements SampleProvider {
 	@Override
 	public void earlyInit() {
 
+		// Restart the random generator for the present replication
+		this.seedRandomGenerator();
+
 		// If already initialized, just reset the counts
 		if( initialized ) {
 			if( objectList.size() == 0 ) {
@@ -333,6 +334,7 @@ implements SampleProvider {
 		else {
 			counts.fillWithEntriesOf( objectList.size(), 0 );
 		}
+		aliasProbs = null;
 		initialized = true;
 	}
 
@@ -342,6 +344,7 @@ implements SampleProvider {
 
 	public void setProbList( DoubleVector v ) {
 		probList = v;
+		aliasProbs = null;
 	}
 
 	public DoubleVector getCumProbList() {
@@ -366,7 +369,15 @@ implements SampleProvider {
 
 	public void setRandomSeed( int s ) {
 		randomSeed = s;
-		randomGenerator.setSeed( randomSeed );
+		this.seedRandomGenerator();
+	}
+
+	/**
+	 * Seed the random generator with the stream given by the random seed and the substream for the present replication
+	 */
+	private void seedRandomGenerator() {
+		randomGenerator.setSeedStream( randomSeed, Simulation.getReplicationSubstream() );
+		randomGenerator.setAntithetic( Simulation.isAntitheticReplication() );
 	}
 
 	// ******************************************************************************************
@@ -448,7 +459,7 @@ implements SampleProvider {
 	public double selectValueFrom_UsingProbs( DoubleVector binValues, DoubleVector probs ) {
 
 		// Select a random number that is uniformly distributed between 0 and 1.
-		double rand = randomGenerator.nextDouble();
+		double rand = randomGenerator.nextUniform();
 
 		// Should the value be zero?
 		if (rand < (1.0d - nonZeroProb.getValue())) {
@@ -459,17 +470,7 @@ implements SampleProvider {
 			rand = (rand - (1.0d - nonZeroProb.getValue())) / nonZeroProb.getValue();
 		}
 
-		// Compare the random number to the cummulative probabilities calculated from the distribution.
-		double cumProb = 0.0;
-		for( int i = 0; i < probs.size(); i++ ) {
-			cumProb += probs.get( i );
-
-			if( cumProb >= rand ) {
-				return binValues.get( i );
-			}
-		}
-
-		throw new ErrorException( "Probability distribution must sum to 1.0" );
+		return binValues.get( this.getAliasTable( probs ).getIndex( rand ) );
 	}
 
 	/**
@@ -478,19 +479,23 @@ implements SampleProvider {
 	public Object selectObjectFrom_UsingProbs( Vector binValues, DoubleVector probs ) {
 
 		// Select a random number that is uniformly distributed between 0 and 1.
-		double rand = randomGenerator.nextDouble();
+		double rand = randomGenerator.nextUniform();
 
-		// Compare the random number to the cummulative probabilities calculated from the distribution.
-		double cumProb = 0.0;
-		for( int i = 0; i < probs.size(); i++ ) {
-			cumProb += probs.get( i );
+		return binValues.get( this.getAliasTable( probs ).getIndex( rand ) );
+	}
 
-			if( cumProb >= rand ) {
-				return binValues.get( i );
+	/**
+	 * Return the alias table for the given probabilities, building it if the probabilities have changed.
+	 */
+	private AliasTable getAliasTable( DoubleVector probs ) {
+		if( probs != aliasProbs ) {
+			if( Math.abs( probs.sum() - 1.0 ) > 0.001 ) {
+				throw new ErrorException( "Probability distribution must sum to 1.0" );
 			}
+			aliasTable = new AliasTable( probs );
+			aliasProbs = probs;
 		}
-
-		throw new ErrorException( "Probability distribution must sum to 1.0" );
+		return aliasTable;
 	}
 
 	/**
@@ -510,7 +515,7 @@ implements SampleProvider {
 		}
 
 		//  Select a random number from 0 to 1.
-		double rand = randomGenerator.nextDouble();
+		double rand = randomGenerator.nextUniform();
 
 		// Should the value be zero?
 		if (rand < (1.0d - nonZeroProb.getValue())) {
@@ -521,15 +526,16 @@ implements SampleProvider {
 			rand = (rand - (1.0d - nonZeroProb.getValue())) / nonZeroProb.getValue();
 		}
 
-		//  Determine the first bin whose cumulative probability is greater than or equal to the random number
-		int bin = -1;
-		int index = 0;
-		while( bin == -1 ) {
-			if( cumProbs.get( index ) >= rand ) {
-				bin = index;
+		//  Binary search for the first bin whose cumulative probability is greater than or equal to the random number
+		int bin = 0;
+		int high = cumProbs.size() - 1;
+		while( bin < high ) {
+			int mid = (bin + high) >>> 1;
+			if( cumProbs.get( mid ) >= rand ) {
+				high = mid;
 			}
 			else {
-				index += 1;
+				bin = mid + 1;
 			}
 		}
 
@@ -566,6 +572,12 @@ implements SampleProvider {
 		return nextValue() * 3600.0 ;
 	}
 
+	@Override
+	public void fillSamples(double simTime, double[] out, int n) {
+		for (int i = 0; i < n; i++)
+			out[i] = nextValue() * 3600.0;
+	}
+
 	@Override
 	public double getMeanValue(double simTime) {
 		// Assumes all existing ProbabilityDistributions were for time in hours
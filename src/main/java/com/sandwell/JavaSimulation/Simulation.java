@@ -85,6 +85,19 @@ public class Simulation extends Entity {
 	         example = "This is placeholder example text")
 	private static final BooleanInput exitAtStop;
 
+	@Keyword(description = "The replication number for the simulation run, starting at 1.  Each replication " +
+	                "draws its random numbers from a different substream of every random number stream, so " +
+	                "that scenarios run with the same replication number use common random numbers.",
+	         example = "Simulation ReplicationNumber { 2 }")
+	private static final IntegerInput replicationNumber;
+
+	@Keyword(description = "If TRUE, the replications are run in antithetic pairs.  Replications 2k-1 and 2k " +
+	                "use the same random number substreams, with each uniform random number U in replication 2k " +
+	                "replaced by 1 - U.  Samples generated by rejection methods are valid but are not negatively " +
+	                "correlated.",
+	         example = "Simulation AntitheticReplications { TRUE }")
+	private static final BooleanInput antitheticReplications;
+
 	private static double startTime;
 	private static double endTime;
 
@@ -120,6 +133,11 @@ public class Simulation extends Entity {
 
 		exitAtStop = new BooleanInput("ExitAtStop", "Key Inputs", false);
 
+		replicationNumber = new IntegerInput("ReplicationNumber", "Key Inputs", 1);
+		replicationNumber.setValidRange(1, Integer.MAX_VALUE);
+
+		antitheticReplications = new BooleanInput("AntitheticReplications", "Key Inputs", false);
+
 		// Create clock
 		Clock.setStartDate(2000, 1, 1);
 
@@ -147,6 +165,9 @@ public class Simulation extends Entity {
 		this.addInput(realTime, true);
 
 		this.addInput(exitAtStop, true);
+
+		this.addInput(replicationNumber, true);
+		this.addInput(antitheticReplications, true);
 	}
 
 	public Simulation() {}
@@ -185,6 +206,8 @@ public class Simulation extends Entity {
 		realTime.reset();
 		updateRealTime();
 		exitAtStop.reset();
+		replicationNumber.reset();
+		antitheticReplications.reset();
 
 		startDate.reset();
 		startTimeInput.reset();
@@ -390,6 +413,22 @@ public class Simulation extends Entity {
 		return initializationTime.getValue() / 3600.0d;
 	}
 
+	/**
+	 * Returns the substream of each random number stream to be used in the present replication.
+	 */
+	public static int getReplicationSubstream() {
+		if (antitheticReplications.getValue())
+			return (replicationNumber.getValue() - 1) / 2;
+		return replicationNumber.getValue() - 1;
+	}
+
+	/**
+	 * Returns true if the random number generators are to return antithetic values in the present replication.
+	 */
+	public static boolean isAntitheticReplication() {
+		return antitheticReplications.getValue() && replicationNumber.getValue() % 2 == 0;
+	}
+
 	static void updateRealTime() {
 		root.setExecuteRealTime(realTime.getValue(), realTimeFactor.getValue());
 		GUIFrame.instance().updateForRealTime(realTime.getValue(), realTimeFactor.getValue());
@@ -50,6 +50,15 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
             example = "TimeSeries1  CycleTime { 8760.0 h }")
 	private final ValueInput cycleTime;
 
+	@Keyword(description = "A binary time series file, created by TimeSeriesExporter, to be used instead of the Value keyword.  " +
+			"The file is memory-mapped so that very large time series are loaded on demand and are not held in memory.  " +
+			"Its values must be given in SI units.  A file can hold up to 268,435,455 points, which is 2 GB for each of the times and values.",
+	         example = "TimeSeries1  DataFile { 'demand.jts' }")
+	private final FileInput dataFile;
+
+	private TimeSeriesData mappedData;  // time series read from DataFile
+	private int dataVersion;  // incremented when an input changes, so that the cursors on the old data are not used
+
 	{
 		unitType = new UnitTypeInput( "UnitType", "Key Inputs", UserSpecifiedUnit.class );
 		this.addInput( unitType, true );
@@ -61,6 +70,10 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		cycleTime = new ValueInput( "CycleTime", "Key Inputs", Double.POSITIVE_INFINITY );
 		cycleTime.setUnitType(TimeUnit.class);
 		this.addInput( cycleTime, true );
+
+		dataFile = new FileInput( "DataFile", "Key Inputs", null );
+		dataFile.setValidExtensions("jts");
+		this.addInput( dataFile, true );
 	}
 
 	public TimeSeries() { }
@@ -72,11 +85,14 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if( unitType.getValue() == null )
 			throw new InputErrorException( "UnitType must be specified first" );
 
-		if( value.getValue() == null || value.getValue().timeList.length == 0 )
-			throw new InputErrorException( "Time series Value must be specified" );
+		if( this.getData() == null || this.getData().size() == 0 )
+			throw new InputErrorException( "Time series Value or DataFile must be specified" );
 
-		double[] tList = value.getValue().timeList;
-		if (this.getCycleTimeInHours() < tList[tList.length - 1])
+		if( value.getValue() != null && dataFile.getValue() != null )
+			throw new InputErrorException( "Only one of Value and DataFile can be specified" );
+
+		TimeSeriesData data = this.getData();
+		if (this.getCycleTimeInHours() < data.getTime(data.size() - 1))
 			throw new InputErrorException( "CycleTime must be larger than the last time in the series" );
 	}
 
@@ -84,11 +100,30 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput( in );
 
+		// Cursors positioned on the old points or cycle time must search again
+		dataVersion++;
+
 		if (in == unitType) {
 			value.setUnitType( unitType.getUnitType() );
 			this.getOutputHandle("PresentValue").setUnitType( unitType.getUnitType() );
 			return;
 		}
+
+		if (in == dataFile) {
+			mappedData = null;
+			if (dataFile.getValue() != null)
+				mappedData = TimeSeriesFile.read(dataFile.getValue());
+			return;
+		}
+	}
+
+	/**
+	 * Return the points in the time series, from either the Value or DataFile inputs
+	 */
+	private TimeSeriesData getData() {
+		if (mappedData != null)
+			return mappedData;
+		return value.getValue();
 	}
 
 	@Override
@@ -107,20 +142,25 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		return this.getValueForTimeHours(simTime / 3600.0);
 	}
 
+	@Override
+	public void fillSamples(double simTime, double[] out, int n) {
+		Arrays.fill(out, 0, n, this.getNextSample(simTime));
+	}
+
 	/**
 	 * Return the value for the given simulation time in hours
 	 */
 	@Override
 	public double getValueForTimeHours( double time ) {
-		double[] valueList = value.getValue().valueList;
-		return valueList[ getIndexForTimeHours( time ) ];
+		return this.getData().getValue( getIndexForTimeHours( time ) );
 	}
 
 	/**
 	 * Return the index for the given simulation time in hours
 	 */
 	public int getIndexForTimeHours( double time ) {
-		double[] timeList = value.getValue().timeList;
+		TimeSeriesData data = this.getData();
+		int last = data.size() - 1;
 
 		// Determine the time in the cycle for the given time
 		double timeInCycle = time;
@@ -133,12 +173,12 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		}
 
 		// If the time in the cycle is greater than the last time, return the last value
-		if( Tester.greaterOrEqualCheckTimeStep( timeInCycle, timeList[ timeList.length - 1 ] ) ) {
-			return timeList.length - 1;
+		if( Tester.greaterOrEqualCheckTimeStep( timeInCycle, data.getTime( last ) ) ) {
+			return last;
 		}
 		else {
 			// Otherwise, find the index with a binary search
-			int index = Arrays.binarySearch(timeList, timeInCycle);
+			int index = data.binarySearch(timeInCycle);
 
 			// If the returned index is greater or equal to zero,
 			// then an exact match was found
@@ -151,7 +191,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 				// or (insertion index) = -(index+1) = -index-1
 				// If the time at the insertion index is within one tick,
 				// then return it
-				if( Tester.equalCheckTimeStep( timeInCycle, timeList[-index - 1] ) )
+				if( Tester.equalCheckTimeStep( timeInCycle, data.getTime(-index - 1) ) )
 					return -index - 1;
 				else
 					// Otherwise, return the index before the insertion index
@@ -182,9 +222,9 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 			completedCycles++;
 		}
 
-		double[] timeList = value.getValue().timeList;
+		TimeSeriesData data = this.getData();
 		// If this is the last point in the cycle, need to cycle around to get the next point
-		if( startIndex > timeList.length - 1 ) {
+		if( startIndex > data.size() - 1 ) {
 
 			// If the series does not cycle, the value will never change
 			if( cycleTime == Double.POSITIVE_INFINITY ) {
@@ -196,7 +236,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 					cycleOffset = (completedCycles+1)*cycleTime;
 				}
 
-				return timeList[0] + cycleOffset;
+				return data.getTime(0) + cycleOffset;
 			}
 		}
 
@@ -205,7 +245,62 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if( cycleTime != Double.POSITIVE_INFINITY ) {
 			cycleOffset = (completedCycles)*cycleTime;
 		}
-		return timeList[startIndex] + cycleOffset;
+		return data.getTime(startIndex) + cycleOffset;
+	}
+
+	/**
+	 * Positions the cursor at the given simulation time in hours.  For increasing times, the
+	 * cursor is advanced to the following point before falling back to a full search.
+	 */
+	@Override
+	public void seek(TimeSeriesCursor cursor, double time) {
+
+		// The cursor is already at the correct point
+		if( cursor.contains(this, dataVersion, time) )
+			return;
+
+		// Try the next point in the series
+		if( cursor.isPositioned(this, dataVersion) && time >= cursor.nextChangeTime ) {
+			if( cursor.index < this.getData().size() - 1 )
+				this.setCursor(cursor, cursor.index + 1, cursor.cycleStart);
+			else if( cursor.nextChangeTime < Double.POSITIVE_INFINITY )
+				this.setCursor(cursor, 0, cursor.cycleStart + this.getCycleTimeInHours());
+
+			if( cursor.contains(this, dataVersion, time) )
+				return;
+		}
+
+		// Otherwise, search the series for the given time
+		double cycleTime = this.getCycleTimeInHours();
+		double cycleStart = 0.0;
+		if( cycleTime != Double.POSITIVE_INFINITY ) {
+			int completedCycles = (int)Math.floor( time / cycleTime );
+			if( Tester.equalCheckTolerance(time - completedCycles * cycleTime, cycleTime) )
+				completedCycles++;
+			cycleStart = completedCycles * cycleTime;
+		}
+		this.setCursor(cursor, this.getIndexForTimeHours(time), cycleStart);
+		cursor.nextChangeTime = this.getNextChangeTimeAfterHours(time);
+	}
+
+	/**
+	 * Moves the cursor to the given point in the given cycle.
+	 */
+	private void setCursor(TimeSeriesCursor cursor, int index, double cycleStart) {
+		TimeSeriesData data = this.getData();
+		cursor.provider = this;
+		cursor.version = dataVersion;
+		cursor.index = index;
+		cursor.cycleStart = cycleStart;
+		cursor.changeTime = cycleStart + data.getTime(index);
+		cursor.value = data.getValue(index);
+
+		if( index < data.size() - 1 )
+			cursor.nextChangeTime = cycleStart + data.getTime(index + 1);
+		else if( this.getCycleTimeInHours() == Double.POSITIVE_INFINITY )
+			cursor.nextChangeTime = Double.POSITIVE_INFINITY;
+		else
+			cursor.nextChangeTime = cycleStart + this.getCycleTimeInHours() + data.getTime(0);
 	}
 
 	public double getCycleTimeInHours() {
@@ -221,8 +316,8 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if (this.getCycleLength() < Double.POSITIVE_INFINITY)
 			return this.getCycleLength();
 
-		double[] tList = value.getValue().timeList;
-		return tList[ tList.length-1 ] * 3600.0d;
+		TimeSeriesData data = this.getData();
+		return data.getTime( data.size()-1 ) * 3600.0d;
 	}
 
 	@Override
@@ -232,12 +327,12 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 	@Override
 	public double getMaxValue() {
-		return value.getValue().getMaxValue();
+		return this.getData().getMaxValue();
 	}
 
 	@Override
 	public double getMinValue() {
-		return value.getValue().getMinValue();
+		return this.getData().getMinValue();
 	}
 
 	@Override
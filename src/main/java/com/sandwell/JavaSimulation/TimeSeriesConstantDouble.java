@@ -14,6 +14,8 @@
  */
 package com.sandwell.JavaSimulation;
 
+import java.util.Arrays;
+
 import com.jaamsim.units.Unit;
 
 public class TimeSeriesConstantDouble implements TimeSeriesProvider {
@@ -40,6 +42,11 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return val;
 	}
 
+	@Override
+	public void fillSamples(double simTime, double[] out, int n) {
+		Arrays.fill(out, 0, n, val);
+	}
+
 	@Override
 	public double getValueForTimeHours(double simTime) {
 		return val;
@@ -50,6 +57,16 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return Double.POSITIVE_INFINITY;
 	}
 
+	@Override
+	public void seek(TimeSeriesCursor cursor, double simTime) {
+		cursor.provider = this;
+		cursor.index = 0;
+		cursor.cycleStart = 0.0;
+		cursor.changeTime = Double.NEGATIVE_INFINITY;
+		cursor.nextChangeTime = Double.POSITIVE_INFINITY;
+		cursor.value = val;
+	}
+
 	@Override
 	public double getMaxValue() {
 		return val;
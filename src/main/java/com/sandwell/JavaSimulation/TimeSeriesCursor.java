@@ -0,0 +1,69 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2013 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import com.jaamsim.events.Process;
+
+/**
+ * Remembers the position of a consumer within a TimeSeriesProvider.  Once positioned, the cursor
+ * holds the value at the given time together with the time at which the value next changes.
+ * Successive lookups at increasing times are resolved by advancing the cursor instead of
+ * searching the entire series.
+ */
+public class TimeSeriesCursor {
+	TimeSeriesProvider provider;  // The time series for which the cursor was last positioned
+	int version;  // Data version of the time series when the cursor was last positioned
+	int index;  // Index of the present point in the time series
+	double cycleStart;  // Time in hours at which the present cycle started
+	double changeTime;  // Time in hours at which the present value took effect
+	double nextChangeTime;  // Time in hours at which the value will next change
+	double value;  // Value of the time series at the present point
+
+	public TimeSeriesCursor() {
+		provider = null;
+	}
+
+	/**
+	 * Returns true if the cursor is positioned on the given version of the given time series.
+	 */
+	boolean isPositioned(TimeSeriesProvider ts, int ver) {
+		return provider == ts && version == ver;
+	}
+
+	/**
+	 * Returns true if the cursor is already positioned on the correct point of the given version
+	 * of the time series for the given time.  Times within one clock tick of a change are
+	 * excluded so that the result always agrees with a full search.
+	 */
+	boolean contains(TimeSeriesProvider ts, int ver, double time) {
+		double tol = Process.getEventTolerance();
+		return this.isPositioned(ts, ver) && time > changeTime + tol && time < nextChangeTime - tol;
+	}
+
+	/**
+	 * Returns the value of the time series at the time for which the cursor was last positioned.
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the time in hours at which the value will next change, after the time for which
+	 * the cursor was last positioned.
+	 */
+	public double getNextChangeTime() {
+		return nextChangeTime;
+	}
+}
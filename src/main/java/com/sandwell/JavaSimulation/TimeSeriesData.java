@@ -14,25 +14,104 @@
  */
 package com.sandwell.JavaSimulation;
 
+import java.nio.DoubleBuffer;
+
+/**
+ * The points in a time series, stored as a column of times in hours and a column of values.
+ * The columns are either held on the heap, or are views of a memory-mapped TimeSeriesFile so
+ * that only the parts of a large series that are used are paged into memory.
+ */
 public class TimeSeriesData {
-	final double[] timeList;
-	final double[] valueList;
-	private double maxValue;  // The maximum value that occurs in valueList
-	private double minValue;  // The minimum value that occurs in valueList
+	private final DoubleBuffer timeList;
+	private final DoubleBuffer valueList;
+	private final int size;
+	private final double maxValue;  // The maximum value that occurs in valueList
+	private final double minValue;  // The minimum value that occurs in valueList
 
 	public TimeSeriesData( DoubleVector times, DoubleVector values ) {
-		timeList = new double[times.size()];
-		for (int i = 0; i < times.size(); i++)
-			timeList[i] = times.get(i);
+		size = times.size();
+		double[] tList = new double[size];
+		for (int i = 0; i < size; i++)
+			tList[i] = times.get(i);
 
-		valueList = new double[values.size()];
-		maxValue = Double.NEGATIVE_INFINITY;
-		minValue = Double.POSITIVE_INFINITY;
+		double[] vList = new double[values.size()];
+		double max = Double.NEGATIVE_INFINITY;
+		double min = Double.POSITIVE_INFINITY;
 		for (int i = 0; i < values.size(); i++) {
-			valueList[i] = values.get(i);
-			maxValue = Math.max(maxValue, valueList[i]);
-			minValue = Math.min(minValue, valueList[i]);
+			vList[i] = values.get(i);
+			max = Math.max(max, vList[i]);
+			min = Math.min(min, vList[i]);
+		}
+
+		timeList = DoubleBuffer.wrap(tList);
+		valueList = DoubleBuffer.wrap(vList);
+		maxValue = max;
+		minValue = min;
+	}
+
+	/**
+	 * Creates the time series from the first size entries of the given arrays, which are used
+	 * as the columns without being copied.
+	 */
+	TimeSeriesData( double[] times, double[] values, int size ) {
+		this.size = size;
+		double max = Double.NEGATIVE_INFINITY;
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, values[i]);
+			min = Math.min(min, values[i]);
+		}
+
+		timeList = DoubleBuffer.wrap(times, 0, size);
+		valueList = DoubleBuffer.wrap(values, 0, size);
+		maxValue = max;
+		minValue = min;
+	}
+
+	/**
+	 * Creates the time series from existing columns, such as the views of a memory-mapped file.
+	 */
+	TimeSeriesData( DoubleBuffer times, DoubleBuffer values, double min, double max ) {
+		size = times.limit();
+		timeList = times;
+		valueList = values;
+		maxValue = max;
+		minValue = min;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the time in hours for the given point.
+	 */
+	public double getTime(int index) {
+		return timeList.get(index);
+	}
+
+	public double getValue(int index) {
+		return valueList.get(index);
+	}
+
+	/**
+	 * Searches the times for the given time in hours, following the conventions of
+	 * Arrays.binarySearch.
+	 */
+	public int binarySearch(double time) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			double midTime = timeList.get(mid);
+			if (midTime < time)
+				low = mid + 1;
+			else if (midTime > time)
+				high = mid - 1;
+			else
+				return mid;
 		}
+		return -(low + 1);
 	}
 
 	public double getMaxValue() {
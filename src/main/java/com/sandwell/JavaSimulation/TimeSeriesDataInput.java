@@ -15,6 +15,7 @@
 package com.sandwell.JavaSimulation;
 
 import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
 
@@ -38,36 +39,38 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 		long startingYearOffset = -1;
 		long lastTime = -1;
 
-		DoubleVector times = new DoubleVector(input.size()/4);
-		DoubleVector values = new DoubleVector(input.size()/4);
+		// Each record has at least four tokens including the braces
+		double[] times = new double[input.size()/4 + 1];
+		double[] values = new double[input.size()/4 + 1];
+		int numRecords = 0;
+
+		// The unit is normally the same for every record, so it is only looked up when it changes
+		String lastUnit = null;
+		double lastFactor = 1.0d;
 
 		// Determine records in the time series
 		// Records have form: (e.g.) yyyy-MM-dd HH:mm value units
 		// where units are optional
-		StringVector each = new StringVector();
 		for (int i=0; i < input.size(); i++) {
 
 			//skip over opening brace if present
 			if (input.get(i).equals("{") )
 				continue;
 
-			each.clear();
-
-			// Load one record into 'each' containing an individual timeseries record
-			for (int j = i; j < input.size(); j++, i++){
-				if (input.get(j).equals("}"))
-					break;
-
-				each.add(input.get(j));
-			}
+			// Find the individual timeseries record, which is parsed in place
+			int start = i;
+			while (i < input.size() && !input.get(i).equals("}"))
+				i++;
 
 			// Check the number of entries in the record
-			Input.assertCountRange(each, 2, 3);
+			int count = i - start;
+			if (count < 2 || count > 3)
+				throw new InputErrorException(INP_ERR_RANGECOUNT, 2, 3, input.subList(start, i).toString());
 
-			long recordus = Input.parseRFC8601DateTime(each.get(0));
+			long recordus = Input.parseRFC8601DateTime(input.get(start));
 			// Make sure the times are in increasing order
 			if (recordus <= lastTime)
-				throw new InputErrorException( "The times must be given in increasing order on " + each.get(0));
+				throw new InputErrorException( "The times must be given in increasing order on " + input.get(start));
 
 			lastTime = recordus;
 
@@ -79,15 +82,45 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 
 			long usOffset = recordus - startingYearOffset;
 
-			each.remove(0);  // We've finished parsing the date at this point
-			DoubleVector v = Input.parseDoubles(each, minValue, maxValue, unitType);
+			// If not a Dimensionless value, the last token is the unit
+			int valueEnd = i;
+			double factor = 1.0d;
+			if (unitType != DimensionlessUnit.class) {
+				String unitName = input.get(i - 1);
+				if (!unitName.equals(lastUnit)) {
+					lastFactor = Input.getUnitFactorToSI(unitName, unitType);
+					lastUnit = unitName;
+				}
+				factor = lastFactor;
+				valueEnd--;
+			}
+			if (valueEnd == start + 1)
+				throw new InputErrorException(INP_ERR_RANGECOUNT, 2, 3, input.subList(start, i).toString());
+
+			double val = 0.0d;
+			for (int j = start + 1; j < valueEnd; j++) {
+				try {
+					double element;
+					if (unitType == TimeUnit.class)
+						element = Input.parseSeconds(input.get(j), minValue, maxValue, factor);
+					else
+						element = Input.parseDouble(input.get(j), minValue, maxValue, factor);
+
+					if (j == start + 1)
+						val = element;
+				}
+				catch (InputErrorException e) {
+					throw new InputErrorException(INP_ERR_ELEMENT, j - start - 1, e.getMessage());
+				}
+			}
 
-			times.add(usOffset / 3.6e9d); // convert to hours 3600 secs * 1e6 us
-			values.add(v.get(0));
+			times[numRecords] = usOffset / 3.6e9d; // convert to hours 3600 secs * 1e6 us
+			values[numRecords] = val;
+			numRecords++;
 		}
 
 		// Set the value to a new time series data object
-		value = new TimeSeriesData( times, values );
+		value = new TimeSeriesData(times, values, numRecords);
 	}
 
 	public void setUnitType(Class<? extends Unit> u) {
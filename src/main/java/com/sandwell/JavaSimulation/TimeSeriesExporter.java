@@ -0,0 +1,53 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+/**
+ * Converts a time series from CSV or configuration file text to the binary format read by the
+ * DataFile keyword of TimeSeries.
+ */
+public class TimeSeriesExporter {
+
+	public static void main(String[] args) {
+		if (args.length < 2 || args.length > 3) {
+			System.out.println("Usage: TimeSeriesExporter [csv-input-filename] [jts-binary-output-filename] [optional-factor-to-SI]");
+			return;
+		}
+
+		try {
+			double factor = 1.0d;
+			if (args.length == 3)
+				factor = Double.parseDouble(args[2]);
+
+			BufferedReader reader = new BufferedReader(new FileReader(args[0]));
+			TimeSeriesData data;
+			try {
+				data = TimeSeriesFile.parseRecords(reader, factor);
+			}
+			finally {
+				reader.close();
+			}
+			TimeSeriesFile.write(new File(args[1]), data);
+			System.out.format("Wrote %d points to %s%n", data.size(), args[1]);
+		}
+		catch (Exception ex) {
+			System.out.println("Unable to convert the time series: " + ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes time series in a binary, columnar file format.
+ * <p>
+ * The file consists of a 32 byte header followed by the column of times in hours and then the
+ * column of values in SI units, each stored as big-endian doubles.  The header holds the
+ * identifier "JSTS", the format version, the number of points, and the minimum and maximum
+ * values.  Files are read through a memory-mapped FileChannel, so the points remain off the heap
+ * and are paged in by the operating system as they are used.  Each column is mapped separately
+ * and a mapping is limited to 2 GB, so a file can hold at most MAX_POINTS points.
+ */
+public class TimeSeriesFile {
+	private static final int MAGIC = 0x4A535453;  // "JSTS"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	public static final int MAX_POINTS = Integer.MAX_VALUE / 8;  // largest column that can be mapped
+
+	/**
+	 * Maps the given time series file into memory.
+	 */
+	public static TimeSeriesData read(URI uri) throws InputErrorException {
+		if (!"file".equals(uri.getScheme()))
+			throw new InputErrorException("Time series data files must be on the local file system: %s", uri);
+
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+			long length = channel.size();
+			if (length < HEADER_SIZE)
+				throw new InputErrorException("Time series data file is truncated or empty: %s", uri);
+
+			// The mappings remain valid after the channel is closed
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt(0) != MAGIC)
+				throw new InputErrorException("Not a time series data file: %s", uri);
+			if (header.getInt(4) != VERSION)
+				throw new InputErrorException("Unsupported time series data file version %d: %s", header.getInt(4), uri);
+
+			long count = header.getLong(8);
+			if (count <= 0 || count != (length - HEADER_SIZE) / 16 || (length - HEADER_SIZE) % 16 != 0)
+				throw new InputErrorException("Time series data file is truncated or empty: %s", uri);
+			if (count > MAX_POINTS)
+				throw new InputErrorException("Time series data file has more than %d points: %s", MAX_POINTS, uri);
+
+			double min = header.getDouble(16);
+			double max = header.getDouble(24);
+			long size = 8 * count;
+
+			DoubleBuffer times = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size).asDoubleBuffer();
+			DoubleBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + size, size).asDoubleBuffer();
+			return new TimeSeriesData(times, values, min, max);
+		}
+		catch (IOException e) {
+			throw new InputErrorException("Unable to read time series data file %s: %s", uri, e.getMessage());
+		}
+		finally {
+			if (channel != null) {
+				try { channel.close(); }
+				catch (IOException e) {}
+			}
+		}
+	}
+
+	/**
+	 * Writes the given time series to a file.
+	 */
+	public static void write(File file, TimeSeriesData data) throws IOException {
+		if (data.size() > MAX_POINTS)
+			throw new IOException(String.format("A time series data file can hold at most %d points", MAX_POINTS));
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(data.size());
+			out.writeDouble(data.getMinValue());
+			out.writeDouble(data.getMaxValue());
+			for (int i = 0; i < data.size(); i++)
+				out.writeDouble(data.getTime(i));
+			for (int i = 0; i < data.size(); i++)
+				out.writeDouble(data.getValue(i));
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads time series records from CSV or configuration file text.  Each line contains one
+	 * record of the form "YYYY-MM-DD hh:mm:ss, value" or { 'YYYY-MM-DD hh:mm:ss' value }.
+	 * Blank lines and lines starting with '#' are ignored.  The values are multiplied by the
+	 * given factor to convert them to SI units.
+	 */
+	public static TimeSeriesData parseRecords(BufferedReader reader, double factor)
+	throws IOException, InputErrorException {
+		long startingYearOffset = -1;
+		long lastTime = -1;
+		DoubleVector times = new DoubleVector();
+		DoubleVector values = new DoubleVector();
+
+		int lineNum = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNum++;
+			line = line.replace('{', ' ').replace('}', ' ').trim();
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+
+			// Separate the date and time from the value
+			String date;
+			String val;
+			int quote = line.indexOf('\'');
+			if (quote >= 0) {
+				int end = line.indexOf('\'', quote + 1);
+				if (end < 0)
+					throw new InputErrorException("Unterminated date on line %d: %s", lineNum, line);
+				date = line.substring(quote + 1, end);
+				val = line.substring(end + 1);
+			}
+			else {
+				int comma = line.lastIndexOf(',');
+				if (comma < 0)
+					throw new InputErrorException("Expected a date and a value on line %d: %s", lineNum, line);
+				date = line.substring(0, comma);
+				val = line.substring(comma + 1);
+			}
+
+			long recordus = Input.parseRFC8601DateTime(date.trim());
+			if (recordus <= lastTime)
+				throw new InputErrorException("The times must be given in increasing order on line %d: %s", lineNum, line);
+			lastTime = recordus;
+
+			// set the offset to the number of whole years from the first record
+			if (startingYearOffset == -1) {
+				startingYearOffset = recordus / Input.usPerYr;
+				startingYearOffset *= Input.usPerYr;
+			}
+
+			try {
+				values.add(Double.parseDouble(val.trim()) * factor);
+			}
+			catch (NumberFormatException e) {
+				throw new InputErrorException("Expected a numeric value on line %d: %s", lineNum, line);
+			}
+			times.add((recordus - startingYearOffset) / 3.6e9d);
+		}
+
+		if (times.size() == 0)
+			throw new InputErrorException("No time series records were found");
+
+		return new TimeSeriesData(times, values);
+	}
+}
@@ -20,4 +20,10 @@ public interface TimeSeriesProvider extends SampleProvider {
 	public double getValueForTimeHours(double simTime);
 	public double getNextChangeTimeAfterHours( double simTime );
 	public double getMaxTimeValue();
+
+	/**
+	 * Positions the cursor at the given time in hours, so that it holds both the value at that
+	 * time and the time at which the value next changes.
+	 */
+	public void seek(TimeSeriesCursor cursor, double simTime);
 }
@@ -366,7 +366,38 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 		} );
 		fileMenu.add( configMenuItem );
 
-		// 3) "Save" menu item
+		// 3) "Reload" menu item
+		JMenuItem reloadMenuItem = new JMenuItem( "Reload" );
+		reloadMenuItem.setMnemonic( 'R' );
+		reloadMenuItem.addActionListener( new ActionListener() {
+
+			@Override
+			public void actionPerformed( ActionEvent event ) {
+				if (InputAgent.getConfigFile() == null)
+					return;
+
+				Simulation.pause();
+
+				// check for unsaved changes
+				if (InputAgent.isSessionEdited()) {
+
+					int userOption = JOptionPane.showConfirmDialog( null,
+							"Reloading the simulation will discard any changes that have not been saved.\n" +
+							"Do you wish to continue reloading the simulation?",
+							"Confirm Reload",
+							JOptionPane.YES_OPTION,
+							JOptionPane.WARNING_MESSAGE );
+
+					if (userOption == JOptionPane.NO_OPTION) {
+						return;
+					}
+				}
+				InputAgent.reload(GUIFrame.this);
+			}
+		} );
+		fileMenu.add( reloadMenuItem );
+
+		// 4) "Save" menu item
 		saveConfigurationMenuItem = new JMenuItem( "Save" );
 		saveConfigurationMenuItem.setMnemonic( 'S' );
 		saveConfigurationMenuItem.addActionListener( new ActionListener() {
@@ -378,7 +409,7 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 		} );
 		fileMenu.add( saveConfigurationMenuItem );
 
-		// 4) "Save As..." menu item
+		// 5) "Save As..." menu item
 		JMenuItem saveConfigurationAsMenuItem = new JMenuItem( "Save As..." );
 		saveConfigurationAsMenuItem.setMnemonic( 'V' );
 		saveConfigurationAsMenuItem.addActionListener( new ActionListener() {
@@ -402,7 +433,7 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 		} );
 		fileMenu.add( printInputItem );
 
-		// 5) "Exit" menu item
+		// 6) "Exit" menu item
 		JMenuItem exitMenuItem = new JMenuItem( "Exit" );
 		exitMenuItem.setMnemonic( 'x' );
 		exitMenuItem.addActionListener(new CloseListener());
@@ -1416,6 +1447,7 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 		boolean batch = false;
 		boolean minimize = false;
 		boolean quiet = false;
+		boolean cache = false;
 
 		for (String each : args) {
 			// Batch mode
@@ -1447,6 +1479,12 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 				SAFE_GRAPHICS = true;
 				continue;
 			}
+			// Cache the tokenized configuration files in ~/.jaamsim/cache, off by default
+			if (each.equalsIgnoreCase("-c") ||
+					each.equalsIgnoreCase("-cache")) {
+				cache = true;
+				continue;
+			}
 			// Not a program directive, add to list of config files
 			configFiles.add(each);
 		}
@@ -1489,6 +1527,9 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 		if (batch)
 			InputAgent.setBatch(true);
 
+		if (cache)
+			InputAgent.setConfigCache(new File(System.getProperty("user.home"), ".jaamsim/cache"));
+
 		if (minimize)
 			gui.setExtendedState(JFrame.ICONIFIED);
 
@@ -28,6 +28,7 @@ import com.sandwell.JavaSimulation.ColorListInput;
 import com.sandwell.JavaSimulation.ColourInput;
 import com.sandwell.JavaSimulation.DoubleListInput;
 import com.sandwell.JavaSimulation.DoubleVector;
+import com.sandwell.JavaSimulation.ErrorException;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation.IntegerInput;
@@ -371,7 +372,13 @@ public class Graph extends GraphBasics  {
 	 * @return double
 	 */
 	protected double getCurrentValue(double simTime, SeriesInfo info) {
-		return info.out.getValueAsDouble(simTime, 0.0);
+		try {
+			return info.out.getValueAsDouble(simTime, 0.0);
+		}
+		catch (RuntimeException e) {
+			throw new ErrorException("Graph %s could not read the output %s for %s: %s",
+			                         this.getInputName(), info.out.getName(), info.out.ent.getInputName(), e);
+		}
 	}
 
 	public ArrayList<SeriesInfo> getPrimarySeries() {
@@ -15,6 +15,7 @@
 package com.sandwell.JavaSimulation3D;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
@@ -117,6 +118,30 @@ public class Queue extends DisplayEntity {
 		this.add(itemList.size(), perf);
 	}
 
+	/**
+	 * Add a list of entities to the end of the queue.
+	 * The statistics are updated once for the whole list.
+	 */
+	public void addAll( List<DisplayEntity> entList ) {
+		if( entList.isEmpty() )
+			return;
+
+		this.updateStatistics();  // update the queue length distribution
+		double simTime = this.getSimTime();
+		itemList.addAll( entList );
+		for( int i = 0; i < entList.size(); i++ ) {
+			timeAddedList.add( simTime );
+		}
+		this.updateStatistics();  // update the min and max queue length
+		numberAdded += entList.size();
+
+		for( QueueRecorder rec : recorderList ) {
+			for( DisplayEntity perf : entList ) {
+				rec.add( perf, this );
+			}
+		}
+	}
+
 	/**
 	 * Removes the entity at the specified position in the queue
 	 */
@@ -158,6 +183,30 @@ public class Queue extends DisplayEntity {
 		return this.remove(0);
 	}
 
+	/**
+	 * Removes the first n entities from the queue and returns them in queue order.
+	 * The statistics are updated once for the whole list.
+	 */
+	public ArrayList<DisplayEntity> removeFirst( int n ) {
+		if( n < 0 || n > itemList.size() )
+			throw new ErrorException( " Index is beyond the end of the queue. " );
+
+		this.updateStatistics();  // update the queue length distribution
+		List<DisplayEntity> head = itemList.subList(0, n);
+		ArrayList<DisplayEntity> out = new ArrayList<DisplayEntity>(head);
+		head.clear();
+		timeAddedList.subList(0, n).clear();
+		this.updateStatistics();  // update the min and max queue length
+		numberRemoved += n;
+
+		for( QueueRecorder rec : recorderList ) {
+			for( DisplayEntity perf : out ) {
+				rec.remove( perf, this );
+			}
+		}
+		return out;
+	}
+
 	/**
 	 * Removes the last entity from the queue
 	 */
@@ -286,10 +335,8 @@ public class Queue extends DisplayEntity {
 		maxElements = Math.max(queueSize, maxElements);
 
 		// Add the necessary number of additional bins to the queue length distribution
-		int n = queueSize + 1 - queueLengthDist.size();
-		for( int i=0; i<n; i++ ) {
-			queueLengthDist.add(0.0);
-		}
+		if (queueLengthDist.size() <= queueSize)
+			queueLengthDist.setSize(queueSize + 1);
 
 		double simTime = this.getSimTime();
 		double dt = simTime - timeOfLastUpdate;
@@ -34,12 +34,19 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.math.TestMat4d.class,
 	com.jaamsim.math.TestInterners.class,
 	com.jaamsim.rng.TestMRG1999a.class,
+	com.jaamsim.rng.TestAliasTable.class,
 	com.jaamsim.video.vp8.TestBoolEncoder.class,
 	com.jaamsim.video.vp8.TestTransforms.class,
 	com.jaamsim.video.vp8.TestYUV.class,
 	com.jaamsim.input.TestKeyedVec3dCurve.class,
 	com.jaamsim.input.TestParser.class,
+	com.jaamsim.input.TestConfigCache.class,
+	com.jaamsim.input.TestConfigFileReader.class,
+	com.jaamsim.input.TestConfigReload.class,
 	com.jaamsim.input.TestOutput.class,
+	com.jaamsim.BasicObjects.TestOutputRecordWriter.class,
+	com.jaamsim.Thresholds.TestTimeSeriesThreshold.class,
+	com.jaamsim.CalculationObjects.TestAdaptiveSampling.class,
 	com.jaamsim.probability.TestContinuousDistribution.class,
 	com.jaamsim.probability.TestDiscreteDistribution.class,
 	com.jaamsim.probability.TestErlangDistribution.class,
@@ -49,11 +56,18 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.probability.TestLogNormalDistribution.class,
 	com.jaamsim.probability.TestNormalDistribution.class,
 	com.jaamsim.probability.TestTriangularDistribution.class,
+	com.jaamsim.probability.TestTruncatedDistribution.class,
 	com.jaamsim.probability.TestUniformDistribution.class,
 	com.jaamsim.probability.TestWeibullDistribution.class,
+	com.jaamsim.probability.TestFillSamples.class,
 	com.jaamsim.probability.TestEntitlementSelector.class,
 	com.jaamsim.probability.TestRandomSelector.class,
+	com.jaamsim.probability.TestReplicationStreams.class,
 	com.jaamsim.MeshFiles.TestVertexMap.class,
 	com.jaamsim.MeshFiles.TestDataBlocks.class,
+	com.sandwell.JavaSimulation.TestTimeSeriesCursor.class,
+	com.sandwell.JavaSimulation.TestTimeSeriesFile.class,
+	com.sandwell.JavaSimulation.TestVectors.class,
+	com.jaamsim.FluidObjects.TestFluidNetwork.class,
 })
 public class AllTests {}
@@ -0,0 +1,99 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class TestOutputRecordWriter {
+
+@Test
+public void testWriteBlocks() throws IOException {
+	File file = File.createTempFile("record", ".rec");
+	File csvFile = File.createTempFile("record", ".csv");
+	file.deleteOnExit();
+	csvFile.deleteOnExit();
+
+	String[] names = { "SimTime", "Queue1.QueueLength", "Queue1.AverageQueueTime" };
+	String[] units = { "s", "", "s" };
+	OutputRecordWriter writer = new OutputRecordWriter(file, csvFile, names, units, 4);
+
+	// Ten rows are written as two full blocks and a partial block
+	OutputRecordWriter.Block block = writer.getBlock();
+	for (int i = 0; i < 10; i++) {
+		if (block == null)
+			block = writer.getBlock();
+		block.columns[0][block.numRows] = i * 60.0d;
+		block.columns[1][block.numRows] = i % 3;
+		block.columns[2][block.numRows] = i * 0.5d;
+		block.numRows++;
+		if (block.isFull()) {
+			writer.write(block);
+			block = null;
+		}
+	}
+	writer.close(block);
+
+	DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+	try {
+		assertTrue(in.readInt() == OutputRecordWriter.MAGIC);
+		assertTrue(in.readInt() == OutputRecordWriter.VERSION);
+		assertTrue(in.readInt() == 3);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(in.readUTF().equals(names[i]));
+			assertTrue(in.readUTF().equals(units[i]));
+		}
+
+		int row = 0;
+		int[] blockRows = { 4, 4, 2, 0 };
+		for (int numRows : blockRows) {
+			assertTrue(in.readInt() == numRows);
+			for (int i = 0; i < numRows; i++)
+				assertTrue(in.readDouble() == (row + i) * 60.0d);
+			for (int i = 0; i < numRows; i++)
+				assertTrue(in.readDouble() == (row + i) % 3);
+			for (int i = 0; i < numRows; i++)
+				assertTrue(in.readDouble() == (row + i) * 0.5d);
+			row += numRows;
+		}
+		assertTrue(in.read() == -1);
+	}
+	finally {
+		in.close();
+	}
+
+	BufferedReader csv = new BufferedReader(new FileReader(csvFile));
+	try {
+		assertTrue(csv.readLine().equals("SimTime (s),Queue1.QueueLength,Queue1.AverageQueueTime (s)"));
+		assertTrue(csv.readLine().equals("0.0,0.0,0.0"));
+		assertTrue(csv.readLine().equals("60.0,1.0,0.5"));
+		for (int i = 2; i < 10; i++)
+			assertTrue(csv.readLine() != null);
+		assertTrue(csv.readLine() == null);
+	}
+	finally {
+		csv.close();
+	}
+}
+}
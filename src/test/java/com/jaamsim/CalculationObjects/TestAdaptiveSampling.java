@@ -0,0 +1,242 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.CalculationObjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.Samples.SampleProvider;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.TimeUnit;
+import com.jaamsim.units.Unit;
+import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.Entity;
+
+public class TestAdaptiveSampling {
+
+	/**
+	 * An input whose value is Value + Slope * simulation time in seconds.
+	 */
+	public static class Ramp extends Entity implements SampleProvider {
+		double value = 0.0d;
+		double slope = 1.0d;
+
+		@Override
+		public Class<? extends Unit> getUnitType() {
+			return UserSpecifiedUnit.class;
+		}
+
+		@Override
+		public double getNextSample(double simTime) {
+			return value + slope * simTime;
+		}
+
+		@Override
+		public void fillSamples(double simTime, double[] out, int n) {
+			for (int i = 0; i < n; i++)
+				out[i] = this.getNextSample(simTime);
+		}
+
+		@Override
+		public double getMeanValue(double simTime) {
+			return this.getNextSample(simTime);
+		}
+
+		@Override
+		public double getMinValue() {
+			return Double.NEGATIVE_INFINITY;
+		}
+
+		@Override
+		public double getMaxValue() {
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	private final ArrayList<Entity> entities = new ArrayList<Entity>();
+
+	@Before
+	public void defineUnits() {
+		// The seconds unit is normally defined by the autoload file
+		if (Entity.getNamedEntity("s") == null)
+			InputAgent.defineEntity(TimeUnit.class, "s", false);
+	}
+
+	@After
+	public void killEntities() {
+		for (Entity ent : entities)
+			ent.kill();
+		entities.clear();
+	}
+
+	private Ramp defineConstant(double value) {
+		Ramp ramp = define(Ramp.class, "Constant");
+		ramp.value = value;
+		ramp.slope = 0.0d;
+		return ramp;
+	}
+
+	private <T extends Entity> T define(Class<T> klass, String name) {
+		T ent = InputAgent.defineEntityWithUniqueName(klass, name, false);
+		entities.add(ent);
+		return ent;
+	}
+
+	private Controller defineController(boolean adaptive) {
+		Controller cont = define(Controller.class, "Controller");
+		InputAgent.processEntity_Keyword_Value(cont, "SamplingTime", "1 s");
+		InputAgent.processEntity_Keyword_Value(cont, "MinSamplingTime", "0.001 s");
+		InputAgent.processEntity_Keyword_Value(cont, "Tolerance", "1.0e-4");
+		InputAgent.processEntity_Keyword_Value(cont, "AdaptiveSampling", adaptive ? "TRUE" : "FALSE");
+		return cont;
+	}
+
+	private Integrator defineIntegrator(Controller cont, String input) {
+		Integrator integ = define(Integrator.class, "Integrator");
+		InputAgent.processEntity_Keyword_Value(integ, "Controller", cont.getInputName());
+		InputAgent.processEntity_Keyword_Value(integ, "InputValue", input);
+		return integ;
+	}
+
+	private Lag defineLag(Controller cont, String input) {
+		Lag lag = define(Lag.class, "Lag");
+		InputAgent.processEntity_Keyword_Value(lag, "Controller", cont.getInputName());
+		InputAgent.processEntity_Keyword_Value(lag, "InputValue", input);
+		InputAgent.processEntity_Keyword_Value(lag, "LagTime", "1 s");
+		return lag;
+	}
+
+	private void earlyInit() {
+		for (Entity ent : entities)
+			ent.earlyInit();
+	}
+
+	/**
+	 * Performs the updates for the given number of steps of the given length, in the order
+	 * used by the controller.
+	 */
+	private static void run(Controller cont, double dt, int n) {
+		for (int i = 1; i <= n; i++) {
+			for (CalculationEntity ent : Entity.getClonesOfIterator(CalculationEntity.class)) {
+				if (ent.getController() == cont)
+					ent.updateValue(i * dt);
+			}
+		}
+	}
+
+	@Test
+	public void testIntegratorFixedStep() {
+		Ramp ramp = define(Ramp.class, "Ramp");
+		Controller cont = defineController(false);
+		Integrator integ = defineIntegrator(cont, ramp.getInputName());
+		earlyInit();
+
+		// The rectangular rule is used, as it was before adaptive sampling was introduced
+		run(cont, 0.1d, 10);
+		assertEquals(0.55d, integ.getValue(), 1.0e-12d);
+	}
+
+	@Test
+	public void testIntegratorAdaptive() {
+		Ramp ramp = define(Ramp.class, "Ramp");
+		Controller cont = defineController(true);
+		Integrator integ = defineIntegrator(cont, ramp.getInputName());
+		earlyInit();
+
+		// The trapezoidal rule is exact for a ramp input, including the first step
+		run(cont, 0.1d, 10);
+		assertEquals(0.5d, integ.getValue(), 1.0e-12d);
+
+		run(cont, 0.5d, 4);
+		assertEquals(2.0d, integ.getValue(), 1.0e-12d);
+	}
+
+	@Test
+	public void testLagFixedStep() {
+		Ramp one = defineConstant(1.0d);
+		Controller cont = defineController(false);
+		Lag lag = defineLag(cont, one.getInputName());
+		earlyInit();
+
+		// The explicit Euler method is used, as it was before adaptive sampling was introduced
+		double expected = 0.0d;
+		for (int i = 0; i < 10; i++)
+			expected += (1.0d - expected) * 0.1d;
+
+		run(cont, 0.1d, 10);
+		assertEquals(expected, lag.getValue(), 1.0e-12d);
+	}
+
+	@Test
+	public void testLagAdaptive() {
+		Ramp one = defineConstant(1.0d);
+		Controller cont = defineController(true);
+		Lag lag = defineLag(cont, one.getInputName());
+		earlyInit();
+
+		// The exact solution for a constant input is obtained for any time step
+		run(cont, 0.5d, 2);
+		assertEquals(1.0d - Math.exp(-1.0d), lag.getValue(), 1.0e-12d);
+
+		run(cont, 0.01d, 200);
+		assertEquals(1.0d - Math.exp(-2.0d), lag.getValue(), 1.0e-12d);
+	}
+
+	@Test
+	public void testStepControl() {
+		Ramp ramp = define(Ramp.class, "Ramp");
+		Ramp one = defineConstant(1.0d);
+		Controller cont = defineController(true);
+		Integrator integ = defineIntegrator(cont, one.getInputName());
+		Lag lag = defineLag(cont, one.getInputName());
+		earlyInit();
+
+		// The first step uses the seeded input values, so a constant input does not limit the
+		// step, which can double up to SamplingTime
+		run(cont, 0.1d, 1);
+		assertEquals(0.2d, cont.getNextTimeStep(0.1d), 1.0e-12d);
+		assertEquals(1.0d, cont.getNextTimeStep(0.8d), 1.0e-12d);
+
+		// A change in the input over the step limits the step, but not below MinSamplingTime
+		InputAgent.processEntity_Keyword_Value(integ, "InputValue", ramp.getInputName());
+		InputAgent.processEntity_Keyword_Value(lag, "InputValue", ramp.getInputName());
+		earlyInit();
+		run(cont, 0.1d, 2);
+		double dt = cont.getNextTimeStep(0.1d);
+		assertTrue(dt < 0.1d);
+		assertTrue(dt >= 0.001d);
+		assertEquals(0.001d, cont.getNextTimeStep(1.0e-6d), 1.0e-12d);
+		assertTrue(integ.getMaxTimeStep(0.1d, 1.0e-4d) < Double.POSITIVE_INFINITY);
+	}
+
+	@Test
+	public void testStepControlFixedStep() {
+		Ramp ramp = define(Ramp.class, "Ramp");
+		Controller cont = defineController(false);
+		defineIntegrator(cont, ramp.getInputName());
+		earlyInit();
+
+		// Without AdaptiveSampling, every step is equal to SamplingTime
+		run(cont, 0.1d, 2);
+		assertEquals(1.0d, cont.getNextTimeStep(0.1d), 0.0d);
+		assertEquals(1.0d, cont.getNextTimeStep(1.0e-6d), 0.0d);
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.FluidObjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.DistanceUnit;
+import com.jaamsim.units.PressureUnit;
+import com.jaamsim.units.Unit;
+import com.jaamsim.units.VolumeUnit;
+import com.sandwell.JavaSimulation.Entity;
+
+public class TestFluidNetwork {
+
+	private final ArrayList<Entity> entities = new ArrayList<Entity>();
+
+	private FluidTank source;
+	private FluidTank dest1;
+	private FluidTank dest2;
+	private FluidPipe shared;
+	private FluidFlow flow1;
+	private FluidFlow flow2;
+
+	@Before
+	public void setup() {
+		// The units are normally defined by the autoload file
+		defineUnit(DistanceUnit.class, "m");
+		defineUnit(VolumeUnit.class, "m3");
+		defineUnit(PressureUnit.class, "Pa");
+
+		// A source tank feeds two tanks through a shared pipe followed by a branch pipe for each
+		Fluid fluid = define(Fluid.class, "Fluid");
+		source = defineTank("2.0 m3");
+		shared = definePipe(source, "10 m");
+		FluidPipe branch1 = definePipe(shared, "5 m");
+		FluidPipe branch2 = definePipe(shared, "20 m");
+		dest1 = defineTank("0 m3");
+		dest2 = defineTank("0 m3");
+		InputAgent.processEntity_Keyword_Value(dest1, "Previous", branch1.getInputName());
+		InputAgent.processEntity_Keyword_Value(dest2, "Previous", branch2.getInputName());
+
+		flow1 = defineFlow(fluid, dest1);
+		flow2 = defineFlow(fluid, dest2);
+
+		for (Entity ent : entities)
+			ent.validate();
+		for (Entity ent : entities)
+			ent.earlyInit();
+	}
+
+	@After
+	public void killEntities() {
+		for (Entity ent : entities)
+			ent.kill();
+		entities.clear();
+	}
+
+	private static void defineUnit(Class<? extends Unit> klass, String name) {
+		if (Entity.getNamedEntity(name) == null)
+			InputAgent.defineEntity(klass, name, true);
+	}
+
+	private <T extends Entity> T define(Class<T> klass, String name) {
+		T ent = InputAgent.defineEntityWithUniqueName(klass, name, true);
+		entities.add(ent);
+		return ent;
+	}
+
+	private FluidTank defineTank(String volume) {
+		FluidTank tank = define(FluidTank.class, "Tank");
+		InputAgent.processEntity_Keyword_Value(tank, "Diameter", "1 m");
+		InputAgent.processEntity_Keyword_Value(tank, "Capacity", "10 m3");
+		InputAgent.processEntity_Keyword_Value(tank, "InitialVolume", volume);
+		InputAgent.processEntity_Keyword_Value(tank, "AmbientPressure", "100000 Pa");
+		return tank;
+	}
+
+	private FluidPipe definePipe(FluidComponent prev, String length) {
+		FluidPipe pipe = define(FluidPipe.class, "Pipe");
+		InputAgent.processEntity_Keyword_Value(pipe, "Previous", prev.getInputName());
+		InputAgent.processEntity_Keyword_Value(pipe, "Diameter", "0.1 m");
+		InputAgent.processEntity_Keyword_Value(pipe, "Length", length);
+		return pipe;
+	}
+
+	private FluidFlow defineFlow(Fluid fluid, FluidTank dest) {
+		FluidFlow flow = define(FluidFlow.class, "FluidFlow");
+		InputAgent.processEntity_Keyword_Value(flow, "Fluid", fluid.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "Source", source.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "Destination", dest.getInputName());
+		return flow;
+	}
+
+	private double getTotalVolume() {
+		return source.getFluidVolume() + dest1.getFluidVolume() + dest2.getFluidVolume();
+	}
+
+	private static double getErrorEstimate(double oldRate, double newRate) {
+		double maxRate = Math.max(Math.abs(oldRate), Math.abs(newRate));
+		if (maxRate == 0.0)
+			return 0.0;
+		return 0.5 * Math.abs(newRate - oldRate) / maxRate;
+	}
+
+	@Test
+	public void testSharedComponent() {
+		double dt = 0.01d;
+		double total = getTotalVolume();
+		for (int i = 1; i <= 500; i++) {
+			double oldRate1 = flow1.getFlowRate();
+			double oldRate2 = flow2.getFlowRate();
+			flow1.updateValue(i * dt);
+			flow2.updateValue(i * dt);
+
+			// The network is solved once both routes have been updated
+			assertEquals(2, flow1.getNetworkRoutes(0.0d).intValue());
+			assertEquals(2, flow2.getNetworkRoutes(0.0d).intValue());
+
+			// The flow through the shared pipe is the sum of the flows for the two routes
+			assertEquals(flow1.getFlowRate() + flow2.getFlowRate(), shared.getFlowRate(), 1.0e-12d);
+
+			// Each route's error estimate follows its own change in flow rate
+			assertEquals(getErrorEstimate(oldRate1, flow1.getFlowRate()), flow1.getErrorEstimate(), 1.0e-15d);
+			assertEquals(getErrorEstimate(oldRate2, flow2.getFlowRate()), flow2.getErrorEstimate(), 1.0e-15d);
+
+			// The fluid moved out of the source tank arrives at the destination tanks
+			assertEquals(total, getTotalVolume(), 1.0e-12d);
+		}
+
+		// The shorter branch has less inertia and friction, so it carries the larger flow
+		assertTrue(flow2.getFlowRate() > 0.0d);
+		assertTrue(flow1.getFlowRate() > flow2.getFlowRate());
+		assertTrue(flow1.getErrorEstimate() > 0.0d);
+		assertTrue(flow2.getErrorEstimate() > 0.0d);
+		assertTrue(dest1.getFluidVolume() > dest2.getFluidVolume());
+		assertTrue(dest2.getFluidVolume() > 0.0d);
+	}
+}
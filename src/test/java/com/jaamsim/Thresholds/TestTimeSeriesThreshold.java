@@ -0,0 +1,216 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Thresholds;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.events.Process;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.TimeUnit;
+import com.sandwell.JavaSimulation.Entity;
+import com.sandwell.JavaSimulation.ObjectType;
+import com.sandwell.JavaSimulation.TimeSeries;
+
+public class TestTimeSeriesThreshold {
+
+	private ObjectType unitType;
+
+	@Before
+	public void setup() {
+		// The time comparisons are made to the nearest clock tick
+		Entity.initEVT().setSimTimeScale(4000.0d);
+
+		// The hours unit is normally defined by the autoload file
+		if (Entity.getNamedEntity("h") == null) {
+			TimeUnit h = InputAgent.defineEntity(TimeUnit.class, "h", true);
+			InputAgent.processEntity_Keyword_Value(h, "ConversionFactorToSI", "3600");
+		}
+
+		unitType = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value(unitType, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+	}
+
+	private TimeSeries defineTimeSeries(String value, String cycleTime) {
+		TimeSeries ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TimeSeries", true);
+		InputAgent.processEntity_Keyword_Value(ts, "UnitType", unitType.getInputName());
+		InputAgent.processEntity_Keyword_Value(ts, "Value", value);
+		if (cycleTime != null)
+			InputAgent.processEntity_Keyword_Value(ts, "CycleTime", cycleTime);
+		ts.validate();
+		return ts;
+	}
+
+	private TimeSeriesThreshold defineThreshold(TimeSeries ts) {
+		TimeSeriesThreshold thr = InputAgent.defineEntityWithUniqueName(TimeSeriesThreshold.class, "Threshold", true);
+		InputAgent.processEntity_Keyword_Value(thr, "UnitType", unitType.getInputName());
+		InputAgent.processEntity_Keyword_Value(thr, "TimeSeries", ts.getInputName());
+		return thr;
+	}
+
+	private static final String SERIES = "{ 0:00:00 1 } { 2:00:00 5 } { 3:00:00 1 } { 7:00:00 4 } { 7:30:00 1 } { 8:00:00 4 }";
+
+	@Test
+	public void testCycle() {
+		TimeSeriesThreshold thr = defineThreshold(defineTimeSeries(SERIES, "10 h"));
+		InputAgent.processEntity_Keyword_Value(thr, "MaxOpenLimit", "3");
+		InputAgent.processEntity_Keyword_Value(thr, "LookAhead", "0.5 h");
+		thr.validate();
+		compare(thr);
+	}
+
+	@Test
+	public void testOffsetAndLongLookAhead() {
+		// The LookAhead is longer than some of the open periods, which are never used
+		TimeSeriesThreshold thr = defineThreshold(defineTimeSeries(SERIES, "10 h"));
+		InputAgent.processEntity_Keyword_Value(thr, "MaxOpenLimit", "3");
+		InputAgent.processEntity_Keyword_Value(thr, "LookAhead", "2.5 h");
+		InputAgent.processEntity_Keyword_Value(thr, "Offset", "1.5 h");
+		thr.validate();
+		compare(thr);
+	}
+
+	@Test
+	public void testNoCycle() {
+		// The threshold is open for ever after the last point in the series
+		TimeSeriesThreshold thr = defineThreshold(defineTimeSeries(SERIES, null));
+		InputAgent.processEntity_Keyword_Value(thr, "MaxOpenLimit", "4.5");
+		InputAgent.processEntity_Keyword_Value(thr, "LookAhead", "0.5 h");
+		thr.validate();
+		compare(thr);
+	}
+
+	@Test
+	public void testCommonCycle() {
+		// The limit repeats twice in each cycle of the series
+		TimeSeriesThreshold thr = defineThreshold(defineTimeSeries(SERIES, "10 h"));
+		TimeSeries limit = defineTimeSeries("{ 0:00:00 0 } { 1:00:00 2 } { 4:00:00 0 }", "5 h");
+		InputAgent.processEntity_Keyword_Value(thr, "MinOpenLimit", limit.getInputName());
+		InputAgent.processEntity_Keyword_Value(thr, "MaxOpenLimit", "4.5");
+		InputAgent.processEntity_Keyword_Value(thr, "LookAhead", "0.25 h");
+		thr.validate();
+		compare(thr);
+	}
+
+	@Test
+	public void testUnrelatedCycles() {
+		// The cycles have no common period, so the index is rebuilt as time advances
+		TimeSeriesThreshold thr = defineThreshold(defineTimeSeries(SERIES, "10 h"));
+		TimeSeries limit = defineTimeSeries("{ 0:00:00 0 } { 1:00:00 2 } { 2:00:00 0 }", "3 h");
+		InputAgent.processEntity_Keyword_Value(thr, "MinOpenLimit", limit.getInputName());
+		InputAgent.processEntity_Keyword_Value(thr, "MaxOpenLimit", "4.5");
+		InputAgent.processEntity_Keyword_Value(thr, "LookAhead", "0.25 h");
+		thr.validate();
+		compare(thr);
+	}
+
+	/**
+	 * Compares the indexed open and closed times with those found by stepping through the
+	 * change points, for times that increase through several cycles and then decrease.
+	 */
+	private static void compare(TimeSeriesThreshold thr) {
+		for (int i = 0; i <= 400; i++)
+			compare(thr, i * 0.125d);
+		for (int i = 400; i >= 0; i--)
+			compare(thr, i * 0.125d + 0.01d);
+	}
+
+	private static void compare(TimeSeriesThreshold thr, double time) {
+		String msg = String.format("time = %s", time);
+		assertEquals(msg, calcClosedTime(thr, time), thr.calcClosedTimeFromTime(time), 1.0e-9d);
+		assertEquals(msg, calcOpenTime(thr, time), thr.calcOpenTimeFromTime(time), 1.0e-9d);
+	}
+
+	// The following methods reproduce the step-through calculations that were used before the
+	// open periods were indexed
+
+	private static boolean isClosedAtTime(TimeSeriesThreshold thr, double time) {
+		time += thr.getOffsetInHours();
+		double changeTime = time;
+		if (thr.isPointClosed(changeTime))
+			return true;
+
+		while (true) {
+			if (changeTime - thr.getLookAheadInHours() > time)
+				return false;
+
+			changeTime = thr.getNextChangeTimeAfterHours(changeTime);
+			if (thr.isPointClosed(changeTime))
+				return (changeTime - thr.getLookAheadInHours()) < time;
+		}
+	}
+
+	private static double calcClosedTime(TimeSeriesThreshold thr, double startTime) {
+		if (thr.isAlwaysClosed())
+			return Double.POSITIVE_INFINITY;
+		if (thr.isAlwaysOpen())
+			return 0.0;
+		if (!isClosedAtTime(thr, startTime))
+			return 0.0;
+
+		startTime += thr.getOffsetInHours();
+		double openTime = -1;
+		double changeTime = startTime;
+		while (true) {
+			changeTime = thr.getNextChangeTimeAfterHours(changeTime);
+			if (changeTime == Double.POSITIVE_INFINITY) {
+				if (openTime != -1)
+					return openTime - startTime;
+				return Double.POSITIVE_INFINITY;
+			}
+
+			if (changeTime > startTime + thr.getMaxTimeValueFromTimeSeries() + thr.getLookAhead())
+				return Double.POSITIVE_INFINITY;
+
+			if (thr.isPointClosed(changeTime)) {
+				if (openTime == -1)
+					continue;
+				if (changeTime - openTime >= thr.getLookAheadInHours())
+					return openTime - startTime;
+				openTime = -1;
+			}
+			else if (openTime == -1) {
+				openTime = changeTime;
+			}
+		}
+	}
+
+	private static double calcOpenTime(TimeSeriesThreshold thr, double startTime) {
+		if (thr.isAlwaysClosed())
+			return 0.0;
+		if (thr.isAlwaysOpen())
+			return Double.POSITIVE_INFINITY;
+		if (isClosedAtTime(thr, startTime))
+			return 0.0;
+
+		startTime += thr.getOffsetInHours();
+		double changeTime = startTime;
+		while (true) {
+			changeTime = thr.getNextChangeTimeAfterHours(changeTime);
+			if (changeTime == Double.POSITIVE_INFINITY)
+				return Double.POSITIVE_INFINITY;
+
+			if (changeTime > startTime + thr.getMaxTimeValueFromTimeSeries())
+				return Double.POSITIVE_INFINITY;
+
+			if (thr.isPointClosed(changeTime)) {
+				double timeUntilClose = changeTime - thr.getLookAheadInHours() - startTime;
+				return Math.max(timeUntilClose, Process.getEventTolerance());
+			}
+		}
+	}
+}
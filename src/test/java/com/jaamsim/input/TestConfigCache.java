@@ -0,0 +1,206 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class TestConfigCache {
+
+@Test
+public void testCachedRecords() throws Exception {
+	File dir = createTempDir("config");
+	File cacheDir = new File(dir, "cache");
+	writeFile(new File(dir, "main.cfg"), "Define Queue { Q1 Q2 }\nInclude part.cfg\nQ1 Position { 1.0 2.0 0.0 m } \" comment\n}\n");
+	writeFile(new File(dir, "part.cfg"), "Q2 Description { 'second queue' }\nQ2 Position {\n 3.0 4.0\n 0.0 m }\n");
+
+	ConfigCache.setDirectory(cacheDir);
+	try {
+		ArrayList<String> first = readAll(dir, "main.cfg");
+		assertTrue(cacheDir.listFiles().length == 2);
+
+		// The second read is taken from the cache and must give the same records
+		byte[] contents = "Q2 Description { 'second queue' }\nQ2 Position {\n 3.0 4.0\n 0.0 m }\n".getBytes();
+		assertNotNull(ConfigCache.load(contents));
+		ArrayList<String> second = readAll(dir, "main.cfg");
+		assertTrue(first.equals(second));
+		assertTrue(first.get(0).equals("Define Queue { Q1 Q2 }"));
+		assertTrue(first.get(2).equals("Q2 Description { second queue }"));
+		assertTrue(first.get(3).equals("Q2 Position { 3.0 4.0 0.0 m }"));
+		assertTrue(first.get(5).equals("ERROR Extra closing braces found: }"));
+
+		// A change to the included file is picked up
+		writeFile(new File(dir, "part.cfg"), "Q2 Position { 5.0 6.0 0.0 m }\n");
+		ArrayList<String> third = readAll(dir, "main.cfg");
+		assertTrue(third.get(2).equals("Q2 Position { 5.0 6.0 0.0 m }"));
+		assertTrue(cacheDir.listFiles().length == 3);
+		assertNull(ConfigCache.load("Q2 Position { 7.0 }\n".getBytes()));
+	}
+	finally {
+		ConfigCache.setDirectory(null);
+	}
+}
+
+@Test
+public void testPrivateDirectory() throws Exception {
+	File dir = createTempDir("config");
+	File cacheDir = new File(dir, "cache");
+	ConfigCache.setDirectory(cacheDir);
+	try {
+		// The directory is created for the owner only
+		assertTrue(ConfigCache.getDirectory() == cacheDir);
+		assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cacheDir.toPath())));
+
+		// An existing directory that others can write to is restricted
+		Files.setPosixFilePermissions(cacheDir.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+		ConfigCache.setDirectory(cacheDir);
+		assertTrue(ConfigCache.getDirectory() == cacheDir);
+		assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cacheDir.toPath())));
+	}
+	finally {
+		ConfigCache.setDirectory(null);
+	}
+}
+
+@Test
+public void testDamagedEntry() throws Exception {
+	File dir = createTempDir("config");
+	File cacheDir = new File(dir, "cache");
+	byte[] contents = "Q1 Position { 1.0 2.0 0.0 m }\n".getBytes();
+	writeFile(new File(dir, "main.cfg"), new String(contents));
+
+	ConfigCache.setDirectory(cacheDir);
+	try {
+		readAll(dir, "main.cfg");
+		assertNotNull(ConfigCache.load(contents));
+
+		// Any change to the entry, such as a different token, fails the checksum.  The first
+		// string follows the magic number, version, key, number of strings and string length.
+		File entry = cacheDir.listFiles()[0];
+		RandomAccessFile raf = new RandomAccessFile(entry, "rw");
+		try {
+			raf.seek(36);
+			assertEquals('Q', raf.read());
+			raf.seek(36);
+			raf.write('P');
+		}
+		finally {
+			raf.close();
+		}
+		assertNull(ConfigCache.load(contents));
+	}
+	finally {
+		ConfigCache.setDirectory(null);
+	}
+}
+
+@Test
+public void testTrim() throws Exception {
+	File dir = createTempDir("config");
+	File cacheDir = new File(dir, "cache");
+	ConfigCache.setDirectory(cacheDir);
+	try {
+		byte[][] contents = new byte[5][];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = ("Q" + i + " Position { 1.0 2.0 0.0 m }\n").getBytes();
+			ArrayList<String> tokens = new ArrayList<String>();
+			Parser.tokenize(tokens, new String(contents[i]), true);
+			ArrayList<ConfigFileReader.Record> records = new ArrayList<ConfigFileReader.Record>();
+			records.add(new ConfigFileReader.Record(tokens, null, null, null));
+			ConfigCache.store(contents[i], records);
+		}
+
+		// Order the entries by last use, the first entry is the oldest
+		File[] entries = cacheDir.listFiles();
+		assertEquals(5, entries.length);
+		long entrySize = entries[0].length();
+		long time = System.currentTimeMillis() - 100000L;
+		for (int i = 0; i < contents.length; i++)
+			ConfigCache.getFile(cacheDir, ConfigCache.getKey(contents[i])).setLastModified(time + i * 1000L);
+
+		// Loading an entry marks it as recently used
+		assertNotNull(ConfigCache.load(contents[0]));
+
+		ConfigCache.trim(cacheDir, 3 * entrySize);
+		assertEquals(3, cacheDir.listFiles().length);
+		assertNotNull(ConfigCache.load(contents[0]));
+		assertNull(ConfigCache.load(contents[1]));
+		assertNull(ConfigCache.load(contents[2]));
+		assertNotNull(ConfigCache.load(contents[3]));
+		assertNotNull(ConfigCache.load(contents[4]));
+	}
+	finally {
+		ConfigCache.setDirectory(null);
+	}
+}
+
+/**
+ * Returns the records for the given file and the files it includes, each record joined into
+ * a single string.
+ */
+static ArrayList<String> readAll(File dir, String file) throws Exception {
+	ArrayList<String> ret = new ArrayList<String>();
+	readAll(ConfigFileReader.start("", dir.toURI(), file), ret);
+	return ret;
+}
+
+private static void readAll(ConfigFileReader reader, ArrayList<String> ret) {
+	while (true) {
+		ConfigFileReader.Record rec = reader.nextRecord();
+		if (rec == null)
+			break;
+
+		assertNotNull(rec.tokens);
+		StringBuilder sb = new StringBuilder();
+		if (rec.error != null)
+			sb.append("ERROR ").append(rec.error).append(":");
+		for (String tok : rec.tokens) {
+			if (sb.length() > 0)
+				sb.append(" ");
+			sb.append(tok);
+		}
+		ret.add(sb.toString());
+
+		if (rec.include != null)
+			readAll(rec.include, ret);
+	}
+}
+
+static File createTempDir(String prefix) throws IOException {
+	File dir = File.createTempFile(prefix, "");
+	dir.delete();
+	dir.mkdirs();
+	dir.deleteOnExit();
+	return dir;
+}
+
+static void writeFile(File file, String contents) throws IOException {
+	FileOutputStream out = new FileOutputStream(file);
+	out.write(contents.getBytes());
+	out.close();
+}
+}
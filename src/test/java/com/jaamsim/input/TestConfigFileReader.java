@@ -0,0 +1,125 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class TestConfigFileReader {
+
+/**
+ * Returns the given number of keyword records for the given object, and adds them to the
+ * records that are expected to be read.
+ */
+private static String records(String name, int num, ArrayList<String> expected) {
+	StringBuilder sb = new StringBuilder();
+	for (int i = 0; i < num; i++) {
+		sb.append(name).append(" Position { ").append(i).append(" 0 0 m }\n");
+		expected.add(name + " Position { " + i + " 0 0 m }");
+	}
+	return sb.toString();
+}
+
+@Test
+public void testNestedIncludeOrder() throws Exception {
+	File dir = TestConfigCache.createTempDir("include");
+	new File(dir, "sub").mkdirs();
+
+	// main.cfg includes a.cfg and c.cfg, a.cfg includes sub/b.cfg, which includes c.cfg again
+	ArrayList<String> expected = new ArrayList<String>();
+	StringBuilder main = new StringBuilder(records("Main", 50, expected));
+	main.append("Include a.cfg\n");
+	expected.add("Include a.cfg");
+
+	StringBuilder a = new StringBuilder(records("A", 100, expected));
+	a.append("Include sub/b.cfg\n");
+	expected.add("Include sub/b.cfg");
+
+	StringBuilder b = new StringBuilder(records("B", 200, expected));
+	b.append("Include ../c.cfg\n");
+	expected.add("Include ../c.cfg");
+
+	String c = records("C", 300, expected);
+	b.append(records("B2", 10, expected));
+	a.append(records("A2", 10, expected));
+
+	main.append("Include c.cfg\n");
+	expected.add("Include c.cfg");
+	records("C", 300, expected);
+	main.append(records("Main2", 10, expected));
+
+	TestConfigCache.writeFile(new File(dir, "main.cfg"), main.toString());
+	TestConfigCache.writeFile(new File(dir, "a.cfg"), a.toString());
+	TestConfigCache.writeFile(new File(dir, "sub/b.cfg"), b.toString());
+	TestConfigCache.writeFile(new File(dir, "c.cfg"), c);
+
+	// A file that is included twice, but not by itself, is not a cycle
+	for (int i = 0; i < 5; i++) {
+		ArrayList<String> recs = TestConfigCache.readAll(dir, "main.cfg");
+		assertEquals(expected, recs);
+	}
+}
+
+@Test
+public void testIncludeCycle() throws Exception {
+	File dir = TestConfigCache.createTempDir("include");
+	new File(dir, "sub").mkdirs();
+	TestConfigCache.writeFile(new File(dir, "a.cfg"), "Define Queue { Q1 }\nInclude sub/b.cfg\nQ1 Description { a }\n");
+	TestConfigCache.writeFile(new File(dir, "sub/b.cfg"), "Include ../a.cfg\nInclude ./b.cfg\nQ1 Position { 1 2 0 m }\n");
+
+	// The cycle is reported in place of the Include record and the rest of the file is read
+	assertCycle(TestConfigCache.readAll(dir, "a.cfg"));
+
+	// The cycle depends on the chain of Include records, so it is not taken from the cache
+	File cacheDir = new File(dir, "cache");
+	ConfigCache.setDirectory(cacheDir);
+	try {
+		assertCycle(TestConfigCache.readAll(dir, "a.cfg"));
+		assertCycle(TestConfigCache.readAll(dir, "a.cfg"));
+
+		// Read from the cache, the included file is not a cycle when read by itself
+		ArrayList<String> recs = TestConfigCache.readAll(new File(dir, "sub"), "b.cfg");
+		assertEquals(6, recs.size());
+		assertEquals("Include ../a.cfg", recs.get(0));
+		assertEquals("Define Queue { Q1 }", recs.get(1));
+		assertTrue(isCycle(recs.get(2), "Include sub/b.cfg"));
+		assertEquals("Q1 Description { a }", recs.get(3));
+		assertTrue(isCycle(recs.get(4), "Include ./b.cfg"));
+		assertEquals("Q1 Position { 1 2 0 m }", recs.get(5));
+	}
+	finally {
+		ConfigCache.setDirectory(null);
+	}
+}
+
+private static void assertCycle(ArrayList<String> recs) {
+	assertEquals(6, recs.size());
+	assertEquals("Define Queue { Q1 }", recs.get(0));
+	assertEquals("Include sub/b.cfg", recs.get(1));
+	assertTrue(isCycle(recs.get(2), "Include ../a.cfg"));
+	assertTrue(isCycle(recs.get(3), "Include ./b.cfg"));
+	assertEquals("Q1 Position { 1 2 0 m }", recs.get(4));
+	assertEquals("Q1 Description { a }", recs.get(5));
+}
+
+private static boolean isCycle(String rec, String include) {
+	return rec.startsWith("ERROR Include cycle found") && rec.endsWith("already being read: " + include);
+}
+}
@@ -0,0 +1,130 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.sandwell.JavaSimulation.Input.ParseContext;
+
+public class TestConfigReload {
+
+@Test
+public void testUnchanged() {
+	String[] file = {
+		"Define Queue { Q1 Q2 }",
+		"Q1 Position { 1.0 2.0 0.0 m } Description { 'first queue' }",
+		"Q2 Position { 3.0 4.0 0.0 m }",
+	};
+	ConfigReload.Changes changes = getConfig(file).getChanges(getConfig(file));
+	assertTrue(changes.isEmpty());
+}
+
+@Test
+public void testChangedKeyword() {
+	ConfigReload prev = getConfig(
+		"Define Queue { Q1 Q2 }",
+		"Q1 UnitType { DistanceUnit } Position { 1.0 2.0 0.0 m } Description { 'first queue' }",
+		"Q2 Position { 3.0 4.0 0.0 m }");
+	ConfigReload next = getConfig(
+		"Define Queue { Q1 Q2 }",
+		"Q1 UnitType { DistanceUnit } Position { 1.0 5.0 0.0 m } Description { 'first queue' }",
+		"Q2 Position { 3.0 4.0 0.0 m }");
+
+	// The changed keyword and the later keywords for the same entity are applied
+	ConfigReload.Changes changes = next.getChanges(prev);
+	assertTrue(changes.killed.isEmpty());
+	assertTrue(changes.defined.isEmpty());
+	assertTrue(changes.reset.isEmpty());
+	assertTrue(getApplied(changes).equals("Q1 Position, Q1 Description"));
+}
+
+@Test
+public void testRemovedKeyword() {
+	ConfigReload prev = getConfig(
+		"Define Queue { Q1 Q2 }",
+		"Q1 Position { 1.0 2.0 0.0 m }",
+		"Q2 Position { 3.0 4.0 0.0 m } Description { 'second queue' }",
+		"Q1 Description { 'first queue' }",
+		"Q1 Position { 7.0 2.0 0.0 m }");
+	ConfigReload next = getConfig(
+		"Define Queue { Q1 Q2 }",
+		"Q1 Position { 1.0 2.0 0.0 m }",
+		"Q2 Position { 3.0 4.0 0.0 m }",
+		"Q1 Description { 'first queue' }");
+
+	// Q2 Description is no longer set, and Q1 Position returns to its earlier value
+	ConfigReload.Changes changes = next.getChanges(prev);
+	assertTrue(changes.reset.size() == 2);
+	assertTrue(changes.reset.get(0).entity.equals("Q1"));
+	assertTrue(changes.reset.get(0).kw.keyword.equals("Position"));
+	assertTrue(changes.reset.get(1).entity.equals("Q2"));
+	assertTrue(changes.reset.get(1).kw.keyword.equals("Description"));
+	assertTrue(getApplied(changes).equals("Q1 Position"));
+}
+
+@Test
+public void testRedefinedEntity() {
+	ConfigReload prev = getConfig(
+		"Define Queue { Q1 Q2 Q3 }",
+		"Q1 Position { 1.0 2.0 0.0 m }",
+		"Q2 Position { 3.0 4.0 0.0 m } NextComponent { Q1 }",
+		"Q3 Position { 5.0 6.0 0.0 m }");
+	ConfigReload next = getConfig(
+		"Define Queue { Q2 Q3 Q4 }",
+		"Define Server { Q1 }",
+		"Q1 Position { 1.0 2.0 0.0 m }",
+		"Q2 Position { 3.0 4.0 0.0 m } NextComponent { Q1 }",
+		"Q3 Position { 5.0 6.0 0.0 m }",
+		"Q4 Position { 7.0 8.0 0.0 m }");
+
+	// Q1 is replaced by a new entity, so the reference to it from Q2 is applied again
+	ConfigReload.Changes changes = next.getChanges(prev);
+	assertTrue(changes.killed.size() == 1);
+	assertTrue(changes.killed.get(0).equals("Q1"));
+	assertTrue(changes.defined.size() == 2);
+	assertTrue(changes.defined.get("Q1").equals("Server"));
+	assertTrue(changes.defined.get("Q4").equals("Queue"));
+	assertTrue(changes.reset.isEmpty());
+	assertTrue(getApplied(changes).equals("Q1 Position, Q2 NextComponent, Q4 Position"));
+}
+
+private static ConfigReload getConfig(String... lines) {
+	ConfigReload ret = new ConfigReload();
+	ParseContext pc = new ParseContext();
+	for (String line : lines) {
+		ArrayList<String> record = new ArrayList<String>();
+		Parser.tokenize(record, line, true);
+		if ("DEFINE".equalsIgnoreCase(record.get(0)))
+			ret.addDefineRecord(record);
+		else
+			ret.addKeywordRecord(record, pc);
+	}
+	return ret;
+}
+
+private static String getApplied(ConfigReload.Changes changes) {
+	StringBuilder sb = new StringBuilder();
+	for (ConfigReload.Entry entry : changes.applied) {
+		if (sb.length() > 0)
+			sb.append(", ");
+		sb.append(entry.entity).append(" ").append(entry.kw.keyword);
+	}
+	return sb.toString();
+}
+}
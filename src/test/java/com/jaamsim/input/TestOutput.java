@@ -14,6 +14,7 @@
  */
 package com.jaamsim.input;
 
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
@@ -21,6 +22,8 @@ import java.lang.reflect.Method;
 import org.junit.Test;
 
 import com.sandwell.JavaSimulation.Entity;
+import com.sandwell.JavaSimulation.ErrorException;
+import com.sandwell.JavaSimulation.StringVector;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
 public class TestOutput {
@@ -61,4 +64,120 @@ public class TestOutput {
 		}
 	}
 
+	public static class OutputEntity extends Entity {
+		@Output(name = "DoubleValue")
+		public double getDoubleValue(double simTime) {
+			return simTime * 2.0d;
+		}
+
+		@Output(name = "IntValue")
+		public int getIntValue(double simTime) {
+			return 7;
+		}
+
+		@Output(name = "BoxedValue")
+		public Integer getBoxedValue(double simTime) {
+			if (simTime > 0.0d)
+				return null;
+			return 3;
+		}
+
+		@Output(name = "StringValue")
+		public String getStringValue(double simTime) {
+			return "value";
+		}
+
+		@Output(name = "FailedValue")
+		public double getFailedValue(double simTime) {
+			throw new ErrorException("failed at %f", simTime);
+		}
+	}
+
+	@Test
+	public void testOutputValues() {
+		OutputEntity ent = new OutputEntity();
+		assertTrue(ent.hasOutput("DoubleValue"));
+		assertTrue(!ent.hasOutput("MissingValue"));
+
+		OutputHandle out = ent.getOutputHandle("DoubleValue");
+		assertTrue(out.getValueAsDouble(1.5d, -1.0d) == 3.0d);
+		assertTrue(out.getValue(1.5d, double.class) == 3.0d);
+		assertNull(out.getValue(1.5d, String.class));
+
+		assertTrue(ent.getOutputHandle("IntValue").getValueAsDouble(0.0d, -1.0d) == 7.0d);
+		assertTrue(ent.getOutputHandle("IntValue").getValue(0.0d, int.class) == 7);
+
+		out = ent.getOutputHandle("BoxedValue");
+		assertTrue(out.getValueAsDouble(0.0d, -1.0d) == 3.0d);
+		assertTrue(out.getValueAsDouble(1.0d, -1.0d) == -1.0d);
+
+		out = ent.getOutputHandle("StringValue");
+		assertTrue(!out.isNumericValue());
+		assertTrue(out.getValueAsDouble(0.0d, -1.0d) == -1.0d);
+		assertTrue(out.getValue(0.0d, String.class).equals("value"));
+
+		// Exceptions thrown by the output method reach the caller
+		out = ent.getOutputHandle("FailedValue");
+		try {
+			out.getValueAsDouble(0.0d, -1.0d);
+			assertTrue(false);
+		}
+		catch (ErrorException e) {}
+		finally {
+			ent.kill();
+		}
+	}
+
+	public static class LinkEntity extends Entity {
+		Entity next;
+		double value;
+
+		@Output(name = "Next")
+		public Entity getNext(double simTime) {
+			return next;
+		}
+
+		@Output(name = "Value")
+		public double getValue(double simTime) {
+			return value;
+		}
+	}
+
+	@Test
+	public void testOutputChain() {
+		LinkEntity first = new LinkEntity();
+		LinkEntity second = new LinkEntity();
+		LinkEntity third = new LinkEntity();
+		first.setInputName("TestOutputChainFirst");
+		first.next = second;
+		second.value = 2.0d;
+		third.value = 3.0d;
+
+		try {
+			OutputInput<Double> in = new OutputInput<Double>(Double.class, "Test", "Test", "");
+			StringVector tokens = new StringVector();
+			tokens.add("TestOutputChainFirst");
+			tokens.add("Next");
+			tokens.add("Value");
+			in.parse(tokens);
+
+			// The handle for the last link is reused while the chain is unchanged
+			OutputHandle out = in.getOutputHandle(0.0d);
+			assertTrue(out.getValueAsDouble(0.0d, -1.0d) == 2.0d);
+			assertTrue(in.getOutputHandle(0.0d) == out);
+
+			first.next = third;
+			assertTrue(in.getOutputValueAsDouble(0.0d, -1.0d) == 3.0d);
+			assertTrue(in.getOutputHandle(0.0d) != out);
+
+			first.next = null;
+			assertNull(in.getOutputHandle(0.0d));
+			assertTrue(in.getOutputValueAsDouble(0.0d, -1.0d) == -1.0d);
+		}
+		finally {
+			first.kill();
+			second.kill();
+			third.kill();
+		}
+	}
 }
@@ -49,6 +49,168 @@ public void testTokenize() {
 	tokenMatch(tok, "OBJECT", "KEYWORD", "{", "ARG", "}", "\"FOO ,\t     ");
 }
 
+@Test
+public void testTokenizeMatchesRegex() {
+	ArrayList<String> tok = new ArrayList<String>();
+	ArrayList<String> ref = new ArrayList<String>();
+
+	// Records built from the characters that are significant to the tokenizer
+	char[] chars = { 'A', 'b', '1', '.', ' ', ',', '\t', '{', '}', '\'', '"' };
+	java.util.Random rand = new java.util.Random(42);
+	for (int i = 0; i < 20000; i++) {
+		int len = rand.nextInt(20);
+		StringBuilder sb = new StringBuilder();
+		for (int j = 0; j < len; j++)
+			sb.append(chars[rand.nextInt(chars.length)]);
+		String rec = sb.toString();
+
+		for (int strip = 0; strip < 2; strip++) {
+			tok.clear();
+			ref.clear();
+			Parser.tokenize(tok, rec, strip == 1);
+			tokenizeRegex(ref, rec, strip == 1);
+			assertTrue(tok.equals(ref));
+		}
+	}
+
+	for (String rec : getRecords(100)) {
+		tok.clear();
+		ref.clear();
+		Parser.tokenize(tok, rec);
+		tokenizeRegex(ref, rec, false);
+		assertTrue(tok.equals(ref));
+	}
+}
+
+/**
+ * The regular expression based tokenizer used before the single-pass lexer, kept as
+ * the reference implementation.
+ */
+private static void tokenizeRegex(ArrayList<String> tokens, String rec, boolean stripComments) {
+	final int cIndex = rec.indexOf("\"");
+	final String contents;
+	if (cIndex == -1)
+		contents = rec;
+	else
+		contents = rec.substring(0, cIndex);
+
+	String[] substring = contents.split("'", -1);
+	for (int i = 0; i < substring.length; i++) {
+		if (i % 2 != 0) {
+			tokens.add(substring[i]);
+			continue;
+		}
+
+		String temp = substring[i].replaceAll("([\\{\\}])", "\t$1\t");
+		String[] delimTokens = temp.split("[ ,\t]+", 0);
+		for (String each : delimTokens) {
+			if (each.length() == 0)
+				continue;
+
+			if (each.length() == 1) {
+				if ("{".equals(each)) {
+					tokens.add("{");
+					continue;
+				}
+				if ("}".equals(each)) {
+					tokens.add("}");
+					continue;
+				}
+			}
+
+			tokens.add(each);
+		}
+	}
+
+	if (!stripComments && cIndex > -1)
+		tokens.add(rec.substring(cIndex, rec.length()));
+}
+
+/**
+ * Returns a set of records typical of a generated configuration file.
+ */
+private static String[] getRecords(int numLines) {
+	String[] recs = new String[numLines];
+	for (int i = 0; i < numLines; i++) {
+		switch (i % 4) {
+		case 0:
+			recs[i] = "Define Queue { Queue" + i + " }";
+			break;
+		case 1:
+			recs[i] = "Queue" + i + " Position { " + i + ".0 -2.5 0.0 m }  \" generated position";
+			break;
+		case 2:
+			recs[i] = "Server" + i + " ServiceTime { Dist" + i + " } NextComponent { Queue" + i + " }";
+			break;
+		default:
+			recs[i] = "Text" + i + " Format { '%s, %.2f' }\tDescription { 'Server " + i + " statistics' }";
+			break;
+		}
+	}
+	return recs;
+}
+
+/**
+ * Compares the speed of Parser.tokenize with the regular expression based tokenizer it
+ * replaced.  The benchmark is only run when requested, as it takes several seconds:
+ * -Djaamsim.parserBenchmark=&lt;numLines&gt; (300000 if no number is given)
+ */
+@Test
+public void testBenchmark() {
+	String prop = System.getProperty("jaamsim.parserBenchmark");
+	if (prop == null)
+		return;
+
+	int numLines = 300000;
+	if (!prop.isEmpty() && !prop.equalsIgnoreCase("true"))
+		numLines = Integer.parseInt(prop);
+
+	String[] recs = getRecords(numLines);
+	ArrayList<String> tokens = new ArrayList<String>();
+	ArrayList<String> ref = new ArrayList<String>();
+
+	for (int rep = 0; rep < 5; rep++) {
+		long start = System.nanoTime();
+		int numRegex = 0;
+		for (String rec : recs) {
+			ref.clear();
+			tokenizeRegex(ref, rec, true);
+			numRegex += ref.size();
+		}
+		long regex = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		int numLexer = 0;
+		int depth = 0;
+		for (String rec : recs) {
+			tokens.clear();
+			depth = Parser.tokenize(tokens, rec, true, depth, 2);
+			numLexer += tokens.size();
+		}
+		long lexer = System.nanoTime() - start;
+
+		assertTrue(numRegex == numLexer);
+		System.out.format("%d lines: regex %.1f ms, lexer %.1f ms, speedup %.1fx%n",
+		                  numLines, regex / 1.0e6d, lexer / 1.0e6d, (double)regex / lexer);
+	}
+}
+
+@Test
+public void testBraceDepth() {
+	ArrayList<String> tok = new ArrayList<String>();
+
+	assertTrue(Parser.tokenize(tok, "OBJECT KEYWORD { ARG", true, 0, 2) == 1);
+	assertTrue(Parser.tokenize(tok, "{ ARG } ARG", true, 1, 2) == 1);
+	assertTrue(Parser.tokenize(tok, "}", true, 1, 2) == 0);
+
+	// Braces inside quotes and comments are not counted
+	assertTrue(Parser.tokenize(tok, "OBJECT KEYWORD { '{' } \" {", true, 0, 2) == 0);
+
+	// The depth is not updated once it is out of range
+	assertTrue(Parser.tokenize(tok, "} { {", true, 0, 2) == -1);
+	assertTrue(Parser.tokenize(tok, "{ { { } } }", true, 0, 2) == 3);
+}
+
 private static void validateTokens(ArrayList<String> toks) {
 	for (String each : toks) {
 		// An empty String is not a valid token
@@ -83,7 +245,54 @@ public void testQuoting() {
 	assertTrue(Parser.needsQuoting("a "));
 	assertTrue(Parser.needsQuoting("abraca,dabra"));
 	assertTrue(Parser.needsQuoting("abraca}}dabra"));
+	assertTrue(Parser.needsQuoting("abraca\tdabra"));
+	assertTrue(Parser.needsQuoting("{"));
 	assertTrue(!Parser.needsQuoting("abracadabra"));
+	assertTrue(!Parser.needsQuoting(""));
+}
+
+@Test
+public void testParseDouble() {
+	String[] vals = { "0", "-0", "+1", "1.", ".5", "-12.5", "3.0e-4", "1E22", "123456789012345",
+	                  "0.000000000000000000001", "2.5e-22", "9007199254740993", "1e23", "1d", "0x1p3",
+	                  " 1", "NaN", "-Infinity", "1.2.3", "e5", "1e", "-", "" };
+	for (String each : vals)
+		assertTrue(each, sameResult(each));
+
+	// Random decimals must give exactly the same value as Double.parseDouble
+	java.util.Random rand = new java.util.Random(7);
+	for (int i = 0; i < 100000; i++) {
+		StringBuilder sb = new StringBuilder();
+		if (rand.nextBoolean())
+			sb.append('-');
+		int numDigits = 1 + rand.nextInt(17);
+		int point = rand.nextInt(numDigits + 1);
+		for (int j = 0; j < numDigits; j++) {
+			if (j == point)
+				sb.append('.');
+			sb.append((char)('0' + rand.nextInt(10)));
+		}
+		if (rand.nextInt(4) == 0)
+			sb.append('e').append(rand.nextInt(50) - 25);
+		assertTrue(sb.toString(), sameResult(sb.toString()));
+	}
+}
+
+private static boolean sameResult(String s) {
+	double expected;
+	try {
+		expected = Double.parseDouble(s);
+	}
+	catch (NumberFormatException e) {
+		try {
+			Parser.parseDouble(s);
+			return false;
+		}
+		catch (NumberFormatException e2) {
+			return true;
+		}
+	}
+	return Double.doubleToLongBits(expected) == Double.doubleToLongBits(Parser.parseDouble(s));
 }
 
 @Test
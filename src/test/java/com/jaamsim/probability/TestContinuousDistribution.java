@@ -31,6 +31,45 @@ public class TestContinuousDistribution {
 		return total;
 	}
 
+	/**
+	 * Defines a dimensionless distribution with the given inputs, listed as keyword and value
+	 * pairs, and initialises it for sampling.
+	 */
+	static <T extends Distribution> T defineDistribution(Class<T> klass, String... inputs) {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		T dist = InputAgent.defineEntityWithUniqueName(klass, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		for (int i = 0; i < inputs.length; i += 2)
+			InputAgent.processEntity_Keyword_Value( dist, inputs[i], inputs[i + 1]);
+		dist.validate();
+		dist.earlyInit();
+		return dist;
+	}
+
+	/**
+	 * Draws the given number of samples and checks the sample mean and standard deviation
+	 * against the values calculated from the inputs, to the given relative tolerances.
+	 */
+	static void checkSampleStatistics(Distribution dist, int numSamples, double meanTol, double sdTol) {
+		checkSampleStatistics(dist, numSamples, dist.getMeanValue(0.0), meanTol, dist.getStandardDeviation(0.0), sdTol);
+	}
+
+	/**
+	 * Draws the given number of samples and checks the sample mean and standard deviation
+	 * against the given values, to the given relative tolerances.
+	 */
+	static void checkSampleStatistics(Distribution dist, int numSamples, double expectedMean, double meanTol,
+	                                  double expectedSD, double sdTol) {
+		double total = TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		double mean = total / numSamples;
+
+		assertTrue( Math.abs( dist.getSampleMean(0.0) - mean ) < 0.001 );
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / expectedMean - 1.0 ) < meanTol );
+		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / expectedSD - 1.0 ) < sdTol );
+	}
+
 	@Test
 	public void MeanAndStandardDeviation() {
 		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
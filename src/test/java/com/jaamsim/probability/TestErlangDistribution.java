@@ -44,4 +44,13 @@ public class TestErlangDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	public void MeanAndStandardDeviationMarsagliaTsang() {
+		ErlangDistribution dist = TestContinuousDistribution.defineDistribution(ErlangDistribution.class,
+				"Mean", "10.0",
+				"Shape", "2",
+				"SamplingMethod", "MARSAGLIA_TSANG");
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 0.001, 0.001);
+	}
 }
@@ -41,4 +41,12 @@ public class TestExponentialDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
 	}
+
+	@Test
+	public void MeanAndStandardDeviationZiggurat() {
+		ExponentialDistribution dist = TestContinuousDistribution.defineDistribution(ExponentialDistribution.class,
+				"Mean", "10.0",
+				"SamplingMethod", "ZIGGURAT");
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 0.001, 0.005);
+	}
 }
@@ -0,0 +1,85 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.jaamsim.ProbabilityDistributions.DiscreteDistribution;
+import com.jaamsim.ProbabilityDistributions.Distribution;
+import com.jaamsim.ProbabilityDistributions.ErlangDistribution;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.GammaDistribution;
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.ProbabilityDistributions.TriangularDistribution;
+import com.jaamsim.input.InputAgent;
+import com.sandwell.JavaSimulation.ObjectType;
+
+public class TestFillSamples {
+
+	private static <T extends Distribution> T[] definePair(Class<T> klass, String... inputs) {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		@SuppressWarnings("unchecked")
+		T[] ret = (T[])java.lang.reflect.Array.newInstance(klass, 2);
+		for (int i = 0; i < 2; i++) {
+			ret[i] = InputAgent.defineEntityWithUniqueName(klass, "Dist", true);
+			InputAgent.processEntity_Keyword_Value( ret[i], "UnitType", t.getInputName());
+			for (int j = 0; j < inputs.length; j += 2)
+				InputAgent.processEntity_Keyword_Value( ret[i], inputs[j], inputs[j+1]);
+			ret[i].validate();
+			ret[i].earlyInit();
+		}
+		return ret;
+	}
+
+	/**
+	 * Confirms that fillSamples returns the same values and statistics as repeated calls to getNextSample.
+	 */
+	private static void checkPair(Distribution[] pair) {
+		int n = 10000;
+		double[] expected = new double[n];
+		for (int i = 0; i < n; i++)
+			expected[i] = pair[0].getNextSample(0.0);
+
+		double[] bulk = new double[n];
+		pair[1].fillSamples(0.0, bulk, n/2);
+		double[] rest = new double[n - n/2];
+		pair[1].fillSamples(0.0, rest, rest.length);
+		System.arraycopy(rest, 0, bulk, n/2, rest.length);
+
+		assertTrue( Arrays.equals(expected, bulk) );
+		assertTrue( pair[0].getNumberOfSamples(0.0) == pair[1].getNumberOfSamples(0.0) );
+		assertTrue( Math.abs( pair[0].getSampleMean(0.0) - pair[1].getSampleMean(0.0) ) < 1.0e-12 );
+		assertTrue( pair[0].getSampleMin(0.0) == pair[1].getSampleMin(0.0) );
+		assertTrue( pair[0].getSampleMax(0.0) == pair[1].getSampleMax(0.0) );
+	}
+
+	@Test
+	public void SameAsSingleSamples() {
+		checkPair(definePair(ExponentialDistribution.class, "Mean", "10.0"));
+		checkPair(definePair(ExponentialDistribution.class, "Mean", "10.0", "MinValue", "2.0", "MaxValue", "20.0"));
+		checkPair(definePair(NormalDistribution.class, "Mean", "5.0", "StandardDeviation", "2.0", "MinValue", "0.0"));
+		checkPair(definePair(GammaDistribution.class, "Mean", "10.0", "Shape", "0.5"));
+		checkPair(definePair(GammaDistribution.class, "Mean", "10.0", "Shape", "2.5"));
+		checkPair(definePair(ErlangDistribution.class, "Mean", "10.0", "Shape", "3"));
+		checkPair(definePair(TriangularDistribution.class, "MinValue", "1.0", "MaxValue", "4.0", "Mode", "2.0"));
+		checkPair(definePair(DiscreteDistribution.class, "ValueList", "1.0  2.0  3.0", "ProbabilityList", "0.2  0.5  0.3"));
+	}
+}
@@ -68,4 +68,30 @@ public class TestGammaDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.005 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
 	}
+
+	@Test
+	/**
+	 * Tests the gamma distribution for Shape >= 1 using the Marsaglia and Tsang method
+	 */
+	public void MeanAndStandardDeviation3() {
+		GammaDistribution dist = TestContinuousDistribution.defineDistribution(GammaDistribution.class,
+				"Mean", "10.0",
+				"Shape", "2.0",
+				"SamplingMethod", "MARSAGLIA_TSANG",
+				"RandomSeed", "1");
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 0.001, 0.001);
+	}
+
+	@Test
+	/**
+	 * Tests the gamma distribution for Shape < 1 using the Marsaglia and Tsang method
+	 */
+	public void MeanAndStandardDeviation4() {
+		GammaDistribution dist = TestContinuousDistribution.defineDistribution(GammaDistribution.class,
+				"Mean", "10.0",
+				"Shape", "0.5",
+				"SamplingMethod", "MARSAGLIA_TSANG",
+				"RandomSeed", "1");
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 0.005, 0.005);
+	}
 }
@@ -43,4 +43,14 @@ public class TestLogNormalDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.0025 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.0125 );
 	}
+
+	@Test
+	public void MeanAndStandardDeviationZiggurat() {
+		LogNormalDistribution dist = TestContinuousDistribution.defineDistribution(LogNormalDistribution.class,
+				"NormalMean", "1.0",
+				"NormalStandardDeviation", "0.5",
+				"RandomSeed", "1",
+				"SamplingMethod", "ZIGGURAT");
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 0.001, 0.005);
+	}
 }
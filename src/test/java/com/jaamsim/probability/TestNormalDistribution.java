@@ -42,4 +42,13 @@ public class TestNormalDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	public void MeanAndStandardDeviationZiggurat() {
+		NormalDistribution dist = TestContinuousDistribution.defineDistribution(NormalDistribution.class,
+				"Mean", "10.0",
+				"StandardDeviation", "2.0",
+				"SamplingMethod", "ZIGGURAT");
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 0.001, 0.001);
+	}
 }
@@ -0,0 +1,228 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.ProbabilityDistributions.RandomSelector;
+import com.jaamsim.ProbabilityDistributions.UniformDistribution;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.rng.AliasTable;
+import com.jaamsim.rng.MRG1999a;
+import com.sandwell.JavaSimulation.DoubleVector;
+import com.sandwell.JavaSimulation.Entity;
+import com.sandwell.JavaSimulation.ProbabilityDistribution;
+import com.sandwell.JavaSimulation.Simulation;
+import com.sandwell.JavaSimulation3D.DisplayEntity;
+
+public class TestReplicationStreams {
+
+	private static final int NUM_SAMPLES = 1000;
+
+	private Simulation simulation;
+
+	@Before
+	public void setup() {
+		simulation = (Simulation)Entity.getNamedEntity("Simulation");
+		if (simulation == null)
+			simulation = InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", true);
+	}
+
+	@After
+	public void resetReplication() {
+		setReplication(1, false);
+	}
+
+	private void setReplication(int rep, boolean antithetic) {
+		InputAgent.processEntity_Keyword_Value(simulation, "ReplicationNumber", Integer.toString(rep));
+		InputAgent.processEntity_Keyword_Value(simulation, "AntitheticReplications", antithetic ? "TRUE" : "FALSE");
+	}
+
+	/**
+	 * Re-initialises the distribution for the present replication and returns its first samples.
+	 */
+	private static double[] sample(UniformDistribution dist) {
+		dist.earlyInit();
+		double[] ret = new double[NUM_SAMPLES];
+		for (int i = 0; i < NUM_SAMPLES; i++)
+			ret[i] = dist.getNextSample(0.0d);
+		return ret;
+	}
+
+	/**
+	 * Returns the first uniform values from the given stream and substream.
+	 */
+	private static double[] expectedUniforms(int stream, int substream, boolean antithetic) {
+		MRG1999a rng = new MRG1999a();
+		rng.setSeedStream(stream, substream);
+		rng.setAntithetic(antithetic);
+		double[] ret = new double[NUM_SAMPLES];
+		for (int i = 0; i < NUM_SAMPLES; i++)
+			ret[i] = rng.nextUniform();
+		return ret;
+	}
+
+	/**
+	 * Returns the indices selected from the given probabilities by the given stream and substream.
+	 */
+	private static int[] expectedIndices(DoubleVector probs, int stream, int substream, boolean antithetic) {
+		AliasTable table = new AliasTable(probs);
+		double[] uniforms = expectedUniforms(stream, substream, antithetic);
+		int[] ret = new int[NUM_SAMPLES];
+		for (int i = 0; i < NUM_SAMPLES; i++)
+			ret[i] = table.getIndex(uniforms[i]);
+		return ret;
+	}
+
+	private static boolean allDifferent(double[] a, double[] b) {
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] == b[i])
+				return false;
+		}
+		return true;
+	}
+
+	private static UniformDistribution defineUniform() {
+		return TestContinuousDistribution.defineDistribution(UniformDistribution.class,
+				"MinValue", "0.0",
+				"MaxValue", "1.0",
+				"RandomSeed", "5");
+	}
+
+	@Test
+	public void testReplicationSubstreams() {
+		UniformDistribution dist = defineUniform();
+
+		// Each replication uses the substream one less than its number
+		setReplication(1, false);
+		assertEquals(0, Simulation.getReplicationSubstream());
+		assertTrue(!Simulation.isAntitheticReplication());
+		double[] rep1 = sample(dist);
+		assertArrayEquals(expectedUniforms(5, 0, false), rep1, 0.0d);
+
+		setReplication(2, false);
+		assertEquals(1, Simulation.getReplicationSubstream());
+		assertTrue(!Simulation.isAntitheticReplication());
+		double[] rep2 = sample(dist);
+		assertArrayEquals(expectedUniforms(5, 1, false), rep2, 0.0d);
+		assertTrue(allDifferent(rep1, rep2));
+
+		setReplication(7, false);
+		assertEquals(6, Simulation.getReplicationSubstream());
+		double[] rep7 = sample(dist);
+		assertTrue(allDifferent(rep1, rep7));
+		assertTrue(allDifferent(rep2, rep7));
+
+		// Running a replication again reproduces its samples
+		setReplication(1, false);
+		assertArrayEquals(rep1, sample(dist), 0.0d);
+		setReplication(2, false);
+		assertArrayEquals(rep2, sample(dist), 0.0d);
+
+		// Distributions with different seeds do not share a stream in the same replication
+		UniformDistribution other = TestContinuousDistribution.defineDistribution(UniformDistribution.class,
+				"MinValue", "0.0",
+				"MaxValue", "1.0",
+				"RandomSeed", "6");
+		assertTrue(allDifferent(rep2, sample(other)));
+	}
+
+	@Test
+	public void testAntitheticReplications() {
+		UniformDistribution dist = defineUniform();
+
+		// Replications 2k-1 and 2k share substream k-1, and the second one is antithetic
+		setReplication(3, true);
+		assertEquals(1, Simulation.getReplicationSubstream());
+		assertTrue(!Simulation.isAntitheticReplication());
+		double[] rep3 = sample(dist);
+		assertArrayEquals(expectedUniforms(5, 1, false), rep3, 0.0d);
+
+		setReplication(4, true);
+		assertEquals(1, Simulation.getReplicationSubstream());
+		assertTrue(Simulation.isAntitheticReplication());
+		double[] rep4 = sample(dist);
+		for (int i = 0; i < NUM_SAMPLES; i++)
+			assertEquals(1.0d - rep3[i], rep4[i], 1.0e-12d);
+
+		// The next pair moves on to the next substream
+		setReplication(5, true);
+		assertEquals(2, Simulation.getReplicationSubstream());
+		assertTrue(!Simulation.isAntitheticReplication());
+		double[] rep5 = sample(dist);
+		assertArrayEquals(expectedUniforms(5, 2, false), rep5, 0.0d);
+		assertTrue(allDifferent(rep3, rep5));
+
+		// The antithetic replication is reproduced when run again
+		setReplication(4, true);
+		assertArrayEquals(rep4, sample(dist), 0.0d);
+	}
+
+	@Test
+	public void testRandomSelector() {
+		DisplayEntity entA = new DisplayEntity();
+		DisplayEntity entB = new DisplayEntity();
+		DisplayEntity entC = new DisplayEntity();
+		entA.setInputName( "A" );
+		entB.setInputName( "B" );
+		entC.setInputName( "C" );
+
+		RandomSelector selector = InputAgent.defineEntityWithUniqueName(RandomSelector.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( selector, "EntityList", "A  B  C");
+		InputAgent.processEntity_Keyword_Value( selector, "ProbabilityList", "0.5  0.3  0.2");
+		InputAgent.processEntity_Keyword_Value( selector, "RandomSeed", "9");
+		selector.validate();
+
+		DisplayEntity[] ents = { entA, entB, entC };
+		for (int rep = 1; rep <= 4; rep++) {
+			setReplication(rep, true);
+			selector.earlyInit();
+			int[] expected = expectedIndices(selector.getProbabilityList(), 9, (rep - 1) / 2, rep % 2 == 0);
+			for (int i = 0; i < NUM_SAMPLES; i++)
+				assertTrue(selector.nextValue() == ents[expected[i]]);
+		}
+	}
+
+	@Test
+	public void testProbabilityDistribution() {
+		ProbabilityDistribution dist = new ProbabilityDistribution();
+		DoubleVector probs = new DoubleVector();
+		probs.addAll(new double[] { 0.1d, 0.2d, 0.3d, 0.4d });
+		DoubleVector values = new DoubleVector();
+		values.addAll(new double[] { 1.0d, 2.0d, 3.0d, 4.0d });
+		dist.setProbList(probs);
+		dist.setValueList(values);
+		dist.setRandomSeed(11);
+
+		try {
+			for (int rep = 1; rep <= 4; rep++) {
+				setReplication(rep, true);
+				dist.earlyInit();
+				int[] expected = expectedIndices(probs, 11, (rep - 1) / 2, rep % 2 == 0);
+				for (int i = 0; i < NUM_SAMPLES; i++)
+					assertEquals(values.get(expected[i]), dist.nextValue(), 0.0d);
+			}
+		}
+		finally {
+			dist.kill();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.jaamsim.ProbabilityDistributions.Distribution;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.sandwell.JavaSimulation.ErrorException;
+
+public class TestTruncatedDistribution {
+
+	@Test
+	/**
+	 * Tests the upper tail of the exponential distribution, which is another exponential distribution
+	 */
+	public void ExponentialTail() {
+		ExponentialDistribution dist = TestContinuousDistribution.defineDistribution(ExponentialDistribution.class,
+				"Mean", "1.0",
+				"MinValue", "50.0");
+
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, 51.0, 0.0001, 1.0, 0.005);
+		assertTrue( dist.getSampleMin(0.0) >= 50.0 );
+	}
+
+	@Test
+	/**
+	 * Tests a narrow range in the upper tail of the normal distribution
+	 */
+	public void NormalRange() {
+		NormalDistribution dist = TestContinuousDistribution.defineDistribution(NormalDistribution.class,
+				"Mean", "0.0",
+				"StandardDeviation", "1.0",
+				"MinValue", "3.0",
+				"MaxValue", "3.5");
+
+		// Moments of the truncated distribution, where Z = Phi(3.5) - Phi(3.0):
+		// mean = (phi(3.0) - phi(3.5)) / Z
+		// variance = 1 + (3.0 phi(3.0) - 3.5 phi(3.5)) / Z - mean^2
+		double phi3 = Math.exp(-4.5) / Math.sqrt(2.0 * Math.PI);
+		double phi35 = Math.exp(-6.125) / Math.sqrt(2.0 * Math.PI);
+		double z = 0.99976737092096446 - 0.99865010196837001;
+		double expectedMean = (phi3 - phi35) / z;
+		double expectedSD = Math.sqrt(1.0 + (3.0 * phi3 - 3.5 * phi35) / z - expectedMean * expectedMean);
+
+		TestContinuousDistribution.checkSampleStatistics(dist, 1000000, expectedMean, 0.0003, expectedSD, 0.005);
+		assertTrue( dist.getSampleMin(0.0) >= 3.0 );
+		assertTrue( dist.getSampleMax(0.0) <= 3.5 );
+	}
+
+	@Test
+	/**
+	 * Tests that the samples returned in bulk are the same as those returned one at a time
+	 */
+	public void FillSamples() {
+		Distribution dist1 = this.getNormal();
+		Distribution dist2 = this.getNormal();
+
+		int numSamples = 1000;
+		double[] samples = new double[numSamples];
+		dist2.fillSamples(0.0d, samples, numSamples);
+		for (int i = 0; i < numSamples; i++) {
+			assertTrue( dist1.getNextSample(0.0d) == samples[i] );
+		}
+	}
+
+	private Distribution getNormal() {
+		return TestContinuousDistribution.defineDistribution(NormalDistribution.class,
+				"MinValue", "-0.5",
+				"MaxValue", "0.2");
+	}
+
+	@Test
+	/**
+	 * Tests that an error is raised when no sample can fall between MinValue and MaxValue
+	 */
+	public void EmptyRange() {
+		NormalDistribution dist = TestContinuousDistribution.defineDistribution(NormalDistribution.class,
+				"MinValue", "50.0");
+
+		boolean thrown = false;
+		try {
+			dist.getNextSample(0.0d);
+		}
+		catch (ErrorException e) {
+			thrown = true;
+		}
+		assertTrue( thrown );
+	}
+}
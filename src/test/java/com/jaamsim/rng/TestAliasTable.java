@@ -0,0 +1,54 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.sandwell.JavaSimulation.DoubleVector;
+
+public class TestAliasTable {
+
+	@Test
+	public void testFrequencies() {
+		DoubleVector probs = new DoubleVector();
+		probs.add(0.5);
+		probs.add(0.0);
+		probs.add(0.3);
+		probs.add(0.15);
+		probs.add(0.05);
+		AliasTable table = new AliasTable(probs);
+
+		MRG1999a rng = new MRG1999a(1);
+		int numSamples = 1000000;
+		int[] counts = new int[probs.size()];
+		for (int i = 0; i < numSamples; i++)
+			counts[table.getIndex(rng.nextUniform())]++;
+
+		for (int i = 0; i < probs.size(); i++)
+			assertTrue( Math.abs( (double)counts[i] / numSamples - probs.get(i) ) < 0.002 );
+		assertTrue( counts[1] == 0 );
+	}
+
+	@Test
+	public void testSingleOutcome() {
+		DoubleVector probs = new DoubleVector();
+		probs.add(1.0);
+		AliasTable table = new AliasTable(probs);
+		assertTrue( table.getIndex(0.0) == 0 );
+		assertTrue( table.getIndex(0.999999) == 0 );
+	}
+}
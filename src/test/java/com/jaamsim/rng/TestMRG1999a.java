@@ -16,6 +16,8 @@ package com.jaamsim.rng;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 public class TestMRG1999a {
@@ -118,6 +120,54 @@ public class TestMRG1999a {
 		}
 	}
 
+	@Test
+	public void testJumpAhead() {
+		int[] counts = { 0, 1, 2, 3, 7, 10, 64, 100, 1000 };
+		for (int n : counts) {
+			long[] stepped = { 12345, 12345, 12345, 12345, 12345, 12345 };
+			for (int i = 0; i < n; i++)
+				MRG1999a.advanceStream(stepped);
+
+			long[] jumped = { 12345, 12345, 12345, 12345, 12345, 12345 };
+			MRG1999a.advanceStream(jumped, n);
+			assertTrue(Arrays.equals(stepped, jumped));
+
+			for (int i = 0; i < n; i++)
+				MRG1999a.advanceSubstream(stepped);
+
+			MRG1999a.advanceSubstream(jumped, n);
+			assertTrue(Arrays.equals(stepped, jumped));
+		}
+
+		MRG1999a test1 = new MRG1999a(10);
+		assertTrue(test1.toString().equals("1683636369, 362165168, 814316280, 869382050, 980203903, 2062101717"));
+
+		MRG1999a test2 = new MRG1999a();
+		test2.setSeedStream(0, 10);
+		assertTrue(test2.toString().equals("1065618315, 827657608, 299165607, 461289958, 2074659312, 274796520"));
+	}
+
+	@Test
+	public void testAntithetic() {
+		MRG1999a test1 = new MRG1999a(5);
+		MRG1999a test2 = new MRG1999a(5);
+		test2.setAntithetic(true);
+
+		double[] vals = new double[100];
+		for (int i = 0; i < 1000; i++) {
+			double u1 = test1.nextUniform();
+			double u2 = test2.nextUniform();
+			assertTrue(u2 > 0.0d && u2 < 1.0d);
+			assertTrue(Math.abs(u1 + u2 - 1.0d) < 1.0e-15d);
+		}
+
+		// The bulk values must match
+		test1.fillUniform(vals, vals.length);
+		for (int i = 0; i < vals.length; i++)
+			assertTrue(Math.abs(vals[i] + test2.nextUniform() - 1.0d) < 1.0e-15d);
+		assertTrue(test1.toString().equals(test2.toString()));
+	}
+
 	@Test
 	public void testKnownStates() {
 		MRG1999a test1 = new MRG1999a(0, 0, 1, 0, 0, 1);
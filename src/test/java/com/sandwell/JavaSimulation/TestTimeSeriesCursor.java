@@ -0,0 +1,107 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.events.Process;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.TimeUnit;
+
+public class TestTimeSeriesCursor {
+
+	private TimeSeries ts;
+
+	@Before
+	public void setup() {
+		// The time comparisons are made to the nearest clock tick
+		Entity.initEVT().setSimTimeScale(4000.0d);
+
+		// The hours unit is normally defined by the autoload file
+		if (Entity.getNamedEntity("h") == null) {
+			TimeUnit h = InputAgent.defineEntity(TimeUnit.class, "h", true);
+			InputAgent.processEntity_Keyword_Value(h, "ConversionFactorToSI", "3600");
+		}
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TimeSeries", true);
+		InputAgent.processEntity_Keyword_Value(ts, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value(ts, "Value", "{ 0:00:00 1 } { 2:00:00 5 } { 3:00:00 2 } { 7:30:00 4 }");
+		InputAgent.processEntity_Keyword_Value(ts, "CycleTime", "10 h");
+	}
+
+	private void assertCursor(TimeSeriesCursor cursor, double time) {
+		ts.seek(cursor, time);
+		String msg = String.format("time = %s", time);
+		assertEquals(msg, ts.getValueForTimeHours(time), cursor.getValue(), 0.0d);
+		assertEquals(msg, ts.getNextChangeTimeAfterHours(time), cursor.getNextChangeTime(), 1.0e-9d);
+	}
+
+	@Test
+	public void testForward() {
+		TimeSeriesCursor cursor = new TimeSeriesCursor();
+		for (int i = 0; i <= 400; i++)
+			assertCursor(cursor, i * 0.125d);
+	}
+
+	@Test
+	public void testBackward() {
+		TimeSeriesCursor cursor = new TimeSeriesCursor();
+		for (int i = 400; i >= 0; i--)
+			assertCursor(cursor, i * 0.125d);
+	}
+
+	@Test
+	public void testCycleWrap() {
+		// Times at, and within one clock tick of, the end of each cycle
+		TimeSeriesCursor cursor = new TimeSeriesCursor();
+		double tick = Process.getEventTolerance();
+		for (int i = 1; i <= 4; i++) {
+			assertCursor(cursor, i * 10.0d - 2.0d * tick);
+			assertCursor(cursor, i * 10.0d - 0.5d * tick);
+			assertCursor(cursor, i * 10.0d);
+			assertCursor(cursor, i * 10.0d + 0.5d * tick);
+			assertCursor(cursor, i * 10.0d + 2.0d * tick);
+		}
+
+		// Large steps that skip whole cycles
+		for (int i = 0; i <= 20; i++)
+			assertCursor(cursor, i * 17.25d);
+	}
+
+	@Test
+	public void testChangedInputs() {
+		// A cursor positioned before an input changes must not return the old points
+		TimeSeriesCursor cursor = new TimeSeriesCursor();
+		assertCursor(cursor, 4.0d);
+		assertEquals(2.0d, cursor.getValue(), 0.0d);
+
+		InputAgent.processEntity_Keyword_Value(ts, "Value", "{ 0:00:00 1 } { 2:00:00 5 } { 3:00:00 6 } { 7:30:00 4 }");
+		assertCursor(cursor, 4.0d);
+		assertEquals(6.0d, cursor.getValue(), 0.0d);
+
+		assertCursor(cursor, 7.75d);
+		assertEquals(10.0d, cursor.getNextChangeTime(), 1.0e-9d);
+
+		InputAgent.processEntity_Keyword_Value(ts, "CycleTime", "8 h");
+		assertCursor(cursor, 7.75d);
+		assertEquals(8.0d, cursor.getNextChangeTime(), 1.0e-9d);
+	}
+}
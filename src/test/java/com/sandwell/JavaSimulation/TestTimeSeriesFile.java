@@ -0,0 +1,228 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class TestTimeSeriesFile {
+
+	private static TimeSeriesData parse(double factor, String... lines) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (String line : lines)
+			sb.append(line).append('\n');
+		return TimeSeriesFile.parseRecords(new BufferedReader(new StringReader(sb.toString())), factor);
+	}
+
+	private static boolean parseFails(String... lines) throws IOException {
+		try {
+			parse(1.0d, lines);
+			return false;
+		}
+		catch (InputErrorException e) {
+			return true;
+		}
+	}
+
+	private static File createTempFile(String suffix) throws IOException {
+		File file = File.createTempFile("series", suffix);
+		file.deleteOnExit();
+		return file;
+	}
+
+	private static boolean readFails(File file) {
+		try {
+			TimeSeriesFile.read(file.toURI());
+			return false;
+		}
+		catch (InputErrorException e) {
+			return true;
+		}
+	}
+
+	private static void assertSameData(TimeSeriesData expected, TimeSeriesData data) {
+		assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.getTime(i), data.getTime(i), 0.0d);
+			assertEquals(expected.getValue(i), data.getValue(i), 0.0d);
+		}
+		assertEquals(expected.getMinValue(), data.getMinValue(), 0.0d);
+		assertEquals(expected.getMaxValue(), data.getMaxValue(), 0.0d);
+	}
+
+	@Test
+	public void testParseRecords() throws IOException {
+		// CSV and configuration file records can be mixed, with comments and blank lines
+		TimeSeriesData data = parse(2.0d,
+				"# Demand",
+				"2010-01-01 00:00:00, 1.5",
+				"",
+				"{ '2010-01-01 06:00:00' -2.0 }",
+				"2010-01-02 00:00:00,4");
+
+		assertEquals(3, data.size());
+		assertEquals(0.0d, data.getTime(0), 0.0d);
+		assertEquals(6.0d, data.getTime(1), 0.0d);
+		assertEquals(24.0d, data.getTime(2), 0.0d);
+		assertEquals(3.0d, data.getValue(0), 0.0d);
+		assertEquals(-4.0d, data.getValue(1), 0.0d);
+		assertEquals(8.0d, data.getValue(2), 0.0d);
+		assertEquals(-4.0d, data.getMinValue(), 0.0d);
+		assertEquals(8.0d, data.getMaxValue(), 0.0d);
+		assertTrue(data.binarySearch(6.0d) == 1);
+		assertTrue(data.binarySearch(7.0d) == -3);
+	}
+
+	@Test
+	public void testParseErrors() throws IOException {
+		assertTrue(parseFails());
+		assertTrue(parseFails("# no records"));
+		assertTrue(parseFails("2010-01-01 00:00:00"));
+		assertTrue(parseFails("2010-01-01 00:00:00, abc"));
+		assertTrue(parseFails("{ '2010-01-01 00:00:00 1.0 }"));
+		assertTrue(parseFails("2010-13-01 00:00:00, 1.0"));
+		assertTrue(parseFails("2010-01-01 06:00:00, 1.0", "2010-01-01 06:00:00, 2.0"));
+		assertTrue(parseFails("2010-01-01 06:00:00, 1.0", "2010-01-01 05:00:00, 2.0"));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		DoubleVector times = new DoubleVector();
+		DoubleVector values = new DoubleVector();
+		for (int i = 0; i < 1000; i++) {
+			times.add(i * 0.25d);
+			values.add(Math.sin(i * 0.1d));
+		}
+		TimeSeriesData expected = new TimeSeriesData(times, values);
+
+		File file = createTempFile(".jts");
+		TimeSeriesFile.write(file, expected);
+		assertEquals(32L + 16L * 1000L, file.length());
+		assertSameData(expected, TimeSeriesFile.read(file.toURI()));
+	}
+
+	@Test
+	public void testArrayColumns() {
+		// Only the first entries of the arrays are used, as when parsing the Value input
+		double[] times = { 0.0d, 1.0d, 2.5d, 0.0d, 0.0d };
+		double[] values = { 3.0d, -1.0d, 2.0d, 9.0d, -9.0d };
+		TimeSeriesData data = new TimeSeriesData(times, values, 3);
+
+		DoubleVector t = new DoubleVector();
+		DoubleVector v = new DoubleVector();
+		t.addAll(new double[] { 0.0d, 1.0d, 2.5d });
+		v.addAll(new double[] { 3.0d, -1.0d, 2.0d });
+		assertSameData(new TimeSeriesData(t, v), data);
+		assertTrue(data.binarySearch(3.0d) == -4);
+	}
+
+	@Test
+	public void testExporter() throws IOException {
+		File csv = createTempFile(".csv");
+		FileWriter writer = new FileWriter(csv);
+		try {
+			writer.write("2010-01-01 00:00:00, 1.0\n");
+			writer.write("2010-01-01 01:30:00, 3.0\n");
+			writer.write("2010-01-01 02:00:00, 2.0\n");
+		}
+		finally {
+			writer.close();
+		}
+
+		File file = createTempFile(".jts");
+		TimeSeriesExporter.main(new String[] { csv.getPath(), file.getPath(), "1000" });
+
+		BufferedReader reader = new BufferedReader(new StringReader(
+				"2010-01-01 00:00:00, 1000\n2010-01-01 01:30:00, 3000\n2010-01-01 02:00:00, 2000\n"));
+		TimeSeriesData expected = TimeSeriesFile.parseRecords(reader, 1.0d);
+		assertSameData(expected, TimeSeriesFile.read(file.toURI()));
+	}
+
+	/**
+	 * Writes a file with the given header, followed by the given number of doubles.
+	 */
+	private static File writeFile(int magic, int version, long count, int numDoubles) throws IOException {
+		File file = createTempFile(".jts");
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		try {
+			out.writeInt(magic);
+			out.writeInt(version);
+			out.writeLong(count);
+			out.writeDouble(0.0d);
+			out.writeDouble(1.0d);
+			for (int i = 0; i < numDoubles; i++)
+				out.writeDouble(i);
+		}
+		finally {
+			out.close();
+		}
+		return file;
+	}
+
+	@Test
+	public void testBadHeader() throws IOException {
+		int magic = 0x4A535453;
+		assertTrue(!readFails(writeFile(magic, 1, 2, 4)));
+		assertTrue(readFails(writeFile(0x12345678, 1, 2, 4)));
+		assertTrue(readFails(writeFile(magic, 2, 2, 4)));
+		assertTrue(readFails(writeFile(magic, 1, 0, 0)));
+		assertTrue(readFails(writeFile(magic, 1, -1, 4)));
+		assertTrue(readFails(writeFile(magic, 1, 3, 4)));
+		assertTrue(readFails(writeFile(magic, 1, Long.MAX_VALUE / 8, 4)));
+
+		// A file that is shorter than the header
+		File file = createTempFile(".jts");
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		try {
+			out.writeInt(magic);
+		}
+		finally {
+			out.close();
+		}
+		assertTrue(readFails(file));
+	}
+
+	@Test
+	public void testTruncated() throws IOException {
+		DoubleVector times = new DoubleVector();
+		DoubleVector values = new DoubleVector();
+		for (int i = 0; i < 10; i++) {
+			times.add(i);
+			values.add(i * 2.0d);
+		}
+		File file = createTempFile(".jts");
+		TimeSeriesFile.write(file, new TimeSeriesData(times, values));
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(file.length() - 8);
+		}
+		finally {
+			raf.close();
+		}
+		assertTrue(readFails(file));
+	}
+}
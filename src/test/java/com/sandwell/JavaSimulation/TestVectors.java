@@ -0,0 +1,234 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestVectors {
+
+	private static void assertValues(DoubleVector vec, double... expected) {
+		assertEquals(expected.length, vec.size());
+		for (int i = 0; i < expected.length; i++)
+			assertEquals(expected[i], vec.get(i), 0.0d);
+	}
+
+	private static void assertValues(IntegerVector vec, int... expected) {
+		assertEquals(expected.length, vec.size());
+		for (int i = 0; i < expected.length; i++)
+			assertEquals(expected[i], vec.get(i));
+	}
+
+	private static void assertValues(BooleanVector vec, boolean... expected) {
+		assertEquals(expected.length, vec.size());
+		for (int i = 0; i < expected.length; i++)
+			assertTrue(expected[i] == vec.get(i));
+	}
+
+	private static boolean setSizeFails(DoubleVector vec, int size) {
+		try {
+			vec.setSize(size);
+			return false;
+		}
+		catch (ArrayIndexOutOfBoundsException e) {
+			return true;
+		}
+	}
+
+	private static boolean subVectorFails(DoubleVector vec, int start, int end) {
+		try {
+			vec.subVector(start, end);
+			return false;
+		}
+		catch (ArrayIndexOutOfBoundsException e) {
+			return true;
+		}
+	}
+
+	private static boolean addAtFails(DoubleVector vec, int index) {
+		try {
+			vec.addAt(1.0d, index);
+			return false;
+		}
+		catch (ArrayIndexOutOfBoundsException e) {
+			return true;
+		}
+	}
+
+	private static boolean addAtFails(IntegerVector vec, int index) {
+		try {
+			vec.addAt(1, index);
+			return false;
+		}
+		catch (ArrayIndexOutOfBoundsException e) {
+			return true;
+		}
+	}
+
+	@Test
+	public void testGrowth() {
+		// Appending one value at a time with a capacity increment of one copies the storage
+		// only a logarithmic number of times
+		DoubleVector dv = new DoubleVector(1, 1);
+		IntegerVector iv = new IntegerVector(1, 1);
+		BooleanVector bv = new BooleanVector(1, 1);
+		int numGrowths = 0;
+		for (int i = 0; i < 100000; i++) {
+			int cap = dv.capacity();
+			dv.add(i);
+			iv.add(i);
+			bv.add(i % 3 == 0);
+			if (dv.capacity() != cap)
+				numGrowths++;
+		}
+		assertTrue(numGrowths < 40);
+		assertTrue(iv.capacity() < 2 * 100000);
+		assertTrue(bv.capacity() < 2 * 100000);
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i, dv.get(i), 0.0d);
+			assertEquals(i, iv.get(i));
+			assertTrue(bv.get(i) == (i % 3 == 0));
+		}
+
+		// The capacity increment is the smallest step
+		DoubleVector vec = new DoubleVector(10, 100);
+		for (int i = 0; i < 11; i++)
+			vec.add(i);
+		assertEquals(110, vec.capacity());
+	}
+
+	@Test
+	public void testSetSize() {
+		DoubleVector dv = new DoubleVector(2, 1);
+		dv.addAll(new double[] { 1.0d, 2.0d, 3.0d });
+
+		// Truncating and then extending the vector does not bring back the old values
+		dv.setSize(1);
+		assertValues(dv, 1.0d);
+		dv.setSize(4);
+		assertValues(dv, 1.0d, 0.0d, 0.0d, 0.0d);
+		dv.setSize(0);
+		assertValues(dv);
+		assertTrue(setSizeFails(dv, -1));
+
+		IntegerVector iv = new IntegerVector(1, 1);
+		iv.addAll(new int[] { 4, 5, 6 });
+		iv.setSize(2);
+		iv.setSize(5);
+		assertValues(iv, 4, 5, 0, 0, 0);
+
+		BooleanVector bv = new BooleanVector(1, 1);
+		bv.addAll(new boolean[] { true, true, true });
+		bv.setSize(1);
+		bv.setSize(3);
+		assertValues(bv, true, false, false);
+	}
+
+	@Test
+	public void testAddAll() {
+		DoubleVector dv = new DoubleVector(1, 1);
+		dv.add(1.0d);
+		dv.addAll(new double[] { 2.0d, 3.0d });
+		dv.addAll(new double[0]);
+		assertValues(dv, 1.0d, 2.0d, 3.0d);
+
+		// A vector can be appended to itself
+		dv.addAll(dv);
+		assertValues(dv, 1.0d, 2.0d, 3.0d, 1.0d, 2.0d, 3.0d);
+
+		// Only the values in use are appended, not the unused capacity
+		DoubleVector other = new DoubleVector(10, 1);
+		other.add(7.0d);
+		dv.clear();
+		dv.addAll(other);
+		assertValues(dv, 7.0d);
+
+		DoubleVector copy = new DoubleVector();
+		copy.add(9.0d);
+		copy.set(other);
+		assertValues(copy, 7.0d);
+
+		IntegerVector iv = new IntegerVector(1, 1);
+		iv.addAll(new int[] { 1, 2 });
+		iv.addAll(iv);
+		assertValues(iv, 1, 2, 1, 2);
+
+		BooleanVector bv = new BooleanVector(1, 1);
+		bv.addAll(new boolean[] { true, false });
+		bv.addAll(bv);
+		assertValues(bv, true, false, true, false);
+	}
+
+	@Test
+	public void testSubVector() {
+		DoubleVector dv = new DoubleVector(10, 1);
+		dv.addAll(new double[] { 1.0d, 2.0d, 3.0d, 4.0d });
+
+		assertValues(dv.subVector(1, 3), 2.0d, 3.0d);
+		assertValues(dv.subVector(0, 4), 1.0d, 2.0d, 3.0d, 4.0d);
+		assertValues(dv.subVector(2, 2));
+
+		// The sub-vector is a copy
+		DoubleVector sub = dv.subVector(0, 2);
+		sub.set(0, 10.0d);
+		sub.add(11.0d);
+		assertValues(dv, 1.0d, 2.0d, 3.0d, 4.0d);
+
+		// The range is checked against the size, not the capacity
+		assertTrue(subVectorFails(dv, -1, 2));
+		assertTrue(subVectorFails(dv, 0, 5));
+		assertTrue(subVectorFails(dv, 3, 2));
+	}
+
+	@Test
+	public void testAddAt() {
+		DoubleVector dv = new DoubleVector(10, 1);
+		dv.addAll(new double[] { 1.0d, 2.0d });
+		dv.addAt(0.5d, 1);
+		dv.subAt(2.0d, 0);
+		assertValues(dv, -1.0d, 2.5d);
+		assertTrue(addAtFails(dv, -1));
+		assertTrue(addAtFails(dv, 2));
+
+		IntegerVector iv = new IntegerVector(10, 1);
+		iv.addAll(new int[] { 1, 2 });
+		iv.addAt(3, 0);
+		iv.subAt(5, 1);
+		assertValues(iv, 4, -3);
+		assertTrue(addAtFails(iv, -1));
+		assertTrue(addAtFails(iv, 2));
+	}
+
+	@Test
+	public void testFillWithEntriesOf() {
+		DoubleVector dv = new DoubleVector(10, 1);
+		dv.fillWithEntriesOf(3, 2.0d);
+		assertValues(dv, 2.0d, 2.0d, 2.0d);
+		dv.setSize(5);
+		assertValues(dv, 2.0d, 2.0d, 2.0d, 0.0d, 0.0d);
+
+		IntegerVector iv = new IntegerVector(10, 1);
+		iv.fillWithEntriesOf(2, 7);
+		iv.setSize(3);
+		assertValues(iv, 7, 7, 0);
+
+		BooleanVector bv = new BooleanVector(10, 1);
+		bv.fillWithEntriesOf(2, true);
+		bv.setSize(3);
+		assertValues(bv, true, true, false);
+	}
+}